@@ -0,0 +1,22 @@
+package com.foodnow.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * The time source for the order and dispatch path: order times, dispatch deadlines,
+ * delivery timers and agent location freshness. A context that registers its own
+ * {@link Clock}, such as the delivery simulator with its virtual clock, replaces it.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
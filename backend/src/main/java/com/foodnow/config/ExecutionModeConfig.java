@@ -0,0 +1,62 @@
+package com.foodnow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Support for running on virtual threads ({@code spring.threads.virtual.enabled=true},
+ * Java 21 or later). Spring Boot then moves Tomcat requests and the application task
+ * executor and scheduler onto virtual threads; the background workers in this
+ * application follow the same switch.
+ * <p>
+ * Virtual threads make it cheap to have far more concurrent requests than
+ * connections, so database access is gated by a semaphore sized to the pool
+ * ({@code db.concurrency.limit}, default: the pool's maximum size when virtual
+ * threads are on, off otherwise).
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int limit = environment.getProperty("db.concurrency.limit", Integer.class, 0);
+                    if (limit <= 0 && Threading.VIRTUAL.isActive(environment)) {
+                        limit = dataSource.getMaximumPoolSize();
+                    }
+                    if (limit > 0) {
+                        long timeoutMs = environment.getProperty("db.concurrency.acquire-timeout-ms", Long.class,
+                                dataSource.getConnectionTimeout());
+                        return new ConcurrencyLimitedDataSource(dataSource, limit, timeoutMs);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                Gauge.builder("foodnow.db.permits.available", limited, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .description("Database permits not currently held")
+                        .register(registry);
+                Gauge.builder("foodnow.db.permits.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                        .description("Threads waiting for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+}
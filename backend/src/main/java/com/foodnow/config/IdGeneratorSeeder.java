@@ -0,0 +1,44 @@
+package com.foodnow.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each pooled id generator past the highest id already in its table. Needed once
+ * for databases whose rows were created with IDENTITY ids; afterwards it is a no-op.
+ * Runs after the schema update so the {@code id_generators} table exists.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdGeneratorSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorSeeder.class);
+
+    // Generator keys match the pkColumnValue of each entity's @TableGenerator, which is its table name.
+    private static final List<String> TABLES = List.of("orders", "order_items", "cart_items", "payments");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        for (String table : TABLES) {
+            long firstFreeId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, table);
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", table, firstFreeId);
+            } else if (current.get(0) < firstFreeId) {
+                jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                        firstFreeId, table, firstFreeId);
+                logger.info("Moved id generator '{}' from {} to {}", table, current.get(0), firstFreeId);
+            }
+        }
+    }
+}
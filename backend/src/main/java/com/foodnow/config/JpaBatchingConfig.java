@@ -0,0 +1,51 @@
+package com.foodnow.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on JDBC batching for Hibernate writes. Entities written in bulk (orders, order
+ * lines, cart lines, payments) use pooled table-generated ids rather than IDENTITY,
+ * which would force an immediate INSERT per entity. Explicit {@code spring.jpa.properties}
+ * settings still win over these defaults.
+ */
+@Configuration
+public class JpaBatchingConfig {
+
+    @Value("${jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingHibernateProperties() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+            // pooled-lo: the stored value is the first id of the next block, which other
+            // writers (and IdGeneratorSeeder) can reason about without knowing the block size.
+            properties.putIfAbsent("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        };
+    }
+
+    /**
+     * MySQL Connector/J only sends a JDBC batch as one multi-row statement when asked to.
+     */
+    @Bean
+    public static BeanPostProcessor mysqlBatchRewriting() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+                    dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
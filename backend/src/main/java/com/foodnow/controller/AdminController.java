@@ -89,6 +89,18 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllRestaurants());
     }
 
+    @PutMapping("/restaurants/{restaurantId}/dispatch-sla")
+    public ResponseEntity<ApiResponse> setDispatchSla(@PathVariable int restaurantId, @RequestBody Map<String, Integer> request) {
+        try {
+            adminService.setDispatchSla(restaurantId, request.get("minutes"));
+            return ResponseEntity.ok(new ApiResponse(true, "Dispatch SLA updated."));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(false, e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping("/orders")
     public ResponseEntity<List<OrderDto>> getAllOrders() {
         return ResponseEntity.ok(adminService.getAllOrders());
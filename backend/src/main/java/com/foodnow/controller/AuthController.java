@@ -6,8 +6,8 @@ import com.foodnow.dto.LoginRequest;
 import com.foodnow.dto.ResetPasswordRequest;
 import com.foodnow.dto.SignUpRequest;
 import com.foodnow.exception.ResourceNotFoundException;
-import com.foodnow.model.User;
 import com.foodnow.service.AuthenticationService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -25,16 +26,18 @@ public class AuthController {
     @Autowired
     private AuthenticationService authenticationService;
 
+    // Hashing runs on a dedicated pool; the Tomcat thread is released until it completes.
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        String jwt = authenticationService.authenticateUser(loginRequest);
-        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        return authenticationService.authenticateUserAsync(loginRequest, request.getRemoteAddr())
+                .thenApply(jwt -> ResponseEntity.ok(new JwtAuthenticationResponse(jwt)));
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody SignUpRequest signUpRequest) {
-        User result = authenticationService.registerUser(signUpRequest);
-        return ResponseEntity.ok("User registered successfully!");
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody SignUpRequest signUpRequest) {
+        return authenticationService.registerUserAsync(signUpRequest)
+                .thenApply(result -> ResponseEntity.ok("User registered successfully!"));
     }
 
     // --- THIS IS THE CORRECTED AND SECURE IMPLEMENTATION ---
@@ -1,5 +1,6 @@
 package com.foodnow.controller;
 
+import com.foodnow.dto.AgentLocationDto;
 import com.foodnow.model.DeliveryAgentStatus;
 import com.foodnow.model.User;
 import com.foodnow.service.DeliveryService;
@@ -7,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -26,4 +28,17 @@ public class DeliveryController {
         User updatedAgent = deliveryService.updateDeliveryStatus(newStatus);
         return ResponseEntity.ok(updatedAgent);
     }
+
+    @PostMapping("/location")
+    public ResponseEntity<Void> updateLocation(@RequestBody AgentLocationDto location) {
+        deliveryService.recordLocations(List.of(location));
+        return ResponseEntity.noContent().build();
+    }
+
+    // Fixes buffered on the device and sent together, e.g. every few seconds or after a dead zone.
+    @PostMapping("/location/batch")
+    public ResponseEntity<Void> updateLocations(@RequestBody List<AgentLocationDto> locations) {
+        deliveryService.recordLocations(locations);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -32,8 +32,17 @@ public ResponseEntity<OrderDto> placeOrder(@RequestBody OrderAddressDto addressD
 }
 
 
+    /**
+     * Without paging parameters this returns the plain array the orders page expects.
+     * With {@code limit} and/or {@code cursor} it returns one keyset page, newest first,
+     * plus the cursor for the next one.
+     */
     @GetMapping("/my-orders")
-    public ResponseEntity<List<OrderDto>> getMyOrders() {
+    public ResponseEntity<?> getMyOrders(@RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) String cursor) {
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok(orderService.getMyOrdersPage(cursor, limit));
+        }
         // The service now returns a List<OrderDto> directly.
         List<OrderDto> dtoList = orderService.getMyOrders();
         return ResponseEntity.ok(dtoList);
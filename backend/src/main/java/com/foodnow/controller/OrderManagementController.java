@@ -4,16 +4,21 @@ import com.foodnow.dto.OrderDto;
 import com.foodnow.dto.UpdateOrderStatusRequest;
 import com.foodnow.model.Order;
 import com.foodnow.model.Restaurant;
+import com.foodnow.security.JwtTokenProvider;
 import com.foodnow.security.UserDetailsImpl;
 import com.foodnow.service.OrderManagementService;
+import com.foodnow.service.OrderStatusBroadcaster;
 import com.foodnow.service.RestaurantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,6 +27,8 @@ public class OrderManagementController {
 
     @Autowired private OrderManagementService orderManagementService;
     @Autowired private RestaurantService restaurantService;
+    @Autowired private OrderStatusBroadcaster orderStatusBroadcaster;
+    @Autowired private JwtTokenProvider tokenProvider;
 
     @GetMapping("/restaurant")
     @PreAuthorize("hasRole('RESTAURANT_OWNER')")
@@ -30,6 +37,28 @@ public class OrderManagementController {
         return ResponseEntity.ok(orderManagementService.getOrdersForRestaurant(currentRestaurant.getId()));
     }
 
+    /**
+     * A short-lived ticket for opening {@link #streamOrderStatuses} from an EventSource,
+     * which cannot send the Authorization header.
+     */
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, Object>> issueStreamTicket(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return ResponseEntity.ok(Map.of(
+                "ticket", tokenProvider.generateStreamTicket(userDetails),
+                "expiresInSeconds", tokenProvider.getStreamTicketSeconds()));
+    }
+
+    /**
+     * Server-sent events for every order the caller follows: a {@code snapshot} of the
+     * active ones, then a {@code status} event per change. Replaces polling the order pages.
+     * Authenticated by the {@code ticket} parameter from {@link #issueStreamTicket}.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatuses(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        int userId = userDetails.getId();
+        return orderStatusBroadcaster.subscribe(userId, () -> orderManagementService.getActiveOrderStatuses(userId));
+    }
+
     @PatchMapping("/{orderId}/status")
     @PreAuthorize("hasAnyRole('RESTAURANT_OWNER', 'ADMIN', 'DELIVERY_PERSONNEL', 'CUSTOMER')")
     public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable int orderId, @RequestBody UpdateOrderStatusRequest request) {
@@ -1,15 +1,29 @@
 package com.foodnow.controller;
 
+import com.foodnow.dto.FacetResultDto;
 import com.foodnow.dto.RestaurantDto;
+import com.foodnow.dto.SearchResultDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.service.CatalogSnapshot;
+import com.foodnow.service.FacetQuery;
+import com.foodnow.service.GeoPoint;
+import com.foodnow.service.PostalCodeGeocoder;
 import com.foodnow.service.PublicService;
+import com.foodnow.service.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @RestController
@@ -21,39 +35,165 @@ public class PublicController {
     @Autowired
     private PublicService publicService;
 
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private PostalCodeGeocoder geocoder;
+
+    /**
+     * Without paging parameters this returns the plain array the dashboards expect,
+     * straight from the pre-serialized catalog snapshot. With {@code limit} and/or
+     * {@code cursor} it returns one keyset page plus the cursor for the next one.
+     */
     @GetMapping("/restaurants")
-    public ResponseEntity<List<RestaurantDto>> getAllRestaurants() {
-        logger.info("Fetching all restaurants for customer dashboard");
-        
-        List<RestaurantDto> restaurants = publicService.getAllActiveRestaurants();
-        
-        // Log the image URLs for debugging
-        restaurants.forEach(restaurant -> 
-            logger.info("Restaurant: {}, ImageUrl: {}", restaurant.getName(), restaurant.getImageUrl())
-        );
-        
+    public ResponseEntity<?> getAllRestaurants(@RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         // Set cache headers on server side only to prevent aggressive caching
-        return ResponseEntity.ok()
-                .cacheControl(CacheControl.noCache().mustRevalidate())
-                .header("Pragma", "no-cache")
-                .header("Expires", "0")
-                .body(restaurants);
+        CacheControl cacheControl = CacheControl.noCache().mustRevalidate();
+        if (limit != null || cursor != null) {
+            return ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .header("Pragma", "no-cache")
+                    .header("Expires", "0")
+                    .body(publicService.getActiveRestaurantPage(cursor, limit));
+        }
+        HttpHeaders noCache = new HttpHeaders();
+        noCache.set("Pragma", "no-cache");
+        noCache.set("Expires", "0");
+        Optional<String> current = publicService.revalidateActiveRestaurants(ifNoneMatch);
+        if (current.isPresent()) {
+            return notModified(current.get(), cacheControl, noCache, acceptEncoding);
+        }
+        return snapshotResponse(publicService.getActiveRestaurantsSnapshot(), cacheControl, noCache, ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Active restaurants near a point given as {@code lat}/{@code lng} or as a
+     * {@code postalCode}, nearest first, each with its {@code distanceKm}. Pass
+     * {@code radiusKm} for a radius query or only {@code k} for the k nearest.
+     */
+    @GetMapping("/restaurants/nearby")
+    public ResponseEntity<List<RestaurantDto>> getNearbyRestaurants(@RequestParam(required = false) Double lat,
+                                                                    @RequestParam(required = false) Double lng,
+                                                                    @RequestParam(required = false) String postalCode,
+                                                                    @RequestParam(required = false) Double radiusKm,
+                                                                    @RequestParam(required = false) Integer k) {
+        GeoPoint origin = GeoPoint.ofNullable(lat, lng);
+        if (origin == null && postalCode != null) {
+            origin = geocoder.locate(postalCode);
+            if (origin == null) {
+                throw new IllegalArgumentException("Unknown postal code: " + postalCode);
+            }
+        }
+        if (origin == null) {
+            throw new IllegalArgumentException("Either lat and lng or postalCode is required");
+        }
+        return ResponseEntity.ok(searchService.nearby(origin, radiusKm, k));
     }
 
     @GetMapping("/restaurants/{restaurantId}/menu")
-    public ResponseEntity<RestaurantDto> getRestaurantMenu(@PathVariable int restaurantId) {
-        logger.info("Fetching menu for restaurant ID: {}", restaurantId);
-        
+    public ResponseEntity<?> getRestaurantMenu(@PathVariable int restaurantId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Cache menu for 5 minutes
+        CacheControl cacheControl = CacheControl.maxAge(5, TimeUnit.MINUTES);
+        Optional<String> current = publicService.revalidateRestaurant(restaurantId, ifNoneMatch);
+        if (current.isPresent()) {
+            return notModified(current.get(), cacheControl, new HttpHeaders(), acceptEncoding);
+        }
         try {
-            RestaurantDto restaurant = publicService.getRestaurantWithMenu(restaurantId);
-            logger.info("Restaurant menu fetched: {}, ImageUrl: {}", restaurant.getName(), restaurant.getImageUrl());
-            
-            return ResponseEntity.ok()
-                    .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES)) // Cache menu for 5 minutes
-                    .body(restaurant);
+            CatalogSnapshot<?> menu = publicService.getRestaurantSnapshot(restaurantId);
+            return snapshotResponse(menu, cacheControl, new HttpHeaders(), ifNoneMatch, acceptEncoding);
         } catch (RuntimeException e) {
             logger.error("Restaurant not found with ID: {}", restaurantId, e);
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResultDto> search(@RequestParam("q") String query,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(query, limit));
+    }
+
+    /**
+     * Faceted filter over the menu items of all active restaurants, e.g.
+     * {@code ?category=DESSERT&dietaryType=VEGAN&maxPrice=300}. Repeat a parameter to OR
+     * values, so {@code available=true&available=false} matches any availability (default
+     * true). An empty parameter is no filter; a value that does not parse is a 400.
+     */
+    @GetMapping("/items")
+    public ResponseEntity<FacetResultDto> filterItems(@RequestParam(required = false) List<FoodCategory> category,
+                                                      @RequestParam(required = false) List<DietaryType> dietaryType,
+                                                      @RequestParam(required = false) List<Boolean> available,
+                                                      @RequestParam(required = false) Double minPrice,
+                                                      @RequestParam(required = false) Double maxPrice,
+                                                      @RequestParam(defaultValue = "0") int offset,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        FacetQuery query = new FacetQuery();
+        // EnumSet.copyOf cannot tell an empty list's element type, and ?category= binds to one.
+        if (category != null && !category.isEmpty()) {
+            query.setCategories(EnumSet.copyOf(category));
+        }
+        if (dietaryType != null && !dietaryType.isEmpty()) {
+            query.setDietaryTypes(EnumSet.copyOf(dietaryType));
+        }
+        if (available != null && !available.isEmpty()) {
+            query.setAvailable(available.contains(Boolean.TRUE) && available.contains(Boolean.FALSE) ? null : available.get(0));
+        }
+        query.setMinPrice(minPrice);
+        query.setMaxPrice(maxPrice);
+        query.setOffset(offset);
+        query.setLimit(limit);
+        return ResponseEntity.ok(searchService.filter(query));
+    }
+
+    /**
+     * Writes a snapshot's stored bytes: 304 when the client already has this ETag,
+     * otherwise the gzip copy under its own ETag if the client accepts it, else the plain JSON.
+     */
+    private ResponseEntity<?> snapshotResponse(CatalogSnapshot<?> snapshot, CacheControl cacheControl, HttpHeaders headers,
+                                               String ifNoneMatch, String acceptEncoding) {
+        if (snapshot.matches(ifNoneMatch)) {
+            return notModified(snapshot.getEtag(), cacheControl, headers, acceptEncoding);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(headers)
+                .eTag(gzip ? CatalogSnapshot.gzipEtag(snapshot.getEtag()) : snapshot.getEtag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    // Carries the tag of the representation the client would have been sent.
+    private static ResponseEntity<?> notModified(String etag, CacheControl cacheControl, HttpHeaders headers,
+                                                 String acceptEncoding) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .headers(headers)
+                .eTag(acceptsGzip(acceptEncoding) ? CatalogSnapshot.gzipEtag(etag) : etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+}
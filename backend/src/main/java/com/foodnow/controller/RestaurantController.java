@@ -75,8 +75,10 @@ public class RestaurantController {
 
     @PostMapping("/orders/{orderId}/ready")
     public ResponseEntity<Void> readyForPickup(@PathVariable int orderId) {
-        restaurantService.readyForPickup(orderId);
-        return ResponseEntity.ok().build();
+        // 202 when no agent was free and the order is waiting in the dispatch queue.
+        return restaurantService.readyForPickup(orderId)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.accepted().build();
     }
 
     @GetMapping("/profile")
@@ -164,6 +166,8 @@ public class RestaurantController {
         dto.setPhoneNumber(restaurant.getPhoneNumber());
         dto.setBusinessId(restaurant.getBusinessId());
         dto.setImageUrl(restaurant.getImageUrl());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
         if (restaurant.getMenu() != null) {
             List<FoodItemDto> menuDto = restaurant.getMenu().stream()
                 .map(this::toFoodItemDto)
@@ -0,0 +1,15 @@
+package com.foodnow.dto;
+
+public class AgentLocationDto {
+    private Double latitude;
+    private Double longitude;
+    // Epoch milliseconds when the fix was taken on the device; defaults to when it arrives.
+    private Long recordedAt;
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Long getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(Long recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -0,0 +1,25 @@
+package com.foodnow.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a faceted menu-item filter: the total number of matches, one page of
+ * items, and for each facet the number of matches each value would have if it were
+ * selected (keeping the other facets' selections).
+ */
+public class FacetResultDto {
+    private int total;
+    private List<FoodItemDto> items = new ArrayList<>();
+    private Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public List<FoodItemDto> getItems() { return items; }
+    public void setItems(List<FoodItemDto> items) { this.items = items; }
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+}
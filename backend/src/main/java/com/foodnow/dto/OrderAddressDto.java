@@ -4,6 +4,9 @@ public class OrderAddressDto {
     private String line1;
     private String city;
     private String postalCode;
+    // Optional; when missing the delivery point is geocoded from the postal code.
+    private Double latitude;
+    private Double longitude;
 
 
     // Add this inside the OrderAddressDto class
@@ -13,6 +16,8 @@ public String toString() {
            "line1='" + line1 + '\'' +
            ", city='" + city + '\'' +
            ", postalCode='" + postalCode + '\'' +
+           ", latitude=" + latitude +
+           ", longitude=" + longitude +
            '}';
 }
     // Getters and setters
@@ -22,4 +27,8 @@ public String toString() {
     public void setCity(String city) { this.city = city; }
     public String getPostalCode() { return postalCode; }
     public void setPostalCode(String postalCode) { this.postalCode = postalCode; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 }
@@ -18,6 +18,23 @@ public class OrderDto {
       private String deliveryAddressLine1;
     private String deliveryCity;
     private String deliveryPostalCode;
+
+    public OrderDto() {}
+
+    // Used by the order history JPQL constructor expression; items are attached afterwards.
+    public OrderDto(int id, String restaurantName, double totalPrice, OrderStatus status, LocalDateTime orderTime,
+                    boolean hasReview, String deliveryAddressLine1, String deliveryCity, String deliveryPostalCode) {
+        this.id = id;
+        this.restaurantName = restaurantName;
+        this.totalPrice = totalPrice;
+        this.status = status;
+        this.orderTime = orderTime;
+        this.hasReview = hasReview;
+        this.deliveryAddressLine1 = deliveryAddressLine1;
+        this.deliveryCity = deliveryCity;
+        this.deliveryPostalCode = deliveryPostalCode;
+    }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -1,10 +1,13 @@
 package com.foodnow.dto;
 
+import com.foodnow.model.FoodCategory;
+
 public class OrderItemDto {
     private String itemName;
     private int quantity;
     private double price;
         private String imageUrl; // ADD THIS FIELD
+    private FoodCategory category;
 
 
     // Getters and Setters
@@ -16,4 +19,6 @@ public class OrderItemDto {
     public void setPrice(double price) { this.price = price; }
      public String getImageUrl() { return imageUrl; } // ADD THIS GETTER
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; } // ADD THIS SETTER
+    public FoodCategory getCategory() { return category; }
+    public void setCategory(FoodCategory category) { this.category = category; }
 }
@@ -0,0 +1,24 @@
+package com.foodnow.dto;
+
+import java.util.List;
+
+/**
+ * One page of a customer's order history, newest first. {@code nextCursor} is null on the last page.
+ */
+public class OrderPageDto {
+    private List<OrderDto> items;
+    private String nextCursor;
+
+    public OrderPageDto() {}
+
+    public OrderPageDto(List<OrderDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<OrderDto> getItems() { return items; }
+    public void setItems(List<OrderDto> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,35 @@
+package com.foodnow.dto;
+
+import com.foodnow.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order's current status as pushed on the order stream, both in the initial
+ * snapshot and in each later change.
+ */
+public class OrderStatusUpdateDto {
+
+    private int orderId;
+    private OrderStatus status;
+    private String restaurantName;
+    private LocalDateTime orderTime;
+
+    public OrderStatusUpdateDto() {}
+
+    public OrderStatusUpdateDto(int orderId, OrderStatus status, String restaurantName, LocalDateTime orderTime) {
+        this.orderId = orderId;
+        this.status = status;
+        this.restaurantName = restaurantName;
+        this.orderTime = orderTime;
+    }
+
+    public int getOrderId() { return orderId; }
+    public void setOrderId(int orderId) { this.orderId = orderId; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+    public String getRestaurantName() { return restaurantName; }
+    public void setRestaurantName(String restaurantName) { this.restaurantName = restaurantName; }
+    public LocalDateTime getOrderTime() { return orderTime; }
+    public void setOrderTime(LocalDateTime orderTime) { this.orderTime = orderTime; }
+}
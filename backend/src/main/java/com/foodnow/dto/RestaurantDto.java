@@ -1,5 +1,7 @@
 package com.foodnow.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class RestaurantDto {
@@ -11,6 +13,10 @@ public class RestaurantDto {
     private String ownerName;
     private List<FoodItemDto> menu;
     private String imageUrl;
+    private Double latitude;
+    private Double longitude;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm; // only set on nearby results
 
     // Getters and Setters
     public int getId() { return id; }
@@ -27,6 +33,12 @@ public class RestaurantDto {
     public void setMenu(List<FoodItemDto> menu) { this.menu = menu; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
     public String getOwnerName() { return ownerName; }
     public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.foodnow.dto;
+
+import java.util.List;
+
+/**
+ * One page of the public restaurant catalog. {@code nextCursor} is null on the last page.
+ */
+public class RestaurantPageDto {
+    private List<RestaurantDto> items;
+    private String nextCursor;
+
+    public RestaurantPageDto() {}
+
+    public RestaurantPageDto(List<RestaurantDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<RestaurantDto> getItems() { return items; }
+    public void setItems(List<RestaurantDto> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
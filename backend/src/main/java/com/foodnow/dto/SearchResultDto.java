@@ -0,0 +1,19 @@
+package com.foodnow.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked results of a catalog search: matching restaurants and matching menu items.
+ * Items carry their restaurant's id and name; restaurants are returned without menus.
+ */
+public class SearchResultDto {
+    private List<RestaurantDto> restaurants = new ArrayList<>();
+    private List<FoodItemDto> items = new ArrayList<>();
+
+    // Getters and Setters
+    public List<RestaurantDto> getRestaurants() { return restaurants; }
+    public void setRestaurants(List<RestaurantDto> restaurants) { this.restaurants = restaurants; }
+    public List<FoodItemDto> getItems() { return items; }
+    public void setItems(List<FoodItemDto> items) { this.items = items; }
+}
@@ -0,0 +1,22 @@
+package com.foodnow.exception;
+
+import com.foodnow.model.OrderStatus;
+
+/**
+ * Thrown when an order cannot move to the requested status from the one it is in,
+ * either because the transition is not allowed or because another update got there first.
+ */
+public class InvalidStatusTransitionException extends IllegalStateException {
+
+    private final OrderStatus currentStatus;
+    private final OrderStatus requestedStatus;
+
+    public InvalidStatusTransitionException(int orderId, OrderStatus currentStatus, OrderStatus requestedStatus) {
+        super("Order #" + orderId + " cannot move from " + currentStatus + " to " + requestedStatus + ".");
+        this.currentStatus = currentStatus;
+        this.requestedStatus = requestedStatus;
+    }
+
+    public OrderStatus getCurrentStatus() { return currentStatus; }
+    public OrderStatus getRequestedStatus() { return requestedStatus; }
+}
@@ -0,0 +1,22 @@
+package com.foodnow.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is refused because of load or throttling. The handler
+ * turns it into the given status with a Retry-After header.
+ */
+public class RetryLaterException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public RetryLaterException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public HttpStatus getStatus() { return status; }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
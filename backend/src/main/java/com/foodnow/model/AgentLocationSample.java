@@ -0,0 +1,42 @@
+package com.foodnow.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One point of a delivery agent's downsampled track. Append-only: rows are written in
+ * JDBC batches by the location store and never updated.
+ */
+@Entity
+@Table(name = "agent_location_history",
+       indexes = @Index(name = "idx_agent_location_history_agent", columnList = "agent_id, recorded_at"))
+public class AgentLocationSample {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "agent_id", nullable = false)
+    private int agentId;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt;
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public int getAgentId() { return agentId; }
+    public void setAgentId(int agentId) { this.agentId = agentId; }
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -7,7 +7,11 @@ import jakarta.persistence.*;
 @Entity
 @Table(name = "cart_items")
 public class CartItem {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY) private int id;
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_item_ids")
+    @TableGenerator(name = "cart_item_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "cart_items", allocationSize = 50)
+    private int id;
 @ManyToOne 
 @JoinColumn(name = "cart_id", nullable = false)
 @JsonBackReference
@@ -0,0 +1,8 @@
+package com.foodnow.model;
+
+public enum EmailOutboxStatus {
+    PENDING, // Waiting to be sent (or waiting for its next retry)
+    SENDING, // Claimed by a dispatcher until next_attempt_at; taken over by another one after that
+    SENT,
+    DEAD     // Gave up after the maximum number of attempts
+}
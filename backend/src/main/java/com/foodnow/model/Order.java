@@ -10,7 +10,10 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled ids (see JpaBatchingConfig) keep Hibernate's JDBC insert batching on.
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     private int id;
 
     @ManyToOne
@@ -52,6 +55,13 @@ public class Order {
     @Column(name = "delivery_postal_code", nullable = false)
     private String deliveryPostalCode;
 
+    // Nullable: set from the client's coordinates or geocoded from the postal code.
+    @Column(name = "delivery_latitude")
+    private Double deliveryLatitude;
+
+    @Column(name = "delivery_longitude")
+    private Double deliveryLongitude;
+
     // --- Getters & Setters ---
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -88,4 +98,10 @@ public class Order {
 
     public String getDeliveryPostalCode() { return deliveryPostalCode; }
     public void setDeliveryPostalCode(String deliveryPostalCode) { this.deliveryPostalCode = deliveryPostalCode; }
+
+    public Double getDeliveryLatitude() { return deliveryLatitude; }
+    public void setDeliveryLatitude(Double deliveryLatitude) { this.deliveryLatitude = deliveryLatitude; }
+
+    public Double getDeliveryLongitude() { return deliveryLongitude; }
+    public void setDeliveryLongitude(Double deliveryLongitude) { this.deliveryLongitude = deliveryLongitude; }
 }
@@ -7,17 +7,33 @@ import jakarta.persistence.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(name = "order_item_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 50)
     private int id;
 
     @ManyToOne
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
-    @ManyToOne
-    @JoinColumn(name = "food_item_id", nullable = false)
+    // Kept for ratings and reporting, and as the read fallback for lines the backfill has not reached;
+    // null once the menu item is deleted.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "food_item_id")
     private FoodItem foodItem;
 
+    // Snapshot of the menu item taken at placement (or by OrderLineBackfillJob for older rows),
+    // so order history never has to join food_items.
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "item_image_url")
+    private String itemImageUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_category")
+    private FoodCategory itemCategory;
+
     @Column(nullable = false)
     private int quantity;
 
@@ -37,4 +53,25 @@ public class OrderItem {
     public void setQuantity(int quantity) { this.quantity = quantity; }
     public double getPrice() { return price; }
     public void setPrice(double price) { this.price = price; }
+    public String getItemName() { return itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; }
+    public String getItemImageUrl() { return itemImageUrl; }
+    public void setItemImageUrl(String itemImageUrl) { this.itemImageUrl = itemImageUrl; }
+    public FoodCategory getItemCategory() { return itemCategory; }
+    public void setItemCategory(FoodCategory itemCategory) { this.itemCategory = itemCategory; }
+
+    // What order views show: the snapshot, or for a line OrderLineBackfillJob has not reached
+    // yet the live menu item, or "N/A" if that is gone too.
+    public String displayItemName() {
+        if (itemName != null) return itemName;
+        return foodItem != null ? foodItem.getName() : "N/A";
+    }
+
+    public String displayItemImageUrl() {
+        return itemName != null || foodItem == null ? itemImageUrl : foodItem.getImageUrl();
+    }
+
+    public FoodCategory displayItemCategory() {
+        return itemName != null || foodItem == null ? itemCategory : foodItem.getCategory();
+    }
 }
@@ -1,5 +1,11 @@
 package com.foodnow.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,        // Order placed, waiting for restaurant confirmation
     CONFIRMED,      // Restaurant has accepted the order
@@ -7,5 +13,29 @@ public enum OrderStatus {
     OUT_FOR_DELIVERY,
     DELIVERED,
     CANCELLED,      // Order was cancelled by user or restaurant
- PROCESSING
-}
\ No newline at end of file
+ PROCESSING;
+
+    // Target status -> statuses an order may move to it from. PENDING is only ever the initial status.
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        SOURCES.put(PENDING, EnumSet.noneOf(OrderStatus.class));
+        SOURCES.put(PROCESSING, EnumSet.of(PENDING));
+        SOURCES.put(CONFIRMED, EnumSet.of(PENDING, PROCESSING));
+        SOURCES.put(PREPARING, EnumSet.of(PENDING, PROCESSING, CONFIRMED));
+        SOURCES.put(OUT_FOR_DELIVERY, EnumSet.of(PENDING, PROCESSING, CONFIRMED, PREPARING));
+        SOURCES.put(DELIVERED, EnumSet.of(OUT_FOR_DELIVERY));
+        SOURCES.put(CANCELLED, EnumSet.of(PENDING, PROCESSING, CONFIRMED, PREPARING));
+    }
+
+    /**
+     * The statuses from which an order may move to this one.
+     */
+    public Set<OrderStatus> allowedSources() {
+        return Collections.unmodifiableSet(SOURCES.get(this));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return SOURCES.get(target).contains(this);
+    }
+}
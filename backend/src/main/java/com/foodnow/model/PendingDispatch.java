@@ -0,0 +1,54 @@
+package com.foodnow.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An order that is ready to go out but found no delivery agent. The row exists until
+ * an agent has been assigned; pending rows are loaded back into the dispatch queue at startup.
+ */
+@Entity
+@Table(name = "pending_dispatches", indexes = @Index(name = "idx_pending_dispatches_due", columnList = "dispatch_by"))
+public class PendingDispatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "order_id", nullable = false, unique = true)
+    private int orderId;
+
+    // Order time plus the restaurant's dispatch SLA; the queue serves the earliest first.
+    @Column(name = "dispatch_by", nullable = false)
+    private LocalDateTime dispatchBy;
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+
+    // The restaurant's location, for picking the nearest agent; null when it has none.
+    @Column(name = "pickup_latitude")
+    private Double pickupLatitude;
+
+    @Column(name = "pickup_longitude")
+    private Double pickupLongitude;
+
+    // Delay before the simulated drop-off once an agent is assigned.
+    @Column(name = "delivery_seconds", nullable = false)
+    private long deliverySeconds;
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public int getOrderId() { return orderId; }
+    public void setOrderId(int orderId) { this.orderId = orderId; }
+    public LocalDateTime getDispatchBy() { return dispatchBy; }
+    public void setDispatchBy(LocalDateTime dispatchBy) { this.dispatchBy = dispatchBy; }
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+    public Double getPickupLatitude() { return pickupLatitude; }
+    public void setPickupLatitude(Double pickupLatitude) { this.pickupLatitude = pickupLatitude; }
+    public Double getPickupLongitude() { return pickupLongitude; }
+    public void setPickupLongitude(Double pickupLongitude) { this.pickupLongitude = pickupLongitude; }
+    public long getDeliverySeconds() { return deliverySeconds; }
+    public void setDeliverySeconds(long deliverySeconds) { this.deliverySeconds = deliverySeconds; }
+}
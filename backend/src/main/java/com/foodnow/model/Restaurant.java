@@ -30,7 +30,15 @@ public class Restaurant {
     
     private String imageUrl;
 
-    @OneToOne
+    // Nullable: restaurants without a location are simply left out of nearby searches.
+    private Double latitude;
+
+    private Double longitude;
+
+    // Minutes from order placement by which an agent should be assigned; set by admins, null uses the platform default.
+    private Integer dispatchSlaMinutes;
+
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", referencedColumnName = "id")
     @JsonIgnore
     private User owner;
@@ -58,6 +66,12 @@ public class Restaurant {
     public void setStatus(RestaurantStatus status) { this.status = status; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Integer getDispatchSlaMinutes() { return dispatchSlaMinutes; }
+    public void setDispatchSlaMinutes(Integer dispatchSlaMinutes) { this.dispatchSlaMinutes = dispatchSlaMinutes; }
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
     public List<FoodItem> getMenu() { return menu; }
@@ -0,0 +1,42 @@
+package com.foodnow.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A timer that must survive restarts. The row exists until the job has run;
+ * pending rows are loaded back into the timing wheel at startup.
+ */
+@Entity
+@Table(name = "scheduled_jobs", indexes = @Index(name = "idx_scheduled_jobs_due", columnList = "due_at"))
+public class ScheduledJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduledJobType type;
+
+    @Column(name = "order_id", nullable = false)
+    private int orderId;
+
+    @Column(name = "agent_id")
+    private Integer agentId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public ScheduledJobType getType() { return type; }
+    public void setType(ScheduledJobType type) { this.type = type; }
+    public int getOrderId() { return orderId; }
+    public void setOrderId(int orderId) { this.orderId = orderId; }
+    public Integer getAgentId() { return agentId; }
+    public void setAgentId(Integer agentId) { this.agentId = agentId; }
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+}
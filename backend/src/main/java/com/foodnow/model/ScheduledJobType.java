@@ -0,0 +1,5 @@
+package com.foodnow.model;
+
+public enum ScheduledJobType {
+    COMPLETE_DELIVERY   // Simulated drop-off: mark the order delivered and the agent available again
+}
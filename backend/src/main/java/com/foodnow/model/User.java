@@ -49,6 +49,11 @@ public class User {
     @Enumerated(EnumType.STRING)
     private DeliveryAgentStatus deliveryStatus;
 
+    // Bumped whenever roles change so tokens issued before the change are rejected.
+    @Column(nullable = false)
+    @JsonIgnore
+    private int securityVersion = 0;
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -70,6 +75,8 @@ public class User {
     //public void setAddresses(Set<Address> addresses) { this.addresses = addresses; }
     public List<Review> getReviews() { return reviews; } // ADD THIS GETTER
     public void setReviews(List<Review> reviews) { this.reviews = reviews; } // ADD THIS SETTER
+    public int getSecurityVersion() { return securityVersion; }
+    public void setSecurityVersion(int securityVersion) { this.securityVersion = securityVersion; }
     public PasswordResetToken getPasswordResetToken() { return passwordResetToken; } // ADD THIS GETTER
     public void setPasswordResetToken(PasswordResetToken token) { this.passwordResetToken = token; } // ADD THIS SETTER
 
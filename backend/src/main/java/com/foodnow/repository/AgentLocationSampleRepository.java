@@ -0,0 +1,14 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.AgentLocationSample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AgentLocationSampleRepository extends JpaRepository<AgentLocationSample, Long> {
+
+    List<AgentLocationSample> findByAgentIdAndRecordedAtBetweenOrderByRecordedAtAsc(int agentId, LocalDateTime from, LocalDateTime to);
+}
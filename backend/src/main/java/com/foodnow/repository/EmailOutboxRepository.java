@@ -0,0 +1,40 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.EmailOutboxMessage;
+import com.foodnow.model.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Due messages, and messages whose claim lapsed because the dispatcher holding it went away.
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.status IN (com.foodnow.model.EmailOutboxStatus.PENDING, " +
+           "com.foodnow.model.EmailOutboxStatus.SENDING) AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims a due message until {@code leaseUntil}; returns 0 if another dispatcher got it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.foodnow.model.EmailOutboxStatus.SENDING, m.nextAttemptAt = :leaseUntil " +
+           "WHERE m.id = :id AND m.status IN (com.foodnow.model.EmailOutboxStatus.PENDING, com.foodnow.model.EmailOutboxStatus.SENDING) " +
+           "AND m.nextAttemptAt <= :now")
+    int claim(@Param("id") long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = com.foodnow.model.EmailOutboxStatus.SENT AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
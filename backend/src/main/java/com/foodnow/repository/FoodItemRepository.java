@@ -1,9 +1,26 @@
 package com.foodnow.repository;
 
 import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Integer> {
-}
\ No newline at end of file
+
+    // Menus for a whole catalog page in one query.
+    @Query("SELECT f FROM FoodItem f WHERE f.restaurant.id IN :restaurantIds AND f.available = true " +
+           "ORDER BY f.restaurant.id, f.id")
+    List<FoodItem> findAvailableByRestaurantIds(@Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    // Bulk load for the search and facet indexes: every item of restaurants in a status, with its restaurant.
+    @Query("SELECT f FROM FoodItem f JOIN FETCH f.restaurant r WHERE r.status = :status")
+    List<FoodItem> findAllByRestaurantStatus(@Param("status") Restaurant.RestaurantStatus status);
+
+    List<FoodItem> findByRestaurantId(int restaurantId);
+}
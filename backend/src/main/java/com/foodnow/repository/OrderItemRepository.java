@@ -1,11 +1,40 @@
 package com.foodnow.repository;
 
+import com.foodnow.model.FoodCategory;
 import com.foodnow.model.OrderItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
-    // This repository is mainly used through the Order entity,
-    // so it may not need custom query methods initially.
-}
\ No newline at end of file
+    // This repository is mainly used through the Order entity; the queries below maintain
+    // the menu item snapshot stored on each line.
+
+    @Query("SELECT oi.id FROM OrderItem oi WHERE oi.itemName IS NULL ORDER BY oi.id")
+    List<Integer> findIdsWithoutSnapshot(Pageable pageable);
+
+    // Lines whose menu item is already gone get a placeholder name so the backfill always finishes.
+    @Modifying
+    @Query("UPDATE OrderItem oi SET "
+            + "oi.itemName = COALESCE((SELECT f.name FROM FoodItem f WHERE f.id = oi.foodItem.id), 'Unavailable item'), "
+            + "oi.itemImageUrl = (SELECT f.imageUrl FROM FoodItem f WHERE f.id = oi.foodItem.id), "
+            + "oi.itemCategory = (SELECT f.category FROM FoodItem f WHERE f.id = oi.foodItem.id) "
+            + "WHERE oi.id IN :ids AND oi.itemName IS NULL")
+    int backfillSnapshots(@Param("ids") Collection<Integer> ids);
+
+    // Fills any missing snapshot from the item being deleted, then drops the reference to it.
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.itemName = COALESCE(oi.itemName, :name), "
+            + "oi.itemImageUrl = COALESCE(oi.itemImageUrl, :imageUrl), "
+            + "oi.itemCategory = COALESCE(oi.itemCategory, :category), "
+            + "oi.foodItem = NULL WHERE oi.foodItem.id = :foodItemId")
+    int detachFoodItem(@Param("foodItemId") int foodItemId, @Param("name") String name,
+                       @Param("imageUrl") String imageUrl, @Param("category") FoodCategory category);
+}
@@ -0,0 +1,16 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.FoodCategory;
+
+/**
+ * Read-only projection of an order line, with the id of the order it belongs to so
+ * the lines of a whole page of orders can be fetched in one query and grouped.
+ */
+public interface OrderItemView {
+    int getOrderId();
+    String getItemName();
+    String getImageUrl();
+    FoodCategory getCategory();
+    int getQuantity();
+    double getPrice();
+}
@@ -1,11 +1,19 @@
 package com.foodnow.repository;
 
+import com.foodnow.dto.OrderDto;
+import com.foodnow.dto.OrderStatusUpdateDto;
 import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +33,64 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :orderId")
     Optional<Order> findByIdWithItems(@Param("orderId") int orderId);
     
+    // Order history rows for the customer, newest first, with the restaurant name and review flag
+    // resolved in the same statement. Items are loaded separately by findItemViewsByOrderIds.
+    String ORDER_SUMMARY = "SELECT new com.foodnow.dto.OrderDto(o.id, r.name, o.totalPrice, o.status, o.orderTime, "
+            + "CASE WHEN rv.id IS NULL THEN false ELSE true END, "
+            + "o.deliveryAddressLine1, o.deliveryCity, o.deliveryPostalCode) "
+            + "FROM Order o JOIN o.restaurant r LEFT JOIN o.review rv ";
+
+    @Query(ORDER_SUMMARY + "WHERE o.customer.id = :customerId ORDER BY o.orderTime DESC, o.id DESC")
+    List<OrderDto> findOrderSummaries(@Param("customerId") int customerId, Pageable pageable);
+
+    // Keyset continuation: strictly older than the (orderTime, id) of the previous page's last row.
+    @Query(ORDER_SUMMARY + "WHERE o.customer.id = :customerId "
+            + "AND (o.orderTime < :beforeTime OR (o.orderTime = :beforeTime AND o.id < :beforeId)) "
+            + "ORDER BY o.orderTime DESC, o.id DESC")
+    List<OrderDto> findOrderSummariesBefore(@Param("customerId") int customerId,
+                                            @Param("beforeTime") LocalDateTime beforeTime,
+                                            @Param("beforeId") int beforeId,
+                                            Pageable pageable);
+
+    // Lines OrderLineBackfillJob has not reached yet read the menu item, as OrderItem.displayItemName does.
+    @Query("SELECT oi.order.id AS orderId, COALESCE(oi.itemName, f.name, 'N/A') AS itemName, "
+            + "CASE WHEN oi.itemName IS NULL THEN f.imageUrl ELSE oi.itemImageUrl END AS imageUrl, "
+            + "CASE WHEN oi.itemName IS NULL THEN f.category ELSE oi.itemCategory END AS category, "
+            + "oi.quantity AS quantity, oi.price AS price "
+            + "FROM OrderItem oi LEFT JOIN oi.foodItem f WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemView> findItemViewsByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
+
+    // Orders a user follows as customer, restaurant owner or delivery agent, for the order stream snapshot.
+    @Query("SELECT new com.foodnow.dto.OrderStatusUpdateDto(o.id, o.status, r.name, o.orderTime) "
+            + "FROM Order o JOIN o.restaurant r LEFT JOIN o.deliveryPersonnel d "
+            + "WHERE (o.customer.id = :userId OR r.owner.id = :userId OR d.id = :userId) "
+            + "AND o.status IN :statuses ORDER BY o.orderTime DESC, o.id DESC")
+    List<OrderStatusUpdateDto> findStatusesForUser(@Param("userId") int userId,
+                                                   @Param("statuses") Collection<OrderStatus> statuses);
+
+    // Compare-and-set status updates: the affected row count says whether the order was in one of the
+    // expected statuses. The conditional UPDATE locks the row until commit, so competing updates serialize.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target WHERE o.id = :orderId AND o.status IN :sources")
+    int updateStatusIfIn(@Param("orderId") int orderId, @Param("target") OrderStatus target,
+                         @Param("sources") Collection<OrderStatus> sources);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.deliveryPersonnel = :agent "
+            + "WHERE o.id = :orderId AND o.status IN :sources AND o.deliveryPersonnel IS NULL")
+    int updateStatusAndAgentIfIn(@Param("orderId") int orderId, @Param("target") OrderStatus target,
+                                 @Param("agent") User agent, @Param("sources") Collection<OrderStatus> sources);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :orderId")
+    Optional<OrderStatus> findStatusById(@Param("orderId") int orderId);
+
+    boolean existsByDeliveryPersonnelIdAndStatus(int deliveryPersonnelId, OrderStatus status);
+
+    @Query("SELECT o.id AS orderId, o.status AS status, r.name AS restaurantName, o.orderTime AS orderTime, "
+            + "o.customer.id AS customerId, r.owner.id AS ownerId, d.id AS agentId "
+            + "FROM Order o JOIN o.restaurant r LEFT JOIN o.deliveryPersonnel d WHERE o.id = :orderId")
+    Optional<OrderStatusView> findStatusViewById(@Param("orderId") int orderId);
+
     // --- Other methods ---
     List<Order> findByCustomerId(int customerId);
     List<Order> findByRestaurantId(int restaurantId);
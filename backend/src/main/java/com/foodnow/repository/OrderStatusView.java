@@ -0,0 +1,18 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The order's status together with the users who follow it, read without loading the entity.
+ */
+public interface OrderStatusView {
+    int getOrderId();
+    OrderStatus getStatus();
+    String getRestaurantName();
+    LocalDateTime getOrderTime();
+    Integer getCustomerId();
+    Integer getOwnerId();
+    Integer getAgentId();
+}
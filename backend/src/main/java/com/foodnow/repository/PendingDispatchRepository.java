@@ -0,0 +1,25 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.PendingDispatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PendingDispatchRepository extends JpaRepository<PendingDispatch, Long> {
+
+    boolean existsByOrderId(int orderId);
+
+    // Recovery reads the table in id order, one page at a time.
+    List<PendingDispatch> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    // Deleting the row is the claim: only the transaction that removes it assigns the order.
+    @Modifying
+    @Query("DELETE FROM PendingDispatch p WHERE p.id = :id")
+    int claim(@Param("id") long id);
+}
@@ -1,12 +1,26 @@
 package com.foodnow.repository;
 
 import com.foodnow.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Integer> {
     Optional<Restaurant> findByOwnerId(int ownerId);
-}
\ No newline at end of file
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.owner.id = :ownerId")
+    Optional<Integer> findIdByOwnerId(@Param("ownerId") int ownerId);
+
+    // Keyset page of the catalog: rows after the cursor id, in id order.
+    @Query("SELECT r FROM Restaurant r WHERE r.status = :status AND r.id > :afterId ORDER BY r.id")
+    List<Restaurant> findByStatusAfterId(@Param("status") Restaurant.RestaurantStatus status,
+                                         @Param("afterId") int afterId, Pageable pageable);
+
+    List<Restaurant> findByStatusOrderByIdAsc(Restaurant.RestaurantStatus status);
+}
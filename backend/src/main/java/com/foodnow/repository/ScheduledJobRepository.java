@@ -0,0 +1,23 @@
+package com.foodnow.repository;
+
+import com.foodnow.model.ScheduledJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, Long> {
+
+    // Recovery reads the table in id order, one page at a time.
+    List<ScheduledJob> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    // Deleting the row is the claim: only the transaction that removes it runs the job.
+    @Modifying
+    @Query("DELETE FROM ScheduledJob j WHERE j.id = :id")
+    int claim(@Param("id") long id);
+}
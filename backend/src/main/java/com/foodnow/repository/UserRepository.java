@@ -4,6 +4,9 @@ import com.foodnow.model.DeliveryAgentStatus;
 import com.foodnow.model.Role;
 import com.foodnow.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -17,6 +20,18 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     // New method to find all users with a specific role
     List<User> findByRole(Role role);
-        List<User> findByRoleAndDeliveryStatus(Role role, DeliveryAgentStatus status);
+
+    // Used by the token version check; avoids loading the whole user row.
+    @Query("SELECT u.securityVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findSecurityVersionById(@Param("id") int id);
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.deliveryStatus = :status ORDER BY u.id")
+    List<Integer> findIdsByRoleAndDeliveryStatus(@Param("role") Role role, @Param("status") DeliveryAgentStatus status);
+
+    // Conditional status change; returns 0 when the agent was not in the expected status.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.deliveryStatus = :target WHERE u.id = :id AND u.deliveryStatus = :expected")
+    int updateDeliveryStatusIf(@Param("id") int id, @Param("expected") DeliveryAgentStatus expected,
+                               @Param("target") DeliveryAgentStatus target);
 
 }
@@ -0,0 +1,79 @@
+package com.foodnow.security;
+
+import com.foodnow.exception.ResourceNotFoundException;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.User;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The authenticated user for the current request. The {@link User} entity and
+ * derived facts such as the owner's restaurant id are loaded at most once per
+ * request, however many services ask for them. Code that only needs the id
+ * should use {@link #getId()} or {@link #getReference()}, which never query.
+ */
+@Component
+@RequestScope
+public class CurrentUser {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+
+    private User user;
+    private Integer restaurantId;
+
+    /**
+     * Id of the authenticated user, taken from the security context.
+     */
+    public int getId() {
+        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return userDetails.getId();
+    }
+
+    /**
+     * The full user entity, loaded on first use.
+     */
+    public User get() {
+        if (user == null) {
+            int id = getId();
+            user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
+        }
+        return user;
+    }
+
+    /**
+     * A lazy reference for setting associations; does not hit the database.
+     */
+    public User getReference() {
+        return user != null ? user : userRepository.getReferenceById(getId());
+    }
+
+    /**
+     * Id of the restaurant owned by the current user.
+     */
+    public int getRestaurantId() {
+        if (restaurantId == null) {
+            int id = getId();
+            restaurantId = restaurantRepository.findIdByOwnerId(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found for owner ID: " + id));
+        }
+        return restaurantId;
+    }
+
+    /**
+     * Records the restaurant id when a caller has already loaded the restaurant.
+     */
+    public void rememberRestaurant(Restaurant restaurant) {
+        this.restaurantId = restaurant.getId();
+    }
+
+    public boolean isRestaurantKnown() {
+        return restaurantId != null;
+    }
+}
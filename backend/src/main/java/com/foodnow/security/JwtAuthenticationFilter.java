@@ -1,6 +1,5 @@
 package com.foodnow.security;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +8,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,8 +16,6 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -29,38 +25,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserVersionCache userVersionCache;
     
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String STREAM_PATH = "/api/manage/orders/stream";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            String ticket = jwt == null ? getStreamTicket(request) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
-                
-                Claims claims = tokenProvider.getClaimsFromJWT(jwt);
-                List<String> roles = claims.get("roles", List.class);
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-    .map(SimpleGrantedAuthority::new)
-
-    .collect(Collectors.toList());
-
-
-    System.out.println("ROLES FROM JWT: " + roles);
-System.out.println("AUTHORITY OBJECTS: " + authorities);
-
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities); // Pass the authorities from the token
-                
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("Setting authentication with authorities: " + authentication.getAuthorities());
+            if (StringUtils.hasText(jwt) || StringUtils.hasText(ticket)) {
+                // One verify-and-extract step; repeat tokens come straight from the cache.
+                JwtPrincipal principal = jwt != null ? tokenProvider.verifyAndExtract(jwt) : tokenProvider.verifyStreamTicket(ticket);
+                UserDetails userDetails = principal != null ? resolveUserDetails(principal) : null;
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, principal.getAuthorities()); // Pass the authorities from the token
 
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -69,6 +58,23 @@ System.out.println("AUTHORITY OBJECTS: " + authorities);
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal from the token claims and checks the security version
+     * against the in-memory cache. Tokens without a user id claim were issued before
+     * the claim existed and still go through the database lookup.
+     * Returns null for tokens revoked by a later role change.
+     */
+    private UserDetails resolveUserDetails(JwtPrincipal principal) {
+        if (principal.getUserId() == null) {
+            return userDetailsService.loadUserByUsername(principal.getSubject());
+        }
+        if (!userVersionCache.isCurrent(principal.getUserId(), principal.getSecurityVersion())) {
+            logger.debug("Rejecting stale token for user {}", principal.getUserId());
+            return null;
+        }
+        return UserDetailsImpl.fromToken(principal);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -76,4 +82,10 @@ System.out.println("AUTHORITY OBJECTS: " + authorities);
         }
         return null;
     }
+
+    // Browsers cannot set headers on an EventSource, so the order stream takes a short-lived
+    // ticket as a parameter. The main token is never read from the URL.
+    private String getStreamTicket(HttpServletRequest request) {
+        return STREAM_PATH.equals(request.getRequestURI()) ? request.getParameter("ticket") : null;
+    }
 }
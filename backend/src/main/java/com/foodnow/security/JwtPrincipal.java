@@ -0,0 +1,49 @@
+package com.foodnow.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable result of verifying a JWT once: the subject, user id, security
+ * version, roles and expiry. Authorities are built up front so cached principals can be reused
+ * by the filter without any further mapping.
+ */
+public final class JwtPrincipal {
+
+    private final String subject;
+    private final Integer userId;
+    private final int securityVersion;
+    private final List<String> roles;
+    private final List<SimpleGrantedAuthority> authorities;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String subject, List<String> roles, Instant expiresAt) {
+        this(subject, null, 0, roles, expiresAt);
+    }
+
+    public JwtPrincipal(String subject, Integer userId, int securityVersion, List<String> roles, Instant expiresAt) {
+        this.subject = subject;
+        this.userId = userId;
+        this.securityVersion = securityVersion;
+        this.roles = roles == null ? List.of() : List.copyOf(roles);
+        this.authorities = this.roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.expiresAt = expiresAt;
+    }
+
+    public String getSubject() { return subject; }
+    // Null for tokens issued before the id claim was introduced.
+    public Integer getUserId() { return userId; }
+    public int getSecurityVersion() { return securityVersion; }
+    public List<String> getRoles() { return roles; }
+    public List<SimpleGrantedAuthority> getAuthorities() { return authorities; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAt != null && expiresAt.toEpochMilli() <= nowMillis;
+    }
+}
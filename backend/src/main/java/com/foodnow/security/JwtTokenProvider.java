@@ -2,8 +2,10 @@ package com.foodnow.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,21 +20,57 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_SECURITY_VERSION = "sv";
+    static final String CLAIM_PURPOSE = "purpose";
+    static final String PURPOSE_ORDER_STREAM = "order-stream";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.stream-ticket-seconds:60}")
+    private int streamTicketSeconds;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    // Built once; both the key and the parser are immutable and thread-safe.
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return build(userPrincipal, jwtExpirationInMs).compact();
+    }
+
+    /**
+     * A ticket that only opens the order status stream. EventSource cannot send headers,
+     * so it travels in the URL and ends up in access logs and browser history; it is
+     * therefore short-lived and accepted nowhere else.
+     */
+    public String generateStreamTicket(UserDetailsImpl user) {
+        return build(user, streamTicketSeconds * 1000L)
+                .claim(CLAIM_PURPOSE, PURPOSE_ORDER_STREAM)
+                .compact();
+    }
 
+    public int getStreamTicketSeconds() {
+        return streamTicketSeconds;
+    }
+
+    private JwtBuilder build(UserDetailsImpl userPrincipal, long lifetimeMs) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
+        Date expiryDate = new Date(now.getTime() + lifetimeMs);
 
         List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -40,11 +78,63 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .claim("roles", roles) // Add roles as a custom claim
-                .setIssuedAt(new Date())
+                .claim(CLAIM_ROLES, roles) // Add roles as a custom claim
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_SECURITY_VERSION, userPrincipal.getSecurityVersion())
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .signWith(signingKey, SignatureAlgorithm.HS512);
+    }
+
+    /**
+     * Verifies the token and extracts everything the filter needs in a single parse.
+     * Tokens seen before are served from the cache without re-checking the signature.
+     * Returns null if the token is invalid or expired.
+     */
+    public JwtPrincipal verifyAndExtract(String token) {
+        JwtPrincipal cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.get(CLAIM_PURPOSE) != null) {
+                // A single-purpose ticket is not a bearer token.
+                return null;
+            }
+            JwtPrincipal principal = toPrincipal(claims);
+            tokenCache.put(token, principal);
+            return principal;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Verifies a ticket from {@link #generateStreamTicket}. Returns null for anything else,
+     * including regular tokens, or if the ticket is invalid or expired.
+     */
+    public JwtPrincipal verifyStreamTicket(String ticket) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(ticket).getBody();
+            return PURPOSE_ORDER_STREAM.equals(claims.get(CLAIM_PURPOSE)) ? toPrincipal(claims) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Invalid stream ticket: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get(CLAIM_ROLES, List.class);
+        Integer securityVersion = claims.get(CLAIM_SECURITY_VERSION, Integer.class);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get(CLAIM_USER_ID, Integer.class),
+                securityVersion != null ? securityVersion : 0,
+                roles,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
     }
 
     public String getUsernameFromJWT(String token) {
@@ -52,20 +142,10 @@ public class JwtTokenProvider {
     }
 
     public Claims getClaimsFromJWT(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        }
-        return false;
+        return verifyAndExtract(authToken) != null;
     }
 }
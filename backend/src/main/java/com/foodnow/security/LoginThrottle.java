@@ -0,0 +1,94 @@
+package com.foodnow.security;
+
+import com.foodnow.exception.RetryLaterException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per email and per client IP in a fixed window and
+ * refuses further attempts (429) once either limit is reached. Checked before
+ * any hashing work is queued, so throttled attempts cost no BCrypt time.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Map<String, Window> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, Window> byIp = new ConcurrentHashMap<>();
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final long windowMillis;
+
+    public LoginThrottle(
+            @Value("${security.login.max-failures-per-email:5}") int maxFailuresPerEmail,
+            @Value("${security.login.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${security.login.window-seconds:300}") long windowSeconds) {
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowMillis = windowSeconds * 1000;
+    }
+
+    public void checkAllowed(String email, String ip) {
+        long now = System.currentTimeMillis();
+        check(lookup(byEmail, normalize(email)), maxFailuresPerEmail, now);
+        check(lookup(byIp, ip), maxFailuresPerIp, now);
+    }
+
+    public void recordFailure(String email, String ip) {
+        long now = System.currentTimeMillis();
+        increment(byEmail, normalize(email), now);
+        increment(byIp, ip, now);
+    }
+
+    public void recordSuccess(String email) {
+        if (email != null) {
+            byEmail.remove(normalize(email));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        byEmail.values().removeIf(w -> w.isOver(now));
+        byIp.values().removeIf(w -> w.isOver(now));
+    }
+
+    private void check(Window window, int limit, long now) {
+        if (window != null && !window.isOver(now) && window.failures.get() >= limit) {
+            long retryAfter = Math.max(1, (window.endsAt - now) / 1000);
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                    "Too many failed login attempts. Please try again later.");
+        }
+    }
+
+    private static Window lookup(Map<String, Window> windows, String key) {
+        return key == null ? null : windows.get(key);
+    }
+
+    private void increment(Map<String, Window> windows, String key, long now) {
+        if (key == null) {
+            return;
+        }
+        windows.compute(key, (k, w) -> w == null || w.isOver(now) ? new Window(now + windowMillis) : w)
+                .failures.incrementAndGet();
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Window {
+        final long endsAt;
+        final AtomicInteger failures = new AtomicInteger();
+
+        Window(long endsAt) { this.endsAt = endsAt; }
+
+        boolean isOver(long now) { return now >= endsAt; }
+    }
+}
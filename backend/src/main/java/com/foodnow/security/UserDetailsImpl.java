@@ -17,12 +17,18 @@ public class UserDetailsImpl implements UserDetails {
     @JsonIgnore
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private int securityVersion;
 
     public UserDetailsImpl(int id, String email, String password, Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, authorities, 0);
+    }
+
+    public UserDetailsImpl(int id, String email, String password, Collection<? extends GrantedAuthority> authorities, int securityVersion) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.securityVersion = securityVersion;
     }
 //converts the object to user model, role to granted authority ( customer, role_customer)
     public static UserDetailsImpl build(User user) {
@@ -32,13 +38,28 @@ public class UserDetailsImpl implements UserDetails {
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.getSecurityVersion());
+    }
+
+    // Builds the principal straight from verified token claims, without touching the database.
+    public static UserDetailsImpl fromToken(JwtPrincipal principal) {
+        return new UserDetailsImpl(
+                principal.getUserId(),
+                principal.getSubject(),
+                null,
+                principal.getAuthorities(),
+                principal.getSecurityVersion());
     }
 
     public int getId() {
         return id;
     }
 
+    public int getSecurityVersion() {
+        return securityVersion;
+    }
+
     @Override
     public String getUsername() {
         return email;
@@ -0,0 +1,78 @@
+package com.foodnow.security;
+
+import com.foodnow.model.User;
+import com.foodnow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each user's security version, used to reject tokens issued
+ * before a role change. A user's version is read from the database the first
+ * time it is needed and then served from memory, so authenticated requests do
+ * not hit the users table.
+ */
+@Component
+public class UserVersionCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public UserVersionCache(@Value("${jwt.user-version-cache.max-entries:50000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * True if a token carrying {@code tokenVersion} is still valid for the user.
+     */
+    public boolean isCurrent(int userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            current = userRepository.findSecurityVersionById(userId).orElse(null);
+            if (current == null) {
+                return false; // user no longer exists
+            }
+            makeRoom();
+            current = versions.merge(userId, current, Math::max);
+        }
+        return tokenVersion >= current;
+    }
+
+    /**
+     * Increments the user's security version. The new value becomes visible to
+     * the token check once the surrounding transaction commits.
+     */
+    public void bump(User user) {
+        int newVersion = user.getSecurityVersion() + 1;
+        user.setSecurityVersion(newVersion);
+        int userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.merge(userId, newVersion, Math::max);
+                }
+            });
+        } else {
+            versions.merge(userId, newVersion, Math::max);
+        }
+    }
+
+    private void makeRoom() {
+        // Evicted users are simply re-read from the database on their next request.
+        Iterator<Integer> it = versions.keySet().iterator();
+        while (versions.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.foodnow.service;
 
 import com.foodnow.dto.*;
+import com.foodnow.exception.ResourceNotFoundException;
 import com.foodnow.model.*;
 import com.foodnow.repository.OrderRepository;
 import com.foodnow.repository.RestaurantRepository;
 import com.foodnow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Import this
 
@@ -21,6 +23,9 @@ public class AdminService {
     @Autowired private RestaurantRepository restaurantRepository;
     @Autowired private OrderRepository orderRepository;
 
+    @Value("${dispatch.max-sla-minutes:120}")
+    private int maxSlaMinutes;
+
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::toUserDto)
@@ -46,6 +51,20 @@ public class AdminService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Sets how soon after placement a restaurant's orders should have an agent, which orders
+     * them in the shared dispatch queue; null restores the platform default.
+     */
+    @Transactional
+    public void setDispatchSla(int restaurantId, Integer minutes) {
+        if (minutes != null && (minutes < 1 || minutes > maxSlaMinutes)) {
+            throw new IllegalArgumentException("Dispatch SLA must be between 1 and " + maxSlaMinutes + " minutes");
+        }
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
+        restaurant.setDispatchSlaMinutes(minutes);
+    }
+
     @Transactional(readOnly = true) 
     public AnalyticsDto getAnalytics() {
         AnalyticsDto dto = new AnalyticsDto();
@@ -118,7 +137,9 @@ public class AdminService {
 
     private OrderItemDto toOrderItemDto(OrderItem item) {
         OrderItemDto dto = new OrderItemDto();
-        dto.setItemName(item.getFoodItem() != null ? item.getFoodItem().getName() : "N/A");
+        dto.setItemName(item.displayItemName());
+        dto.setImageUrl(item.displayItemImageUrl());
+        dto.setCategory(item.displayItemCategory());
         dto.setQuantity(item.getQuantity());
         dto.setPrice(item.getPrice());
         return dto;
@@ -0,0 +1,165 @@
+package com.foodnow.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Grid index over the last known positions of delivery agents, built for frequent moves.
+ *
+ * Same cell layout and search as {@link GeoIndex}, but without a lock: positions and
+ * cell membership live in concurrent maps and each agent's move is applied atomically
+ * per agent. A query may see an agent in both its old and new cell for a moment; hits
+ * are de-duplicated and always measured against the agent's current position.
+ */
+public class AgentGeoIndex {
+
+    private static final double MAX_DISTANCE_KM = Math.PI * GeoPoint.EARTH_RADIUS_KM;
+    private static final double INITIAL_KNN_RADIUS_KM = 1;
+
+    private final double cellDegrees;
+    private final Map<Long, Set<Integer>> cells = new ConcurrentHashMap<>();
+    private final Map<Integer, GeoPoint> positions = new ConcurrentHashMap<>();
+
+    public AgentGeoIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 90]");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Adds the agent or moves them to {@code position}.
+     */
+    public void put(int agentId, GeoPoint position) {
+        positions.compute(agentId, (id, previous) -> {
+            long key = cellKey(position);
+            if (previous != null) {
+                long previousKey = cellKey(previous);
+                if (previousKey == key) {
+                    return position;
+                }
+                leaveCell(previousKey, id);
+            }
+            // Inside compute, so a concurrent leaveCell cannot drop the cell between lookup and add.
+            cells.compute(key, (k, cell) -> {
+                Set<Integer> members = cell != null ? cell : ConcurrentHashMap.newKeySet();
+                members.add(id);
+                return members;
+            });
+            return position;
+        });
+    }
+
+    public void remove(int agentId) {
+        positions.computeIfPresent(agentId, (id, previous) -> {
+            leaveCell(cellKey(previous), id);
+            return null;
+        });
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Up to {@code k} agents nearest the origin and within {@code maxRadiusKm}, nearest first.
+     */
+    public List<Integer> nearest(GeoPoint origin, int k, double maxRadiusKm) {
+        double limit = Math.min(maxRadiusKm, MAX_DISTANCE_KM);
+        double radius = Math.min(INITIAL_KNN_RADIUS_KM, limit);
+        List<Hit> hits = collect(origin, radius);
+        while (hits.size() < k && hits.size() < positions.size() && radius < limit) {
+            radius = Math.min(radius * 2, limit);
+            hits = collect(origin, radius);
+        }
+        hits.sort(Comparator.comparingDouble((Hit hit) -> hit.distanceKm).thenComparingInt(hit -> hit.agentId));
+        List<Integer> result = new ArrayList<>(Math.min(k, hits.size()));
+        for (Hit hit : hits.subList(0, Math.min(k, hits.size()))) {
+            result.add(hit.agentId);
+        }
+        return result;
+    }
+
+    private List<Hit> collect(GeoPoint origin, double radiusKm) {
+        double angular = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double minLat = origin.getLatitude() - Math.toDegrees(angular);
+        double maxLat = origin.getLatitude() + Math.toDegrees(angular);
+        double cosLat = Math.cos(Math.toRadians(origin.getLatitude()));
+        Set<Integer> candidates = new HashSet<>();
+        boolean everyCell = minLat <= -90 || maxLat >= 90 || Math.sin(angular) >= cosLat;
+        if (!everyCell) {
+            double deltaLon = Math.toDegrees(Math.asin(Math.sin(angular) / cosLat));
+            double minLon = origin.getLongitude() - deltaLon;
+            double maxLon = origin.getLongitude() + deltaLon;
+            long fromLat = latCell(minLat);
+            long toLat = latCell(maxLat);
+            long fromLon = lonCell(minLon);
+            long toLon = lonCell(maxLon);
+            // Across the antimeridian, or when the box spans more cells than are occupied, scan them all.
+            everyCell = minLon < -180 || maxLon > 180 || (toLat - fromLat + 1) * (toLon - fromLon + 1) > cells.size();
+            if (!everyCell) {
+                for (long latIndex = fromLat; latIndex <= toLat; latIndex++) {
+                    for (long lonIndex = fromLon; lonIndex <= toLon; lonIndex++) {
+                        Set<Integer> cell = cells.get(cellKey(latIndex, lonIndex));
+                        if (cell != null) {
+                            candidates.addAll(cell);
+                        }
+                    }
+                }
+            }
+        }
+        if (everyCell) {
+            cells.values().forEach(candidates::addAll);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Integer agentId : candidates) {
+            GeoPoint position = positions.get(agentId);
+            if (position != null) {
+                double distance = origin.distanceKm(position);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(agentId, distance));
+                }
+            }
+        }
+        return hits;
+    }
+
+    private void leaveCell(long key, int agentId) {
+        cells.computeIfPresent(key, (k, cell) -> {
+            cell.remove(agentId);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long latCell(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long lonCell(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long cellKey(GeoPoint point) {
+        return cellKey(latCell(point.getLatitude()), lonCell(point.getLongitude()));
+    }
+
+    private static long cellKey(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private static final class Hit {
+        final int agentId;
+        final double distanceKm;
+
+        Hit(int agentId, double distanceKm) {
+            this.agentId = agentId;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.foodnow.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Takes agents out of dispatch when their location reports stop, so an app that was
+ * killed or lost signal does not leave a phantom ONLINE agent behind. Only agents that
+ * have reported at least once are tracked; clients that never send locations keep
+ * using the status toggle.
+ */
+@Component
+public class AgentHeartbeatMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentHeartbeatMonitor.class);
+
+    @Autowired private AgentLocationStore agentLocationStore;
+    @Autowired private AgentPool agentPool;
+    @Autowired private Clock clock;
+
+    @Value("${delivery.location.heartbeat-timeout-seconds:120}")
+    private long timeoutSeconds;
+
+    @Scheduled(initialDelayString = "${delivery.location.heartbeat-check-ms:15000}",
+               fixedDelayString = "${delivery.location.heartbeat-check-ms:15000}")
+    public void sweep() {
+        long cutoff = clock.millis() - timeoutSeconds * 1000;
+        for (int agentId : agentLocationStore.silentSince(cutoff)) {
+            try {
+                // An agent on a delivery is not ONLINE and cannot be taken out yet. Their track
+                // stays, so a sweep after the delivery releases them catches them then.
+                if (agentPool.markOffline(agentId)) {
+                    agentLocationStore.forget(agentId, cutoff);
+                    logger.info("Agent {} stopped reporting their location; marked OFFLINE", agentId);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Could not mark silent agent {} OFFLINE", agentId, e);
+            }
+        }
+    }
+}
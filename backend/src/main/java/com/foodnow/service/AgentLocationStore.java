@@ -0,0 +1,241 @@
+package com.foodnow.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests delivery agent location fixes. Agents report about once a second, so nothing
+ * here writes a row per fix:
+ * <ul>
+ *   <li>The latest fix per agent is kept in memory. A fix older than the one held is
+ *       dropped, so a late or retried batch cannot move an agent backwards. A position
+ *       older than {@code delivery.location.stale-after-seconds} is treated as unknown.</li>
+ *   <li>The track is downsampled to one point per {@code delivery.location.history-interval-seconds},
+ *       or sooner after a move of {@code delivery.location.history-min-distance-m}. Those
+ *       points are buffered and appended to {@code agent_location_history} in JDBC batches
+ *       every {@code delivery.location.flush-ms}. The buffer is bounded; when the database
+ *       falls behind, new points are dropped rather than held.</li>
+ * </ul>
+ * Agents that have reported and then gone quiet are found by {@link #silentSince}.
+ */
+@Service
+public class AgentLocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentLocationStore.class);
+
+    private static final String INSERT_SAMPLE =
+            "INSERT INTO agent_location_history (agent_id, latitude, longitude, recorded_at) VALUES (?, ?, ?, ?)";
+
+    private final long staleAfterMs;
+    private final long historyIntervalMs;
+    private final double historyMinDistanceKm;
+    private final int maxPendingSamples;
+    private final int flushBatchSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    private final Map<Integer, Track> tracks = new ConcurrentHashMap<>();
+    private final Queue<Fix> pendingSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Counter acceptedFixes;
+    private final Counter outdatedFixes;
+    private final Counter droppedSamples;
+    private final Timer flushTimer;
+
+    public AgentLocationStore(@Value("${delivery.location.stale-after-seconds:300}") long staleAfterSeconds,
+                              @Value("${delivery.location.history-interval-seconds:30}") long historyIntervalSeconds,
+                              @Value("${delivery.location.history-min-distance-m:250}") double historyMinDistanceMeters,
+                              @Value("${delivery.location.max-pending-samples:100000}") int maxPendingSamples,
+                              @Value("${delivery.location.flush-batch-size:500}") int flushBatchSize,
+                              JdbcTemplate jdbcTemplate,
+                              Clock clock,
+                              MeterRegistry meterRegistry) {
+        this.staleAfterMs = TimeUnit.SECONDS.toMillis(staleAfterSeconds);
+        this.historyIntervalMs = TimeUnit.SECONDS.toMillis(historyIntervalSeconds);
+        this.historyMinDistanceKm = historyMinDistanceMeters / 1000;
+        this.maxPendingSamples = maxPendingSamples;
+        this.flushBatchSize = flushBatchSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.acceptedFixes = Counter.builder("foodnow.delivery.location.fixes").tag("result", "accepted")
+                .description("Agent location fixes by outcome")
+                .register(meterRegistry);
+        this.outdatedFixes = Counter.builder("foodnow.delivery.location.fixes").tag("result", "outdated")
+                .description("Agent location fixes by outcome")
+                .register(meterRegistry);
+        this.droppedSamples = Counter.builder("foodnow.delivery.location.history.dropped")
+                .description("Track points dropped because the history buffer was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("foodnow.delivery.location.history.flush")
+                .description("Time spent appending buffered track points")
+                .register(meterRegistry);
+        Gauge.builder("foodnow.delivery.location.history.pending", pendingCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("foodnow.delivery.location.tracked", tracks, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a fix taken now.
+     */
+    public void update(int agentId, GeoPoint position) {
+        record(agentId, position, clock.millis());
+    }
+
+    /**
+     * Records a fix taken at {@code recordedAtMs}. Timestamps from the future are clamped
+     * to now; fixes already too old to dispatch on, or older than the agent's latest, are ignored.
+     */
+    public void record(int agentId, GeoPoint position, long recordedAtMs) {
+        long now = clock.millis();
+        Fix fix = new Fix(agentId, position, Math.min(recordedAtMs, now));
+        if (now - fix.recordedAtMs > staleAfterMs) {
+            outdatedFixes.increment();
+            return;
+        }
+        // Per-agent updates are serialized by the map, and forget cannot drop a track mid-update.
+        tracks.compute(agentId, (id, track) -> {
+            Track current = track != null ? track : new Track();
+            if (current.latest != null && fix.recordedAtMs <= current.latest.recordedAtMs) {
+                outdatedFixes.increment();
+                return current;
+            }
+            current.latest = fix;
+            acceptedFixes.increment();
+            if (current.lastSample == null
+                    || fix.recordedAtMs - current.lastSample.recordedAtMs >= historyIntervalMs
+                    || fix.position.distanceKm(current.lastSample.position) >= historyMinDistanceKm) {
+                current.lastSample = fix;
+                enqueueSample(fix);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * The agent's position, if they reported one recently enough to dispatch on.
+     */
+    public Optional<GeoPoint> current(int agentId) {
+        Track track = tracks.get(agentId);
+        Fix latest = track != null ? track.latest : null;
+        if (latest == null || clock.millis() - latest.recordedAtMs > staleAfterMs) {
+            return Optional.empty();
+        }
+        return Optional.of(latest.position);
+    }
+
+    /**
+     * The agents whose latest fix was taken before {@code cutoffMs}. Their tracks are kept
+     * until {@link #forget} is called, so an agent who could not be taken out of dispatch
+     * yet (one on a delivery) is found again by the next sweep.
+     */
+    public List<Integer> silentSince(long cutoffMs) {
+        List<Integer> silent = new ArrayList<>();
+        tracks.forEach((agentId, track) -> {
+            if (track.latest.recordedAtMs < cutoffMs) {
+                silent.add(agentId);
+            }
+        });
+        return silent;
+    }
+
+    /**
+     * Drops the agent's track if they are still silent since {@code cutoffMs}; a fix that
+     * arrived in the meantime keeps it. A later fix starts a new track.
+     */
+    public void forget(int agentId, long cutoffMs) {
+        tracks.computeIfPresent(agentId, (id, track) -> track.latest.recordedAtMs >= cutoffMs ? track : null);
+    }
+
+    public int trackedAgents() {
+        return tracks.size();
+    }
+
+    /**
+     * Appends the buffered track points to the history table.
+     */
+    @Scheduled(initialDelayString = "${delivery.location.flush-ms:5000}", fixedDelayString = "${delivery.location.flush-ms:5000}")
+    public void flush() {
+        List<Fix> batch = new ArrayList<>(flushBatchSize);
+        Fix sample;
+        while ((sample = pendingSamples.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(sample);
+            if (batch.size() == flushBatchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueueSample(Fix fix) {
+        if (pendingCount.incrementAndGet() > maxPendingSamples) {
+            pendingCount.decrementAndGet();
+            droppedSamples.increment();
+            return;
+        }
+        pendingSamples.offer(fix);
+    }
+
+    private void write(List<Fix> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SAMPLE, batch, batch.size(), (statement, fix) -> {
+                statement.setInt(1, fix.agentId);
+                statement.setDouble(2, fix.position.getLatitude());
+                statement.setDouble(3, fix.position.getLongitude());
+                statement.setTimestamp(4, new Timestamp(fix.recordedAtMs));
+            }));
+        } catch (RuntimeException e) {
+            // History is best effort; the latest positions, which dispatch relies on, are unaffected.
+            droppedSamples.increment(batch.size());
+            logger.error("Could not append {} agent track points", batch.size(), e);
+        }
+    }
+
+    private static final class Fix {
+        final int agentId;
+        final GeoPoint position;
+        final long recordedAtMs;
+
+        Fix(int agentId, GeoPoint position, long recordedAtMs) {
+            this.agentId = agentId;
+            this.position = position;
+            this.recordedAtMs = recordedAtMs;
+        }
+    }
+
+    private static final class Track {
+        volatile Fix latest;
+        Fix lastSample;
+    }
+}
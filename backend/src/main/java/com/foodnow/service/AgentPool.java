@@ -0,0 +1,218 @@
+package com.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Role;
+import com.foodnow.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory pool of the delivery agents that are ONLINE, so dispatch does not scan the
+ * users table. Agents queue in the order they became available and are claimed
+ * longest-idle first, unless the caller asks for the agent nearest a pickup point;
+ * agents reporting a position are also kept in a grid index for that.
+ * <p>
+ * The pool is a hint, not the source of truth: every claim is confirmed by a conditional
+ * {@code UPDATE ... WHERE delivery_status = 'ONLINE'}, so two dispatches (on this or any
+ * other instance) can never take the same agent. Entries for agents that went offline
+ * are dropped lazily when they reach the head of the queue. The pool follows status
+ * changes through {@link DeliveryAgentStatusChangedEvent} after commit, puts an agent
+ * back when the transaction that claimed it rolls back, and is reconciled with the
+ * table at startup and periodically.
+ */
+@Service
+public class AgentPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentPool.class);
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private AgentLocationStore locationStore;
+
+    @Value("${agents.pool.nearest-candidates:8}")
+    private int nearestCandidates;
+
+    @Value("${agents.pool.max-pickup-km:15}")
+    private double maxPickupKm;
+
+    private final Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+    // Membership of the queue; an id polled from the queue but missing here is stale.
+    private final Set<Integer> available = ConcurrentHashMap.newKeySet();
+    // Available agents with a known position; like the queue, checked against available on use.
+    private final AgentGeoIndex nearby = new AgentGeoIndex(0.05);
+
+    /**
+     * Takes the longest-idle online agent and marks them OFFLINE in the caller's transaction.
+     */
+    @Transactional
+    public Optional<Integer> claim() {
+        Integer agentId;
+        while ((agentId = queue.poll()) != null) {
+            if (!available.remove(agentId)) {
+                continue;
+            }
+            nearby.remove(agentId);
+            if (confirm(agentId)) {
+                return Optional.of(agentId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes the online agent nearest {@code pickup}, among those with a recent position
+     * within {@code agents.pool.max-pickup-km}. Falls back to {@link #claim()} when there is
+     * none, or when the pickup location is unknown.
+     */
+    @Transactional
+    public Optional<Integer> claimNearest(GeoPoint pickup) {
+        if (pickup != null) {
+            List<Integer> candidates;
+            // Every candidate leaves the index, so each round looks further out.
+            while (!(candidates = nearby.nearest(pickup, nearestCandidates, maxPickupKm)).isEmpty()) {
+                for (Integer agentId : candidates) {
+                    nearby.remove(agentId);
+                    if (locationStore.current(agentId).isEmpty()) {
+                        // Stopped reporting; still claimable in idle order.
+                        continue;
+                    }
+                    if (available.remove(agentId) && confirm(agentId)) {
+                        return Optional.of(agentId);
+                    }
+                }
+            }
+        }
+        return claim();
+    }
+
+    /**
+     * Claims this particular agent, as chosen by the batch dispatcher; false if they are no longer free.
+     */
+    @Transactional
+    public boolean claimAgent(int agentId) {
+        if (!available.remove(agentId)) {
+            return false;
+        }
+        nearby.remove(agentId);
+        return confirm(agentId);
+    }
+
+    /**
+     * Snapshot of the agents currently free, for the batch dispatcher. Entries may go
+     * stale at once; {@link #claimAgent} is the check.
+     */
+    public List<Integer> idleAgents() {
+        return new ArrayList<>(available);
+    }
+
+    /**
+     * Takes an idle agent out of rotation, as when they stop reporting. Agents on a
+     * delivery are left alone; returns whether the agent was ONLINE.
+     */
+    @Transactional
+    public boolean markOffline(int agentId) {
+        return confirm(agentId);
+    }
+
+    /**
+     * Moves an available agent in the proximity index; agents on a delivery are not indexed.
+     */
+    public void relocate(int agentId, GeoPoint position) {
+        if (available.contains(agentId)) {
+            nearby.put(agentId, position);
+        }
+    }
+
+    /**
+     * Puts an agent back ONLINE after a delivery, or after a claim that was not used.
+     */
+    @Transactional
+    public void release(int agentId) {
+        if (userRepository.updateDeliveryStatusIf(agentId, DeliveryAgentStatus.OFFLINE, DeliveryAgentStatus.ONLINE) == 1) {
+            eventPublisher.publishEvent(new DeliveryAgentStatusChangedEvent(agentId, DeliveryAgentStatus.ONLINE));
+        }
+    }
+
+    public int size() {
+        return available.size();
+    }
+
+    private boolean confirm(int agentId) {
+        if (userRepository.updateDeliveryStatusIf(agentId, DeliveryAgentStatus.ONLINE, DeliveryAgentStatus.OFFLINE) == 1) {
+            eventPublisher.publishEvent(new DeliveryAgentStatusChangedEvent(agentId, DeliveryAgentStatus.OFFLINE));
+            return true;
+        }
+        // Went offline without the pool hearing about it yet.
+        return false;
+    }
+
+    // Ahead of the dispatch queue, which drains as soon as an agent is back.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onStatusChanged(DeliveryAgentStatusChangedEvent event) {
+        if (event.getStatus() == DeliveryAgentStatus.ONLINE) {
+            add(event.getAgentId());
+        } else {
+            available.remove(event.getAgentId());
+            nearby.remove(event.getAgentId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onStatusChangeRolledBack(DeliveryAgentStatusChangedEvent event) {
+        // The row keeps its previous status. A re-added agent who was in fact offline is
+        // dropped by the next claim's conditional update.
+        if (event.getStatus() == DeliveryAgentStatus.OFFLINE) {
+            add(event.getAgentId());
+        } else {
+            available.remove(event.getAgentId());
+            nearby.remove(event.getAgentId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void load() {
+        resync();
+        logger.info("Delivery agent pool loaded with {} online agents", available.size());
+    }
+
+    /**
+     * Catches changes made outside this instance, such as by another node or by hand.
+     */
+    @Scheduled(initialDelayString = "${agents.pool.resync-ms:60000}", fixedDelayString = "${agents.pool.resync-ms:60000}")
+    public void resync() {
+        List<Integer> online = userRepository.findIdsByRoleAndDeliveryStatus(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE);
+        Set<Integer> onlineIds = new HashSet<>(online);
+        available.retainAll(onlineIds);
+        queue.removeIf(agentId -> !available.contains(agentId));
+        online.forEach(this::add);
+    }
+
+    private void add(int agentId) {
+        if (available.add(agentId)) {
+            queue.offer(agentId);
+            locationStore.current(agentId).ifPresent(position -> nearby.put(agentId, position));
+        }
+    }
+}
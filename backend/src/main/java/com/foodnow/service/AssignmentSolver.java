@@ -0,0 +1,158 @@
+package com.foodnow.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment of rows (orders) to columns (agents) on a dense cost matrix.
+ *
+ * {@link #solve} is the Hungarian algorithm with row potentials, O(n^2 m) for n rows
+ * and m columns; a rectangular matrix leaves the surplus rows or columns unassigned.
+ * It gives up and returns null once {@code deadlineNanos} (a {@link System#nanoTime()}
+ * value) has passed, checked once per row. {@link #greedy} is the one-at-a-time rule
+ * the solver replaces: each row, in order, takes its cheapest free column.
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * The optimal assignment as {@code result[row] = column}, or -1 for unassigned rows;
+     * null if the deadline passed first.
+     */
+    public static int[] solve(double[][] cost, long deadlineNanos) {
+        int rows = cost.length;
+        int columns = rows == 0 ? 0 : cost[0].length;
+        if (rows == 0 || columns == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= columns) {
+            return hungarian(cost, rows, columns, deadlineNanos);
+        }
+        // More rows than columns: solve the transpose and turn it round.
+        double[][] transposed = new double[columns][rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                transposed[j][i] = cost[i][j];
+            }
+        }
+        int[] byColumn = hungarian(transposed, columns, rows, deadlineNanos);
+        if (byColumn == null) {
+            return null;
+        }
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        for (int j = 0; j < columns; j++) {
+            result[byColumn[j]] = j;
+        }
+        return result;
+    }
+
+    /**
+     * Each row in turn takes the cheapest column not yet taken.
+     */
+    public static int[] greedy(double[][] cost) {
+        return greedy(cost, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Like {@link #greedy(double[][])}, but never makes a pair costing {@code cutoff} or more:
+     * a row with nothing cheaper is left at -1 and the column stays free for a later row.
+     */
+    public static int[] greedy(double[][] cost, double cutoff) {
+        int rows = cost.length;
+        int columns = rows == 0 ? 0 : cost[0].length;
+        int[] result = new int[rows];
+        boolean[] taken = new boolean[columns];
+        for (int i = 0; i < rows; i++) {
+            int best = -1;
+            for (int j = 0; j < columns; j++) {
+                if (!taken[j] && cost[i][j] < cutoff && (best < 0 || cost[i][j] < cost[i][best])) {
+                    best = j;
+                }
+            }
+            result[i] = best;
+            if (best >= 0) {
+                taken[best] = true;
+            }
+        }
+        return result;
+    }
+
+    public static double totalCost(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] >= 0) {
+                total += cost[i][assignment[i]];
+            }
+        }
+        return total;
+    }
+
+    // Requires rows <= columns. Arrays are 1-based; index 0 is the virtual start column.
+    private static int[] hungarian(double[][] cost, int rows, int columns, long deadlineNanos) {
+        double[] rowPotential = new double[rows + 1];
+        double[] columnPotential = new double[columns + 1];
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previous = new int[columns + 1];
+        double[] minSlack = new double[columns + 1];
+        boolean[] visited = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                return null;
+            }
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(visited, false);
+            // Grow an alternating tree from the new row until it reaches a free column.
+            do {
+                visited[column] = true;
+                int treeRow = rowOfColumn[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int next = 0;
+                double[] costRow = cost[treeRow - 1];
+                for (int j = 1; j <= columns; j++) {
+                    if (!visited[j]) {
+                        double slack = costRow[j - 1] - rowPotential[treeRow] - columnPotential[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            previous[j] = column;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            next = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= columns; j++) {
+                    if (visited[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = next;
+            } while (rowOfColumn[column] != 0);
+            // Flip the augmenting path.
+            do {
+                int before = previous[column];
+                rowOfColumn[column] = rowOfColumn[before];
+                column = before;
+            } while (column != 0);
+        }
+
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        for (int j = 1; j <= columns; j++) {
+            if (rowOfColumn[j] != 0) {
+                result[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -6,18 +6,23 @@ import com.foodnow.model.*;
 import com.foodnow.repository.PasswordResetTokenRepository;
 import com.foodnow.repository.UserRepository;
 import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.LoginThrottle;
+import com.foodnow.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AuthenticationService {
@@ -28,6 +33,9 @@ public class AuthenticationService {
     @Autowired private JwtTokenProvider tokenProvider;
     @Autowired private PasswordResetTokenRepository tokenRepository;
     @Autowired private EmailService emailService;
+    @Autowired private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired private LoginThrottle loginThrottle;
+    @Autowired private ApplicationEventPublisher eventPublisher;
     
     // Inject the frontend URL from your application.properties
     @Value("${app.frontend.url}")
@@ -85,10 +93,34 @@ public class AuthenticationService {
                 loginRequest.getPassword()
             )
         );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
         return tokenProvider.generateToken(authentication);
     }
 
+    /**
+     * Throttles the attempt, then runs the BCrypt check on the hashing pool
+     * so the request thread is released while it runs.
+     */
+    public CompletableFuture<String> authenticateUserAsync(LoginRequest loginRequest, String clientIp) {
+        String email = loginRequest.getEmail();
+        loginThrottle.checkAllowed(email, clientIp);
+        return passwordHashingExecutor.submit(() -> authenticateUser(loginRequest))
+                .whenComplete((jwt, ex) -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause == null) {
+                        loginThrottle.recordSuccess(email);
+                    } else if (cause instanceof BadCredentialsException) {
+                        loginThrottle.recordFailure(email, clientIp);
+                    }
+                });
+    }
+
+    /**
+     * Registers a new customer, hashing the password on the hashing pool.
+     */
+    public CompletableFuture<User> registerUserAsync(SignUpRequest signUpRequest) {
+        return passwordHashingExecutor.submit(() -> registerUser(signUpRequest));
+    }
+
     /**
      * Registers a new customer.
      */
@@ -123,6 +155,8 @@ public class AuthenticationService {
         user.setRole(Role.DELIVERY_PERSONNEL);
         user.setDeliveryStatus(DeliveryAgentStatus.ONLINE);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new DeliveryAgentStatusChangedEvent(saved.getId(), DeliveryAgentStatus.ONLINE));
+        return saved;
     }
 }
@@ -0,0 +1,144 @@
+package com.foodnow.service;
+
+import com.foodnow.model.PendingDispatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch dispatch, enabled with {@code dispatch.mode=batch}. Ready orders collect in the
+ * {@link DispatchQueue} for {@code dispatch.batch.window-ms}; each window is then matched
+ * against every idle agent at once by a minimum-cost assignment, instead of each order
+ * taking the nearest agent as it arrives.
+ * <p>
+ * The cost of giving an order to an agent is the pickup distance in km, less
+ * {@code dispatch.batch.age-weight-km-per-minute} for every minute the order is past
+ * its dispatch-by time (or plus, for every minute before it), so an overdue order wins
+ * an agent that is a little further away. Agents without a recent position count as
+ * {@code agents.pool.max-pickup-km} away, and pairs further apart than that are never
+ * made. The Hungarian solver gets {@code dispatch.batch.solver-budget-ms}; past that the
+ * window falls back to the greedy rule.
+ */
+@Component
+@ConditionalOnProperty(name = "dispatch.mode", havingValue = "batch")
+public class BatchDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    // Cost of a pair that must not be made; large enough that the solver only picks it when forced.
+    private static final double FORBIDDEN = 1e6;
+
+    private final DispatchQueue dispatchQueue;
+    private final AgentPool agentPool;
+    private final AgentLocationStore agentLocationStore;
+    private final Clock clock;
+    private final double maxPickupKm;
+    private final double ageWeightKmPerMinute;
+    private final long solverBudgetNanos;
+
+    private final Timer solveTimer;
+    private final Counter greedyFallbacks;
+    private final Counter assignedOrders;
+
+    public BatchDispatcher(DispatchQueue dispatchQueue,
+                           AgentPool agentPool,
+                           AgentLocationStore agentLocationStore,
+                           Clock clock,
+                           @Value("${agents.pool.max-pickup-km:15}") double maxPickupKm,
+                           @Value("${dispatch.batch.age-weight-km-per-minute:0.5}") double ageWeightKmPerMinute,
+                           @Value("${dispatch.batch.solver-budget-ms:200}") long solverBudgetMs,
+                           MeterRegistry meterRegistry) {
+        this.dispatchQueue = dispatchQueue;
+        this.agentPool = agentPool;
+        this.agentLocationStore = agentLocationStore;
+        this.clock = clock;
+        this.maxPickupKm = maxPickupKm;
+        this.ageWeightKmPerMinute = ageWeightKmPerMinute;
+        this.solverBudgetNanos = TimeUnit.MILLISECONDS.toNanos(solverBudgetMs);
+        this.solveTimer = Timer.builder("foodnow.dispatch.batch.solve")
+                .description("Time spent solving a dispatch window's assignment")
+                .register(meterRegistry);
+        this.greedyFallbacks = Counter.builder("foodnow.dispatch.batch.greedy.fallbacks")
+                .description("Dispatch windows assigned greedily because the solver ran out of time")
+                .register(meterRegistry);
+        this.assignedOrders = Counter.builder("foodnow.dispatch.batch.assigned")
+                .description("Orders matched to an agent by the batch dispatcher")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${dispatch.batch.window-ms:2000}", fixedDelayString = "${dispatch.batch.window-ms:2000}")
+    public void dispatchWindow() {
+        List<PendingDispatch> orders = dispatchQueue.takeWaiting();
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Integer> agents = agentPool.idleAgents();
+        if (agents.isEmpty()) {
+            dispatchQueue.requeue(orders);
+            return;
+        }
+
+        double[][] cost = costMatrix(orders, agents, LocalDateTime.now(clock));
+        long started = System.nanoTime();
+        int[] match = AssignmentSolver.solve(cost, started + solverBudgetNanos);
+        if (match == null) {
+            greedyFallbacks.increment();
+            logger.warn("Assignment of {} orders to {} agents ran past its budget; dispatching greedily",
+                    orders.size(), agents.size());
+            match = AssignmentSolver.greedy(cost, FORBIDDEN);
+        }
+        solveTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        Map<PendingDispatch, Integer> assignments = new LinkedHashMap<>();
+        List<PendingDispatch> unassigned = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (match[i] >= 0 && cost[i][match[i]] < FORBIDDEN) {
+                assignments.put(orders.get(i), agents.get(match[i]));
+            } else {
+                unassigned.add(orders.get(i));
+            }
+        }
+        dispatchQueue.requeue(unassigned);
+        if (!assignments.isEmpty()) {
+            dispatchQueue.commit(assignments);
+            assignedOrders.increment(assignments.size());
+        }
+    }
+
+    // Rows are orders, most urgent first (greedy serves them in that order); columns are agents.
+    private double[][] costMatrix(List<PendingDispatch> orders, List<Integer> agents, LocalDateTime now) {
+        List<Optional<GeoPoint>> positions = new ArrayList<>(agents.size());
+        for (Integer agentId : agents) {
+            positions.add(agentLocationStore.current(agentId));
+        }
+        double[][] cost = new double[orders.size()][agents.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            PendingDispatch order = orders.get(i);
+            GeoPoint pickup = GeoPoint.ofNullable(order.getPickupLatitude(), order.getPickupLongitude());
+            double minutesLate = ChronoUnit.SECONDS.between(order.getDispatchBy(), now) / 60.0;
+            double urgency = ageWeightKmPerMinute * minutesLate;
+            for (int j = 0; j < agents.size(); j++) {
+                Optional<GeoPoint> position = positions.get(j);
+                double distance = pickup != null && position.isPresent() ? pickup.distanceKm(position.get()) : maxPickupKm;
+                cost[i][j] = distance > maxPickupKm ? FORBIDDEN : distance - urgency;
+            }
+        }
+        return cost;
+    }
+}
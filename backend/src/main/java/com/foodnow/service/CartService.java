@@ -6,9 +6,8 @@ import com.foodnow.dto.FoodItemDto;
 import com.foodnow.exception.ResourceNotFoundException;
 import com.foodnow.model.*;
 import com.foodnow.repository.*;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -21,7 +20,7 @@ public class CartService {
     @Autowired private CartRepository cartRepository;
     @Autowired private CartItemRepository cartItemRepository;
     @Autowired private FoodItemRepository foodItemRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private CurrentUser currentUser;
 
     @Transactional
     public CartDto getCartForCurrentUser() {
@@ -31,10 +30,9 @@ public class CartService {
 
     @Transactional
     public Cart getCartEntityForCurrentUser() {
-        User currentUser = getCurrentUser();
         return cartRepository.findByUserId(currentUser.getId()).orElseGet(() -> {
             Cart newCart = new Cart();
-            newCart.setUser(currentUser);
+            newCart.setUser(currentUser.getReference());
             return cartRepository.save(newCart);
         });
     }
@@ -76,7 +74,7 @@ public class CartService {
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
         
-        if (cartItem.getCart().getUser().getId() != getCurrentUser().getId()) {
+        if (cartItem.getCart().getUser().getId() != currentUser.getId()) {
             throw new SecurityException("Unauthorized access to cart item");
         }
         
@@ -92,7 +90,7 @@ public class CartService {
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
         
-        if (cartItem.getCart().getUser().getId() != getCurrentUser().getId()) {
+        if (cartItem.getCart().getUser().getId() != currentUser.getId()) {
             throw new SecurityException("Unauthorized access to cart item");
         }
         
@@ -110,13 +108,6 @@ public class CartService {
         cart.setTotalPrice(total);
         return cartRepository.save(cart);
     }
-    
-    private User getCurrentUser() {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
-                .getAuthentication().getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
 
     // --- DTO Conversion Helper Methods ---
     private CartDto toCartDto(Cart cart) {
@@ -0,0 +1,311 @@
+package com.foodnow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.dto.RestaurantDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the public catalog: the active restaurant list and each
+ * restaurant's menu, stored as {@link CatalogSnapshot}s so responses are serialized
+ * and compressed once per load. Entries are fresh for {@code catalog.cache.ttl-seconds};
+ * for a further {@code catalog.cache.stale-seconds} the old snapshot is still served
+ * while a single background reload replaces it. The cache is bounded by total weight
+ * (one unit per restaurant and per menu item) and evicts least-recently-used entries.
+ *
+ * Writers publish a {@link RestaurantCatalogChangedEvent}; the entry is dropped when
+ * their transaction commits so a concurrent read cannot re-cache the old state.
+ *
+ * The ETag of each key's last load is kept apart from the snapshot and outlives its TTL
+ * and eviction, until an invalidation. A conditional request that still matches it is
+ * answered without loading; if the entry has expired it is reloaded in the background,
+ * so a change made elsewhere shows up in the tag by the next request.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    private static final String ACTIVE_LIST_KEY = "active-restaurants";
+
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final long maxWeight;
+
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalWeight;
+    // Guarded by the entries lock; one short string per restaurant at most.
+    private final Map<Object, String> etags = new HashMap<>();
+    // Bumped on every invalidation, under the entries lock; a load that started before it is not stored.
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter notModified;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+    private final Timer loadTimer;
+
+    public CatalogCache(@Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${catalog.cache.stale-seconds:60}") long staleSeconds,
+                        @Value("${catalog.cache.max-weight:50000}") long maxWeight,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.staleNanos = TimeUnit.SECONDS.toNanos(staleSeconds);
+        this.maxWeight = maxWeight;
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256), runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.hits = requests(meterRegistry, "hit");
+        this.staleHits = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.notModified = requests(meterRegistry, "not-modified");
+        this.sizeEvictions = Counter.builder("foodnow.catalog.cache.evictions").tag("cause", "size")
+                .description("Catalog entries evicted to stay under the weight limit")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("foodnow.catalog.cache.evictions").tag("cause", "invalidation")
+                .description("Catalog entries dropped because the underlying data changed")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("foodnow.catalog.cache.load")
+                .description("Time spent loading catalog entries from the database")
+                .register(meterRegistry);
+        Gauge.builder("foodnow.catalog.cache.hit.ratio", this, CatalogCache::hitRatio)
+                .description("Share of catalog reads served from the cache, stale reads included")
+                .register(meterRegistry);
+        Gauge.builder("foodnow.catalog.cache.weight", this, CatalogCache::weight)
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("foodnow.catalog.cache.requests").tag("result", result)
+                .description("Catalog cache lookups by outcome")
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CatalogSnapshot<List<RestaurantDto>> getActiveRestaurants(Supplier<List<RestaurantDto>> loader) {
+        return (CatalogSnapshot<List<RestaurantDto>>) get(ACTIVE_LIST_KEY, loader::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    public CatalogSnapshot<RestaurantDto> getRestaurant(int restaurantId, Supplier<RestaurantDto> loader) {
+        return (CatalogSnapshot<RestaurantDto>) get(restaurantId, loader::get);
+    }
+
+    /**
+     * The active list's current ETag if {@code ifNoneMatch} matches it, without loading the list.
+     */
+    public Optional<String> revalidateActiveRestaurants(String ifNoneMatch, Supplier<List<RestaurantDto>> loader) {
+        return revalidate(ACTIVE_LIST_KEY, ifNoneMatch, loader::get);
+    }
+
+    /**
+     * The restaurant's current ETag if {@code ifNoneMatch} matches it, without loading the menu.
+     */
+    public Optional<String> revalidateRestaurant(int restaurantId, String ifNoneMatch, Supplier<RestaurantDto> loader) {
+        return revalidate(restaurantId, ifNoneMatch, loader::get);
+    }
+
+    /**
+     * Drops the restaurant's snapshot and the active list once the change that
+     * published the event has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(RestaurantCatalogChangedEvent event) {
+        invalidateRestaurant(event.getRestaurantId());
+    }
+
+    public void invalidateRestaurant(int restaurantId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            dropEntry(restaurantId);
+            dropEntry(ACTIVE_LIST_KEY);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+            etags.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public double hitRatio() {
+        double served = hits.count() + staleHits.count() + notModified.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    private CatalogSnapshot<?> get(Object key, Supplier<Object> loader) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt;
+            if (age <= ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age <= ttlNanos + staleNanos) {
+                staleHits.increment();
+                refreshInBackground(key, loader);
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return load(key, loader);
+    }
+
+    private Optional<String> revalidate(Object key, String ifNoneMatch, Supplier<Object> loader) {
+        String etag;
+        Entry entry;
+        synchronized (entries) {
+            etag = etags.get(key);
+            entry = entries.get(key);
+        }
+        if (etag == null || !CatalogSnapshot.matches(etag, ifNoneMatch)) {
+            return Optional.empty();
+        }
+        notModified.increment();
+        if (entry == null || System.nanoTime() - entry.loadedAt > ttlNanos) {
+            refreshInBackground(key, loader);
+        }
+        return Optional.of(etag);
+    }
+
+    private CatalogSnapshot<?> load(Object key, Supplier<Object> loader) {
+        long startGeneration = generation.get();
+        // Serialization and compression happen here, once per load rather than once per response.
+        CatalogSnapshot<?> snapshot = loadTimer.record(() -> CatalogSnapshot.of(loader.get(), objectMapper));
+        store(key, new Entry(snapshot, System.nanoTime(), weigh(snapshot.getValue())), startGeneration);
+        return snapshot;
+    }
+
+    private void refreshInBackground(Object key, Supplier<Object> loader) {
+        if (!refreshing.add(key)) {
+            return; // a reload for this key is already queued or running
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader);
+                } catch (RuntimeException e) {
+                    // Keep serving the stale entry; the next read past the stale window reloads inline.
+                    logger.warn("Background refresh of catalog entry '{}' failed", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue is full; a later read will try again.
+            refreshing.remove(key);
+        }
+    }
+
+    private void store(Object key, Entry entry, long startGeneration) {
+        synchronized (entries) {
+            // Checked under the same lock as invalidation, so an invalidation either sees this
+            // entry and drops it or has already moved the generation on.
+            if (generation.get() != startGeneration) {
+                return;
+            }
+            Entry previous = entries.put(key, entry);
+            etags.put(key, entry.value.getEtag());
+            totalWeight += entry.weight - (previous == null ? 0 : previous.weight);
+            Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator();
+            while (totalWeight > maxWeight && it.hasNext()) {
+                Map.Entry<Object, Entry> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue; // never evict what we just loaded
+                }
+                totalWeight -= eldest.getValue().weight;
+                it.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    private void dropEntry(Object key) {
+        etags.remove(key);
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+            invalidations.increment();
+        }
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof RestaurantDto) {
+            return weigh((RestaurantDto) value);
+        }
+        int weight = 1;
+        for (Object element : (List<?>) value) {
+            weight += weigh((RestaurantDto) element);
+        }
+        return weight;
+    }
+
+    private static int weigh(RestaurantDto restaurant) {
+        return 1 + (restaurant.getMenu() == null ? 0 : restaurant.getMenu().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static final class Entry {
+        final CatalogSnapshot<?> value;
+        final long loadedAt;
+        final int weight;
+
+        Entry(CatalogSnapshot<?> value, long loadedAt, int weight) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.foodnow.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A catalog value together with its JSON serialization, a gzip copy of that
+ * JSON and a strong ETag, all computed once when the value is loaded. The gzip
+ * copy is a different representation, so it is served under its own tag (see
+ * {@link #gzipEtag}). The byte arrays are shared by every response and must not
+ * be modified.
+ */
+public final class CatalogSnapshot<T> {
+
+    private final T value;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    private CatalogSnapshot(T value, byte[] json, byte[] gzip, String etag) {
+        this.value = value;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    static <T> CatalogSnapshot<T> of(T value, ObjectMapper objectMapper) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", e);
+        }
+        return new CatalogSnapshot<>(value, json, gzip(json), etag(json));
+    }
+
+    public T getValue() { return value; }
+    public byte[] getJson() { return json; }
+    public byte[] getGzip() { return gzip; }
+    public String getEtag() { return etag; }
+
+    /**
+     * The ETag of the gzip body: the plain tag with {@code -gzip} before the closing quote.
+     */
+    public static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * True if an If-None-Match header value matches this snapshot's ETag, for either encoding.
+     */
+    public boolean matches(String ifNoneMatch) {
+        return matches(etag, ifNoneMatch);
+    }
+
+    /**
+     * True if an If-None-Match header value matches {@code etag} or its gzip variant.
+     */
+    public static boolean matches(String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so a W/ prefix still matches.
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // The content hash is the version: identical payloads get identical tags on every instance.
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+
+/**
+ * Published whenever a delivery agent's availability is written, so the {@link AgentPool}
+ * can follow the table without rescanning it.
+ */
+public class DeliveryAgentStatusChangedEvent {
+
+    private final int agentId;
+    private final DeliveryAgentStatus status;
+
+    public DeliveryAgentStatusChangedEvent(int agentId, DeliveryAgentStatus status) {
+        this.agentId = agentId;
+        this.status = status;
+    }
+
+    public int getAgentId() { return agentId; }
+    public DeliveryAgentStatus getStatus() { return status; }
+}
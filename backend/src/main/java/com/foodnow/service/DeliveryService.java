@@ -1,32 +1,67 @@
 package com.foodnow.service;
 
-import com.foodnow.exception.ResourceNotFoundException;
+import com.foodnow.dto.AgentLocationDto;
 import com.foodnow.model.DeliveryAgentStatus;
 import com.foodnow.model.User;
 import com.foodnow.repository.UserRepository;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 @Service
 public class DeliveryService {
     @Autowired private UserRepository userRepository;
+    @Autowired private CurrentUser currentUser;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private AgentLocationStore agentLocationStore;
+    @Autowired private AgentPool agentPool;
+    @Autowired private Clock clock;
+
+    @Value("${delivery.location.max-batch:120}")
+    private int maxLocationBatch;
 
     @Transactional
     public User updateDeliveryStatus(DeliveryAgentStatus status) {
-        User currentUser = getCurrentUser();
-        currentUser.setDeliveryStatus(status);
-        return userRepository.save(currentUser);
+        User agent = currentUser.get();
+        agent.setDeliveryStatus(status);
+        User saved = userRepository.save(agent);
+        eventPublisher.publishEvent(new DeliveryAgentStatusChangedEvent(saved.getId(), status));
+        return saved;
     }
     
-    public DeliveryAgentStatus getMyStatus() {
-        return getCurrentUser().getDeliveryStatus();
+    /**
+     * Records a batch of the calling agent's location fixes, in any order. Fixes stay in
+     * memory (see {@link AgentLocationStore}) and never touch the users table.
+     */
+    public void recordLocations(List<AgentLocationDto> fixes) {
+        if (fixes.isEmpty() || fixes.size() > maxLocationBatch) {
+            throw new IllegalArgumentException("A location batch must hold between 1 and " + maxLocationBatch + " fixes");
+        }
+        long now = clock.millis();
+        List<AgentLocationDto> ordered = new ArrayList<>(fixes);
+        ordered.sort(Comparator.comparingLong(fix -> fix.getRecordedAt() != null ? fix.getRecordedAt() : now));
+        int agentId = currentUser.getId();
+        for (AgentLocationDto fix : ordered) {
+            if (fix.getLatitude() == null || fix.getLongitude() == null) {
+                throw new IllegalArgumentException("latitude and longitude are required");
+            }
+        }
+        for (AgentLocationDto fix : ordered) {
+            agentLocationStore.record(agentId, new GeoPoint(fix.getLatitude(), fix.getLongitude()),
+                    fix.getRecordedAt() != null ? fix.getRecordedAt() : now);
+        }
+        agentLocationStore.current(agentId).ifPresent(position -> agentPool.relocate(agentId, position));
     }
 
-    private User getCurrentUser() {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userRepository.findById(userDetails.getId()).orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public DeliveryAgentStatus getMyStatus() {
+        return currentUser.get().getDeliveryStatus();
     }
 }
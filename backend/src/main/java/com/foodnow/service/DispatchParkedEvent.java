@@ -0,0 +1,17 @@
+package com.foodnow.service;
+
+import com.foodnow.model.PendingDispatch;
+
+/**
+ * Published when an order is parked for dispatch; it joins the in-memory queue once that commits.
+ */
+public class DispatchParkedEvent {
+
+    private final PendingDispatch dispatch;
+
+    public DispatchParkedEvent(PendingDispatch dispatch) {
+        this.dispatch = dispatch;
+    }
+
+    public PendingDispatch getDispatch() { return dispatch; }
+}
@@ -0,0 +1,286 @@
+package com.foodnow.service;
+
+import com.foodnow.exception.InvalidStatusTransitionException;
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.PendingDispatch;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.ScheduledJobType;
+import com.foodnow.repository.PendingDispatchRepository;
+import com.foodnow.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders that are ready to go out while no delivery agent is free. Each one is a row in
+ * {@code pending_dispatches}, written in the caller's transaction and added to an
+ * in-memory priority queue after commit. The queue is served earliest
+ * {@code dispatch_by} first, which is the order time plus the restaurant's dispatch SLA,
+ * so the order closest to breaching its SLA gets the next agent.
+ * <p>
+ * The queue is drained whenever an agent becomes available, whenever an order is parked
+ * (an agent may have come online in between) and at startup. Each assignment runs in
+ * its own transaction that deletes the row, claims an agent from the {@link AgentPool}
+ * and dispatches the order. If another instance got to the row first the delete matches
+ * nothing and the entry is skipped; if the order was cancelled meanwhile the agent is
+ * released again.
+ * <p>
+ * With {@code dispatch.mode=batch} nothing is drained on events; the {@link BatchDispatcher}
+ * takes the whole queue each window and commits its assignments through {@link #commit}.
+ */
+@Service
+public class DispatchQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchQueue.class);
+
+    private static final Comparator<PendingDispatch> PRIORITY =
+            Comparator.comparing(PendingDispatch::getDispatchBy).thenComparingLong(PendingDispatch::getId);
+
+    @Autowired private PendingDispatchRepository pendingDispatchRepository;
+    @Autowired private AgentPool agentPool;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private ScheduledJobService scheduledJobService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private Clock clock;
+
+    @Value("${dispatch.default-sla-minutes:30}")
+    private int defaultSlaMinutes;
+
+    @Value("${dispatch.queue.recovery-batch-size:1000}")
+    private int recoveryBatchSize;
+
+    private final boolean batchMode;
+
+    private final PriorityBlockingQueue<PendingDispatch> waiting = new PriorityBlockingQueue<>(64, PRIORITY);
+    // Drain requests since the running drain started; only the caller that moves it off zero drains.
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private TransactionTemplate transaction;
+
+    public DispatchQueue(@Value("${dispatch.mode:greedy}") String mode) {
+        this.batchMode = "batch".equalsIgnoreCase(mode);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Drains run from after-commit callbacks, where the finished transaction is still bound.
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Parks the order until an agent is free. It only takes effect if the surrounding
+     * transaction commits; parking an order twice is a no-op.
+     */
+    @Transactional
+    public void park(Order order, Duration deliveryAfter) {
+        if (!order.getStatus().canTransitionTo(OrderStatus.OUT_FOR_DELIVERY)) {
+            throw new InvalidStatusTransitionException(order.getId(), order.getStatus(), OrderStatus.OUT_FOR_DELIVERY);
+        }
+        if (pendingDispatchRepository.existsByOrderId(order.getId())) {
+            return;
+        }
+        Restaurant restaurant = order.getRestaurant();
+        Integer slaMinutes = restaurant.getDispatchSlaMinutes();
+        PendingDispatch dispatch = new PendingDispatch();
+        dispatch.setOrderId(order.getId());
+        dispatch.setPickupLatitude(restaurant.getLatitude());
+        dispatch.setPickupLongitude(restaurant.getLongitude());
+        // Values saved before the SLA was admin-only may be zero or negative; those get the default.
+        dispatch.setDispatchBy(order.getOrderTime().plusMinutes(slaMinutes != null && slaMinutes > 0 ? slaMinutes : defaultSlaMinutes));
+        dispatch.setQueuedAt(LocalDateTime.now(clock));
+        dispatch.setDeliverySeconds(deliveryAfter.toSeconds());
+        eventPublisher.publishEvent(new DispatchParkedEvent(pendingDispatchRepository.save(dispatch)));
+        logger.info("No delivery agent free for order #{}; parked until one comes online", order.getId());
+    }
+
+    /**
+     * Orders waiting for an agent on this instance.
+     */
+    public int size() {
+        return waiting.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParked(DispatchParkedEvent event) {
+        waiting.add(event.getDispatch());
+        drain();
+    }
+
+    // Runs after the pool has taken the agent back (see AgentPool#onStatusChanged).
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentStatusChanged(DeliveryAgentStatusChangedEvent event) {
+        if (event.getStatus() == DeliveryAgentStatus.ONLINE) {
+            drain();
+        }
+    }
+
+    /**
+     * Loads every parked order into the queue, then assigns any agents already online.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(1)
+    public void recover() {
+        long lastId = 0;
+        int recovered = 0;
+        List<PendingDispatch> page;
+        do {
+            page = pendingDispatchRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, recoveryBatchSize));
+            for (PendingDispatch dispatch : page) {
+                waiting.add(dispatch);
+                lastId = dispatch.getId();
+            }
+            recovered += page.size();
+        } while (page.size() == recoveryBatchSize);
+        if (recovered > 0) {
+            logger.info("Recovered {} orders waiting for dispatch", recovered);
+        }
+        drain();
+    }
+
+    /**
+     * Catches agents the pool picked up without an event, such as on its periodic resync.
+     */
+    @Scheduled(initialDelayString = "${dispatch.queue.retry-ms:15000}", fixedDelayString = "${dispatch.queue.retry-ms:15000}")
+    public void retry() {
+        drain();
+    }
+
+    /**
+     * Whether {@code dispatch.mode=batch}: every order is parked and the
+     * {@link BatchDispatcher} matches the queue against idle agents each window.
+     */
+    public boolean isBatchMode() {
+        return batchMode;
+    }
+
+    /**
+     * Removes and returns every waiting order, most urgent first, for batch assignment.
+     * Orders not assigned must be handed back through {@link #requeue}.
+     */
+    public List<PendingDispatch> takeWaiting() {
+        List<PendingDispatch> taken = new ArrayList<>(waiting.size());
+        waiting.drainTo(taken);
+        taken.sort(PRIORITY);
+        return taken;
+    }
+
+    public void requeue(Collection<PendingDispatch> dispatches) {
+        waiting.addAll(dispatches);
+    }
+
+    /**
+     * Applies a batch of order-to-agent assignments in one transaction. An order whose
+     * agent was claimed elsewhere meanwhile goes back to the queue; if the transaction
+     * fails, all of them do.
+     */
+    public void commit(Map<PendingDispatch, Integer> assignments) {
+        List<PendingDispatch> agentGone = new ArrayList<>();
+        try {
+            transaction.executeWithoutResult(status -> assignments.forEach((dispatch, agentId) -> {
+                if (agentPool.claimAgent(agentId)) {
+                    hand(dispatch, agentId);
+                } else {
+                    agentGone.add(dispatch);
+                }
+            }));
+            waiting.addAll(agentGone);
+        } catch (RuntimeException e) {
+            logger.error("Committing a batch of {} dispatches failed; will retry", assignments.size(), e);
+            waiting.addAll(assignments.keySet());
+        }
+    }
+
+    /**
+     * Assigns waiting orders until either the queue or the agent pool runs out. Concurrent
+     * calls are folded into the one already running, which goes round again.
+     */
+    public void drain() {
+        if (batchMode) {
+            // The batch dispatcher assigns the whole queue at once on its own schedule.
+            return;
+        }
+        if (drainRequests.getAndIncrement() > 0) {
+            return;
+        }
+        int seen;
+        do {
+            seen = drainRequests.get();
+            assignWaiting();
+        } while (!drainRequests.compareAndSet(seen, 0));
+    }
+
+    private void assignWaiting() {
+        PendingDispatch next;
+        while ((next = waiting.poll()) != null) {
+            PendingDispatch dispatch = next;
+            try {
+                if (!Boolean.TRUE.equals(transaction.execute(status -> assign(dispatch)))) {
+                    waiting.add(dispatch);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.error("Dispatching parked order #{} failed; will retry", dispatch.getOrderId(), e);
+                waiting.add(dispatch);
+                return;
+            }
+        }
+    }
+
+    // False when no agent is free; the entry then stays queued.
+    private boolean assign(PendingDispatch dispatch) {
+        Optional<Integer> agentId = agentPool.claimNearest(
+                GeoPoint.ofNullable(dispatch.getPickupLatitude(), dispatch.getPickupLongitude()));
+        if (agentId.isEmpty()) {
+            return false;
+        }
+        hand(dispatch, agentId.get());
+        return true;
+    }
+
+    // The agent is already claimed; gives the parked order to them, or gives them back.
+    private void hand(PendingDispatch dispatch, int agentId) {
+        if (pendingDispatchRepository.claim(dispatch.getId()) == 0) {
+            // Assigned elsewhere; the agent goes back for the next one.
+            agentPool.release(agentId);
+            return;
+        }
+        int orderId = dispatch.getOrderId();
+        if (orderStateMachine.tryDispatch(orderId, userRepository.getReferenceById(agentId))) {
+            scheduledJobService.schedule(ScheduledJobType.COMPLETE_DELIVERY, orderId, agentId,
+                    Duration.ofSeconds(dispatch.getDeliverySeconds()));
+            logger.info("Parked order #{} assigned to agent {}", orderId, agentId);
+        } else {
+            // Cancelled or dispatched some other way while it waited.
+            agentPool.release(agentId);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.foodnow.service;
+
+import com.foodnow.model.EmailOutboxMessage;
+import com.foodnow.model.EmailOutboxStatus;
+import com.foodnow.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox in the background. Each batch is sent over a single
+ * SMTP connection (JavaMailSenderImpl reuses the transport for all messages
+ * passed to one send call). Failed messages are retried with exponential
+ * backoff and dead-lettered after the configured number of attempts.
+ *
+ * Several instances can poll the same outbox: each message is claimed with a
+ * conditional update to SENDING before it is sent, and only the dispatcher whose
+ * update matched sends it. The claim lasts {@code email.outbox.lease-seconds}; a
+ * message still SENDING after that (its dispatcher died mid-batch) is due again.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final String FROM_EMAIL = "noreply@foodnow.com";
+
+    @Autowired private EmailOutboxRepository outboxRepository;
+    @Autowired private JavaMailSender mailSender;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${email.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${email.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}",
+               initialDelayString = "${email.outbox.initial-delay-ms:5000}")
+    public void dispatchPendingEmails() {
+        // Keep draining while full batches go through; any failure waits for the next poll.
+        int sent;
+        do {
+            sent = dispatchBatch();
+        } while (sent == batchSize);
+    }
+
+    /**
+     * Sends one batch of due messages and records the outcome of each.
+     * Returns the number of messages sent successfully.
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>();
+        for (Long id : outboxRepository.findDueIds(now, PageRequest.of(0, batchSize))) {
+            if (outboxRepository.claim(id, now, now.plusSeconds(leaseSeconds)) == 1) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        List<EmailOutboxMessage> batch = outboxRepository.findAllById(claimed);
+
+        Map<MimeMessage, EmailOutboxMessage> byMimeMessage = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                byMimeMessage.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                markFailed(message, e, now);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        if (!byMimeMessage.isEmpty()) {
+            try {
+                mailSender.send(byMimeMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                // Per-message failures; a connection failure leaves this map empty.
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    batchFailure = e;
+                }
+            } catch (MailException e) {
+                batchFailure = e;
+            }
+        }
+
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : byMimeMessage.entrySet()) {
+            EmailOutboxMessage message = entry.getValue();
+            Exception error = batchFailure != null ? batchFailure : failures.get(entry.getKey());
+            if (error == null) {
+                sent++;
+                message.setStatus(EmailOutboxStatus.SENT);
+                message.setSentAt(now);
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError(null);
+            } else {
+                markFailed(message, error, now);
+            }
+        }
+        outboxRepository.saveAll(batch);
+        if (batchFailure != null) {
+            logger.warn("Email batch of {} failed: {}", batch.size(), batchFailure.getMessage());
+        } else {
+            logger.info("Email batch dispatched: {} sent, {} failed", sent, batch.size() - sent);
+        }
+        return sent;
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public void purgeSentEmails() {
+        int removed = outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            logger.info("Purged {} sent emails from the outbox", removed);
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(outboxMessage.getRecipient());
+        helper.setSubject(outboxMessage.getSubject());
+        helper.setFrom(FROM_EMAIL);
+        helper.setText(outboxMessage.getHtmlBody(), true);
+        return message;
+    }
+
+    private void markFailed(EmailOutboxMessage message, Exception error, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxStatus.DEAD);
+            logger.error("Email to {} dead-lettered after {} attempts: {}", message.getRecipient(), attempts, error.getMessage());
+        } else {
+            message.setStatus(EmailOutboxStatus.PENDING);
+            message.setNextAttemptAt(now.plusSeconds(backoffSeconds(attempts)));
+        }
+    }
+
+    // 30s, 60s, 120s, ... capped at the configured maximum.
+    private long backoffSeconds(int attempts) {
+        long backoff = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffSeconds);
+    }
+
+    private static String truncate(String text) {
+        if (text == null) {
+            return null;
+        }
+        return text.length() > 1000 ? text.substring(0, 1000) : text;
+    }
+}
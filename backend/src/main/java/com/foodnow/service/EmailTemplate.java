@@ -0,0 +1,122 @@
+package com.foodnow.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template compiled once into alternating static fragments and variable slots.
+ * Static text (layout, CSS, subject, body copy) is stored ready to copy; only the slots
+ * are filled per message, and their values are HTML-escaped as they are written.
+ *
+ * Placeholders use the {@code {{name}}} syntax. The footer year is a built-in slot
+ * supplied by {@link EmailTemplateEngine}.
+ */
+public final class EmailTemplate {
+
+    static final String YEAR_SLOT = "year";
+
+    private final String name;
+    private final String subject;
+    private final String[] fragments;   // fragments.length == slots.length + 1
+    private final String[] slots;
+    private final int staticLength;
+
+    private EmailTemplate(String name, String subject, String[] fragments, String[] slots) {
+        this.name = name;
+        this.subject = subject;
+        this.fragments = fragments;
+        this.slots = slots;
+        int length = 0;
+        for (String fragment : fragments) {
+            length += fragment.length();
+        }
+        this.staticLength = length;
+    }
+
+    static EmailTemplate compile(String name, String subject, String source) {
+        List<String> fragments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in email template '" + name + "' at " + open);
+            }
+            String slot = source.substring(open + 2, close).trim();
+            if (!slot.matches("[A-Za-z][A-Za-z0-9_]*")) {
+                throw new IllegalArgumentException("Invalid placeholder in email template '" + name + "' at " + open);
+            }
+            fragments.add(source.substring(pos, open));
+            slots.add(slot);
+            pos = close + 2;
+        }
+        fragments.add(source.substring(pos));
+        return new EmailTemplate(name, subject, fragments.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    public String getName() { return name; }
+    public String getSubject() { return subject; }
+
+    /**
+     * Renders the template for one recipient. Missing variables render as empty text.
+     */
+    String render(Map<String, String> variables, String year) {
+        StringBuilder out = new StringBuilder(staticLength + 64 * slots.length);
+        appendTo(out, variables, year);
+        return out.toString();
+    }
+
+    /**
+     * Renders the template for each variable set, reusing one buffer for the whole batch.
+     */
+    List<String> renderAll(List<Map<String, String>> recipients, String year) {
+        List<String> rendered = new ArrayList<>(recipients.size());
+        StringBuilder out = new StringBuilder(staticLength + 64 * slots.length);
+        for (Map<String, String> variables : recipients) {
+            out.setLength(0);
+            appendTo(out, variables, year);
+            rendered.add(out.toString());
+        }
+        return rendered;
+    }
+
+    private void appendTo(StringBuilder out, Map<String, String> variables, String year) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(fragments[i]);
+            String value = YEAR_SLOT.equals(slots[i]) ? year : variables.get(slots[i]);
+            if (value != null) {
+                appendEscaped(out, value);
+            }
+        }
+        out.append(fragments[slots.length]);
+    }
+
+    static void appendEscaped(StringBuilder out, String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement;
+            switch (value.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                case '\'': replacement = "&#39;"; break;
+                default: continue;
+            }
+            out.append(value, start, i).append(replacement);
+            start = i + 1;
+        }
+        out.append(value, start, value.length());
+    }
+
+    static String escape(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        appendEscaped(out, value);
+        return out.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.foodnow.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles email bodies into the shared FoodNow layout and renders them.
+ * The layout, CSS and subject are folded into each template's static fragments
+ * at compile time, so rendering only copies fragments and escapes variables.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final String LAYOUT_HEAD = "<!DOCTYPE html>" +
+            "<html>" +
+            "<head>" +
+            "<style>" +
+            "body { font-family: Arial, sans-serif; background-color: #f4f6f8; margin: 0; padding: 0; }" +
+            ".container { max-width: 600px; margin: 30px auto; background: #ffffff; border-radius: 12px; " +
+            "box-shadow: 0 4px 12px rgba(0,0,0,0.1); overflow: hidden; border: 1px solid #000000;}" +
+            ".header { background: #2563eb; padding: 20px; text-align: center; color: #fff; font-size: 20px; font-weight: bold; }" +
+            ".content { padding: 30px; font-size: 16px; line-height: 1.6; color: #333; }" +
+            ".button { display: inline-block; padding: 14px 28px; margin: 20px 0; background: #2563eb; " +
+            "color: #fff !important; text-decoration: none; border-radius: 8px; font-weight: bold; }" +
+            ".button:hover { background: #1e4ed8; }" +
+            ".footer { background: #f4f6f8; padding: 15px; text-align: center; font-size: 12px; color: #888; }" +
+            "</style>" +
+            "</head>" +
+            "<body>" +
+            "<div class='container'>" +
+            "<div class='header'>";
+
+    private static final String LAYOUT_BODY = "</div>" +
+            "<div class='content'>";
+
+    private static final String LAYOUT_FOOT = "</div>" +
+            "<div class='footer'>" +
+            "<p>&copy; {{" + EmailTemplate.YEAR_SLOT + "}} FoodNow. All rights reserved.</p>" +
+            "</div>" +
+            "</div>" +
+            "</body></html>";
+
+    // The footer year only changes once a year, so it is cached until the next January 1st.
+    private volatile CachedYear cachedYear = CachedYear.now();
+
+    /**
+     * Compiles a body into the standard layout. The subject is escaped once here;
+     * {@code {{name}}} placeholders in the body are escaped on every render.
+     */
+    public EmailTemplate compile(String name, String subject, String bodySource) {
+        String source = LAYOUT_HEAD + EmailTemplate.escape(subject) + LAYOUT_BODY + bodySource + LAYOUT_FOOT;
+        return EmailTemplate.compile(name, subject, source);
+    }
+
+    public String render(EmailTemplate template, Map<String, String> variables) {
+        return template.render(variables, currentYear());
+    }
+
+    /**
+     * Renders the same template for many recipients in one pass, in input order.
+     */
+    public List<String> renderAll(EmailTemplate template, List<Map<String, String>> recipients) {
+        return template.renderAll(recipients, currentYear());
+    }
+
+    private String currentYear() {
+        CachedYear year = cachedYear;
+        if (System.currentTimeMillis() >= year.expiresAtMillis) {
+            year = CachedYear.now();
+            cachedYear = year;
+        }
+        return year.text;
+    }
+
+    private static final class CachedYear {
+        final String text;
+        final long expiresAtMillis;
+
+        private CachedYear(String text, long expiresAtMillis) {
+            this.text = text;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        static CachedYear now() {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            long nextYear = today.withDayOfYear(1).plusYears(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new CachedYear(String.valueOf(today.getYear()), nextYear);
+        }
+    }
+}
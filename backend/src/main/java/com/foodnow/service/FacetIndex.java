@@ -0,0 +1,303 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.FacetResultDto;
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over the menu items of active restaurants, for faceted filtering.
+ *
+ * Each item gets a dense ordinal, and there is one bitmap per category, per dietary
+ * type, per price band and for the availability flag. A filter is an AND of per-facet
+ * ORs; facet counts AND the other facets' selections with each value's bitmap, so a
+ * query never touches the items themselves (except to check exact prices in the two
+ * bands a price range only partly covers).
+ */
+public class FacetIndex {
+
+    private final double[] priceBounds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FoodItemDto[] items = new FoodItemDto[1024];
+    private double[] prices = new double[1024];
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet[] byCategory = bitmaps(FoodCategory.values().length);
+    private final BitSet[] byDietaryType = bitmaps(DietaryType.values().length);
+    private final BitSet[] byPriceBand;
+    private final Map<Integer, int[]> ordinalsByRestaurant = new HashMap<>();
+    // Ordinals of removed items are reused so the bitmaps stay dense.
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private int nextOrdinal;
+
+    /**
+     * @param priceBounds ascending band boundaries; {@code {100, 300}} gives the bands
+     *                    [0,100), [100,300) and [300,∞)
+     */
+    public FacetIndex(double[] priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+        this.byPriceBand = bitmaps(this.priceBounds.length + 1);
+    }
+
+    /**
+     * Replaces every item of the restaurant, available or not. Inactive restaurants are removed.
+     */
+    public void indexRestaurant(Restaurant restaurant, List<FoodItem> allItems) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinals(ordinalsByRestaurant.remove(restaurant.getId()));
+            if (restaurant.getStatus() != Restaurant.RestaurantStatus.ACTIVE) {
+                return;
+            }
+            int[] ordinals = new int[allItems.size()];
+            for (int i = 0; i < allItems.size(); i++) {
+                ordinals[i] = add(restaurant, allItems.get(i));
+            }
+            ordinalsByRestaurant.put(restaurant.getId(), ordinals);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinals(ordinalsByRestaurant.remove(restaurantId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetResultDto query(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet categories = union(byCategory, ordinals(query.getCategories()));
+            BitSet dietaryTypes = union(byDietaryType, ordinals(query.getDietaryTypes()));
+            BitSet availability = availabilityFilter(query.getAvailable());
+            BitSet priceRange = priceFilter(query.getMinPrice(), query.getMaxPrice());
+
+            BitSet matches = and(live, categories, dietaryTypes, availability, priceRange);
+            FacetResultDto result = new FacetResultDto();
+            result.setTotal(matches.cardinality());
+            int skipped = 0;
+            for (int i = matches.nextSetBit(0); i >= 0 && result.getItems().size() < query.getLimit(); i = matches.nextSetBit(i + 1)) {
+                if (skipped++ >= query.getOffset()) {
+                    result.getItems().add(items[i]);
+                }
+            }
+
+            // Each facet is counted against the other facets' selections only.
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            BitSet base = and(live, dietaryTypes, availability, priceRange);
+            for (FoodCategory category : FoodCategory.values()) {
+                categoryCounts.put(category.name(), intersectionSize(base, byCategory[category.ordinal()]));
+            }
+            Map<String, Integer> dietaryCounts = new LinkedHashMap<>();
+            base = and(live, categories, availability, priceRange);
+            for (DietaryType dietaryType : DietaryType.values()) {
+                dietaryCounts.put(dietaryType.name(), intersectionSize(base, byDietaryType[dietaryType.ordinal()]));
+            }
+            Map<String, Integer> availabilityCounts = new LinkedHashMap<>();
+            base = and(live, categories, dietaryTypes, priceRange);
+            int availableCount = intersectionSize(base, available);
+            availabilityCounts.put("true", availableCount);
+            availabilityCounts.put("false", base.cardinality() - availableCount);
+            Map<String, Integer> priceCounts = new LinkedHashMap<>();
+            base = and(live, categories, dietaryTypes, availability);
+            for (int band = 0; band < byPriceBand.length; band++) {
+                priceCounts.put(bandLabel(band), intersectionSize(base, byPriceBand[band]));
+            }
+
+            result.getFacets().put("category", categoryCounts);
+            result.getFacets().put("dietaryType", dietaryCounts);
+            result.getFacets().put("available", availabilityCounts);
+            result.getFacets().put("priceBand", priceCounts);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- writes ----
+
+    private int add(Restaurant restaurant, FoodItem item) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            prices = Arrays.copyOf(prices, prices.length * 2);
+        }
+        FoodItemDto dto = new FoodItemDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setPrice(item.getPrice());
+        dto.setImageUrl(item.getImageUrl());
+        dto.setAvailable(item.isAvailable());
+        dto.setCategory(item.getCategory());
+        dto.setDietaryType(item.getDietaryType());
+        dto.setAverageRating(item.getAverageRating());
+        dto.setRatingCount(item.getRatingCount());
+        dto.setRestaurantId(restaurant.getId());
+        dto.setRestaurantName(restaurant.getName());
+        items[ordinal] = dto;
+        prices[ordinal] = item.getPrice();
+
+        live.set(ordinal);
+        if (item.isAvailable()) {
+            available.set(ordinal);
+        }
+        if (item.getCategory() != null) {
+            byCategory[item.getCategory().ordinal()].set(ordinal);
+        }
+        if (item.getDietaryType() != null) {
+            byDietaryType[item.getDietaryType().ordinal()].set(ordinal);
+        }
+        byPriceBand[band(item.getPrice())].set(ordinal);
+        return ordinal;
+    }
+
+    private void removeOrdinals(int[] ordinals) {
+        if (ordinals == null) {
+            return;
+        }
+        for (int ordinal : ordinals) {
+            FoodItemDto item = items[ordinal];
+            live.clear(ordinal);
+            available.clear(ordinal);
+            if (item.getCategory() != null) {
+                byCategory[item.getCategory().ordinal()].clear(ordinal);
+            }
+            if (item.getDietaryType() != null) {
+                byDietaryType[item.getDietaryType().ordinal()].clear(ordinal);
+            }
+            byPriceBand[band(prices[ordinal])].clear(ordinal);
+            items[ordinal] = null;
+            freeOrdinals.push(ordinal);
+        }
+    }
+
+    // ---- bitmap helpers ----
+
+    private static BitSet[] bitmaps(int count) {
+        BitSet[] bitmaps = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new BitSet();
+        }
+        return bitmaps;
+    }
+
+    private static <E extends Enum<E>> int[] ordinals(Set<E> values) {
+        return values == null ? new int[0] : values.stream().mapToInt(Enum::ordinal).toArray();
+    }
+
+    // Null means "no restriction" throughout.
+    private static BitSet union(BitSet[] bitmaps, int[] selected) {
+        if (selected.length == 0) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (int i : selected) {
+            union.or(bitmaps[i]);
+        }
+        return union;
+    }
+
+    private static BitSet and(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            if (other != null) {
+                result.and(other);
+            }
+        }
+        return result;
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private BitSet availabilityFilter(Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        if (wanted) {
+            return available;
+        }
+        BitSet unavailable = (BitSet) live.clone();
+        unavailable.andNot(available);
+        return unavailable;
+    }
+
+    private BitSet priceFilter(Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        double min = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double max = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        BitSet result = new BitSet();
+        for (int band = 0; band < byPriceBand.length; band++) {
+            double bandMin = band == 0 ? Double.NEGATIVE_INFINITY : priceBounds[band - 1];
+            double bandEnd = band == priceBounds.length ? Double.POSITIVE_INFINITY : priceBounds[band]; // exclusive
+            if (bandEnd <= min || bandMin > max) {
+                continue;
+            }
+            if (bandMin >= min && bandEnd <= max) {
+                result.or(byPriceBand[band]);
+                continue;
+            }
+            BitSet partial = byPriceBand[band];
+            for (int i = partial.nextSetBit(0); i >= 0; i = partial.nextSetBit(i + 1)) {
+                if (prices[i] >= min && prices[i] <= max) {
+                    result.set(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int band(double price) {
+        int band = 0;
+        while (band < priceBounds.length && price >= priceBounds[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private String bandLabel(int band) {
+        if (band == priceBounds.length) {
+            return formatPrice(priceBounds.length == 0 ? 0 : priceBounds[band - 1]) + "+";
+        }
+        String lower = band == 0 ? "0" : formatPrice(priceBounds[band - 1]);
+        return lower + "-" + formatPrice(priceBounds[band]);
+    }
+
+    private static String formatPrice(double price) {
+        return price == Math.rint(price) ? String.valueOf((long) price) : String.valueOf(price);
+    }
+}
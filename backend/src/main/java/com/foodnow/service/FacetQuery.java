@@ -0,0 +1,37 @@
+package com.foodnow.service;
+
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Selection for {@link FacetIndex#query}. Values within one facet are ORed, facets are
+ * ANDed; an empty set or null bound means "no restriction". Price bounds are inclusive.
+ */
+public class FacetQuery {
+    private Set<FoodCategory> categories = EnumSet.noneOf(FoodCategory.class);
+    private Set<DietaryType> dietaryTypes = EnumSet.noneOf(DietaryType.class);
+    private Boolean available = Boolean.TRUE;
+    private Double minPrice;
+    private Double maxPrice;
+    private int offset;
+    private int limit = 20;
+
+    // Getters and Setters
+    public Set<FoodCategory> getCategories() { return categories; }
+    public void setCategories(Set<FoodCategory> categories) { this.categories = categories; }
+    public Set<DietaryType> getDietaryTypes() { return dietaryTypes; }
+    public void setDietaryTypes(Set<DietaryType> dietaryTypes) { this.dietaryTypes = dietaryTypes; }
+    public Boolean getAvailable() { return available; }
+    public void setAvailable(Boolean available) { this.available = available; }
+    public Double getMinPrice() { return minPrice; }
+    public void setMinPrice(Double minPrice) { this.minPrice = minPrice; }
+    public Double getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(Double maxPrice) { this.maxPrice = maxPrice; }
+    public int getOffset() { return offset; }
+    public void setOffset(int offset) { this.offset = offset; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -0,0 +1,247 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.RestaurantDto;
+import com.foodnow.model.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grid index over the locations of active restaurants.
+ *
+ * The globe is cut into fixed cells of {@code cellDegrees} on each side. A radius query
+ * computes the exact latitude/longitude bounding box of the search circle, visits only
+ * the cells it overlaps and checks the great-circle distance of each candidate. A
+ * k-nearest query runs radius queries with a doubling radius until at least k
+ * restaurants fall inside, at which point those k are the nearest overall.
+ */
+public class GeoIndex {
+
+    private static final double MAX_DISTANCE_KM = Math.PI * GeoPoint.EARTH_RADIUS_KM;
+    private static final double INITIAL_KNN_RADIUS_KM = 2;
+
+    private final double cellDegrees;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<Integer, Entry> byRestaurant = new HashMap<>();
+
+    public GeoIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 90]");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Adds or moves the restaurant. Inactive restaurants and those without coordinates are removed.
+     */
+    public void indexRestaurant(Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurant.getId());
+            if (restaurant.getStatus() != Restaurant.RestaurantStatus.ACTIVE
+                    || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+                return;
+            }
+            Entry entry = new Entry(summary(restaurant), restaurant.getLatitude(), restaurant.getLongitude());
+            byRestaurant.put(restaurant.getId(), entry);
+            cells.computeIfAbsent(cellKey(latCell(entry.latitude), lonCell(entry.longitude)), key -> new ArrayList<>()).add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            remove(restaurantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byRestaurant.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restaurants within {@code radiusKm} of the origin, nearest first, at most {@code limit}.
+     */
+    public List<RestaurantDto> withinRadius(GeoPoint origin, double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            return toResults(collect(origin, radiusKm), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} restaurants nearest the origin, nearest first, at any distance.
+     */
+    public List<RestaurantDto> nearest(GeoPoint origin, int k) {
+        lock.readLock().lock();
+        try {
+            double radius = INITIAL_KNN_RADIUS_KM;
+            List<Hit> hits = collect(origin, radius);
+            while (hits.size() < k && hits.size() < byRestaurant.size() && radius < MAX_DISTANCE_KM) {
+                radius = Math.min(radius * 2, MAX_DISTANCE_KM);
+                hits = collect(origin, radius);
+            }
+            return toResults(hits, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- queries ----
+
+    private List<Hit> collect(GeoPoint origin, double radiusKm) {
+        List<Hit> hits = new ArrayList<>();
+        double angular = radiusKm / GeoPoint.EARTH_RADIUS_KM;
+        double minLat = origin.getLatitude() - Math.toDegrees(angular);
+        double maxLat = origin.getLatitude() + Math.toDegrees(angular);
+        double minLon;
+        double maxLon;
+        double cosLat = Math.cos(Math.toRadians(origin.getLatitude()));
+        if (minLat <= -90 || maxLat >= 90 || Math.sin(angular) >= cosLat) {
+            // The circle contains a pole: every longitude is in range.
+            minLat = Math.max(minLat, -90);
+            maxLat = Math.min(maxLat, 90);
+            minLon = -180;
+            maxLon = 180;
+        } else {
+            double deltaLon = Math.toDegrees(Math.asin(Math.sin(angular) / cosLat));
+            minLon = origin.getLongitude() - deltaLon;
+            maxLon = origin.getLongitude() + deltaLon;
+        }
+
+        long fromLat = latCell(minLat);
+        long toLat = latCell(maxLat);
+        long fromLon = lonCell(minLon);
+        long toLon = lonCell(maxLon);
+        boolean wraps = minLon < -180 || maxLon > 180;
+        long cellsInBox = (toLat - fromLat + 1) * (toLon - fromLon + 1);
+        if (wraps || cellsInBox > cells.size()) {
+            // Cheaper (and simpler across the antimeridian) to look at every occupied cell.
+            for (List<Entry> cell : cells.values()) {
+                addHits(hits, cell, origin, radiusKm);
+            }
+            return hits;
+        }
+        for (long latIndex = fromLat; latIndex <= toLat; latIndex++) {
+            for (long lonIndex = fromLon; lonIndex <= toLon; lonIndex++) {
+                List<Entry> cell = cells.get(cellKey(latIndex, lonIndex));
+                if (cell != null) {
+                    addHits(hits, cell, origin, radiusKm);
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static void addHits(List<Hit> hits, List<Entry> cell, GeoPoint origin, double radiusKm) {
+        for (Entry entry : cell) {
+            double distance = GeoPoint.distanceKm(origin.getLatitude(), origin.getLongitude(), entry.latitude, entry.longitude);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(entry, distance));
+            }
+        }
+    }
+
+    private static List<RestaurantDto> toResults(List<Hit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble((Hit hit) -> hit.distanceKm).thenComparingInt(hit -> hit.entry.restaurant.getId()));
+        List<RestaurantDto> results = new ArrayList<>(Math.min(limit, hits.size()));
+        for (Hit hit : hits.subList(0, Math.min(limit, hits.size()))) {
+            RestaurantDto dto = copy(hit.entry.restaurant);
+            dto.setDistanceKm(Math.round(hit.distanceKm * 100) / 100.0);
+            results.add(dto);
+        }
+        return results;
+    }
+
+    // ---- cells ----
+
+    private long latCell(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long lonCell(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private static long cellKey(long latIndex, long lonIndex) {
+        return (latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private void remove(int restaurantId) {
+        Entry entry = byRestaurant.remove(restaurantId);
+        if (entry == null) {
+            return;
+        }
+        long key = cellKey(latCell(entry.latitude), lonCell(entry.longitude));
+        List<Entry> cell = cells.get(key);
+        cell.remove(entry);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private static RestaurantDto summary(Restaurant restaurant) {
+        RestaurantDto dto = new RestaurantDto();
+        dto.setId(restaurant.getId());
+        dto.setName(restaurant.getName());
+        dto.setAddress(restaurant.getAddress());
+        dto.setPhoneNumber(restaurant.getPhoneNumber());
+        dto.setBusinessId(restaurant.getBusinessId());
+        dto.setImageUrl(restaurant.getImageUrl());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
+        return dto;
+    }
+
+    // Results carry a per-query distance, so the indexed summary is never handed out.
+    private static RestaurantDto copy(RestaurantDto source) {
+        RestaurantDto dto = new RestaurantDto();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setAddress(source.getAddress());
+        dto.setPhoneNumber(source.getPhoneNumber());
+        dto.setBusinessId(source.getBusinessId());
+        dto.setImageUrl(source.getImageUrl());
+        dto.setLatitude(source.getLatitude());
+        dto.setLongitude(source.getLongitude());
+        return dto;
+    }
+
+    private static final class Entry {
+        final RestaurantDto restaurant;
+        final double latitude;
+        final double longitude;
+
+        Entry(RestaurantDto restaurant, double latitude, double longitude) {
+            this.restaurant = restaurant;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static final class Hit {
+        final Entry entry;
+        final double distanceKm;
+
+        Hit(Entry entry, double distanceKm) {
+            this.entry = entry;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
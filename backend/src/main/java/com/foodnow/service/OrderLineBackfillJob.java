@@ -0,0 +1,56 @@
+package com.foodnow.service;
+
+import com.foodnow.repository.OrderItemRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Copies the menu item name, image and category onto order lines written before
+ * lines carried their own snapshot. Works in small chunks, one transaction each, and
+ * finds nothing to do once every line has been filled in.
+ */
+@Service
+public class OrderLineBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderLineBackfillJob.class);
+
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Value("${orders.backfill.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.backfill.poll-interval-ms:3600000}",
+               initialDelayString = "${orders.backfill.initial-delay-ms:10000}")
+    public void backfillSnapshots() {
+        int total = 0;
+        int updated;
+        do {
+            updated = transaction.execute(status -> {
+                List<Integer> ids = orderItemRepository.findIdsWithoutSnapshot(PageRequest.of(0, batchSize));
+                return ids.isEmpty() ? 0 : orderItemRepository.backfillSnapshots(ids);
+            });
+            total += updated;
+        } while (updated > 0);
+        if (total > 0) {
+            logger.info("Backfilled item snapshots on {} order lines", total);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.foodnow.service;
 
 import com.foodnow.dto.OrderDto;
 import com.foodnow.dto.OrderItemDto;
+import com.foodnow.dto.OrderStatusUpdateDto;
 import com.foodnow.exception.ResourceNotFoundException;
 import com.foodnow.model.*;
 import com.foodnow.repository.OrderRepository;
@@ -15,7 +16,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +28,11 @@ private static final Logger log = LoggerFactory.getLogger(OrderManagementService
     @Autowired private UserRepository userRepository;
     @Autowired private TaskScheduler taskScheduler;
     @Autowired private PaymentService paymentService;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private AgentPool agentPool;
+
+    private static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.complementOf(
+            EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
 
     public List<Order> getOrdersForRestaurant(int restaurantId) {
         return orderRepository.findByRestaurantIdWithItems(restaurantId);
@@ -34,12 +42,19 @@ private static final Logger log = LoggerFactory.getLogger(OrderManagementService
         return orderRepository.findByDeliveryPersonnelId(deliveryPersonnelId);
     }
 
+    /**
+     * Orders the user is involved in that have not reached a final status yet.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderStatusUpdateDto> getActiveOrderStatuses(int userId) {
+        return orderRepository.findStatusesForUser(userId, ACTIVE_STATUSES);
+    }
+
     @Transactional
     public OrderDto updateOrderStatus(int orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
-
-if (newStatus == OrderStatus.CANCELLED && order.getStatus() == OrderStatus.PENDING) {
+        // Only a cancellation straight from PENDING is refunded, so try that transition on its own first.
+        if (newStatus == OrderStatus.CANCELLED
+                && orderStateMachine.tryTransition(orderId, EnumSet.of(OrderStatus.PENDING), OrderStatus.CANCELLED)) {
     try {
         log.info("Attempting to initiate refund for order ID: {}", orderId);
         paymentService.initiateRefund(orderId);
@@ -49,11 +64,16 @@ if (newStatus == OrderStatus.CANCELLED && order.getStatus() == OrderStatus.PENDI
         log.error("CRITICAL: Failed to process refund for order ID: {}. Error: {}", orderId, e.getMessage(), e);
       
     }
-}
+        } else {
+            orderStateMachine.transition(orderId, newStatus);
+        }
 
-        order.setStatus(newStatus);
-                
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+        // Delivered by hand ahead of the delivery timer: the agent is free now.
+        if (newStatus == OrderStatus.DELIVERED && savedOrder.getDeliveryPersonnel() != null) {
+            agentPool.release(savedOrder.getDeliveryPersonnel().getId());
+        }
         return toOrderDto(savedOrder); // Return the DTO from within the transaction
     }
     
@@ -75,9 +95,9 @@ if (newStatus == OrderStatus.CANCELLED && order.getStatus() == OrderStatus.PENDI
 
     private OrderItemDto toOrderItemDto(OrderItem orderItem) {
         OrderItemDto dto = new OrderItemDto();
-        if (orderItem.getFoodItem() != null) {
-            dto.setItemName(orderItem.getFoodItem().getName());
-        }
+        dto.setItemName(orderItem.displayItemName());
+        dto.setImageUrl(orderItem.displayItemImageUrl());
+        dto.setCategory(orderItem.displayItemCategory());
         dto.setQuantity(orderItem.getQuantity());
         dto.setPrice(orderItem.getPrice());
         return dto;
@@ -3,21 +3,29 @@ package com.foodnow.service;
 import com.foodnow.dto.OrderAddressDto;
 import com.foodnow.dto.OrderDto;
 import com.foodnow.dto.OrderItemDto;
+import com.foodnow.dto.OrderPageDto;
 import com.foodnow.dto.OrderTrackingDto;
 import com.foodnow.exception.ResourceNotFoundException;
 import com.foodnow.model.*;
-import com.foodnow.repository.CartItemRepository;
 import com.foodnow.repository.CartRepository;
+import com.foodnow.repository.OrderItemView;
 import com.foodnow.repository.OrderRepository;
 import com.foodnow.repository.UserRepository;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.task.TaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -29,12 +37,27 @@ public class OrderService {
     @Autowired private UserRepository userRepository;
     @Autowired private CartService cartService;
     @Autowired private CartRepository cartRepository;
-    @Autowired private CartItemRepository cartItemRepository;
-    @Autowired private TaskExecutor taskExecutor; // used for async
+    @Autowired private ScheduledJobService scheduledJobService;
+    @Autowired private AgentPool agentPool;
+    @Autowired private DispatchQueue dispatchQueue;
+    @Autowired private CurrentUser currentUser;
+    @Autowired private PostalCodeGeocoder geocoder;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private Clock clock;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${delivery.auto-complete.dispatch-delay-seconds:10}")
+    private long dispatchDeliverySeconds;
+
+    @Value("${orders.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${orders.page.max-size:100}")
+    private int maxPageSize;
 
     @Transactional(readOnly = true)
     public OrderTrackingDto getOrderForTracking(int orderId) {
-        User currentUser = getCurrentUser();
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
@@ -47,29 +70,38 @@ public class OrderService {
 
     @Transactional
 public OrderDto placeOrderFromCart(OrderAddressDto addressDto) {
-    User currentUser = getCurrentUser();
-
     Cart cart = cartService.getCartEntityForCurrentUser();
     if (cart.getItems().isEmpty()) {
         throw new IllegalStateException("Cannot place an order with an empty cart.");
     }
 
     Order order = new Order();
-    order.setCustomer(currentUser);
+    order.setCustomer(currentUser.getReference());
     order.setRestaurant(cart.getItems().get(0).getFoodItem().getRestaurant());
     order.setTotalPrice(cart.getTotalPrice());
     order.setStatus(OrderStatus.PENDING);
-    order.setOrderTime(LocalDateTime.now());
+    order.setOrderTime(LocalDateTime.now(clock));
 
     // ✅ Set delivery address from frontend
     order.setDeliveryAddressLine1(addressDto.getLine1());
     order.setDeliveryCity(addressDto.getCity());
     order.setDeliveryPostalCode(addressDto.getPostalCode());
+    GeoPoint deliveryPoint = GeoPoint.ofNullable(addressDto.getLatitude(), addressDto.getLongitude());
+    if (deliveryPoint == null) {
+        deliveryPoint = geocoder.locate(addressDto.getPostalCode());
+    }
+    if (deliveryPoint != null) {
+        order.setDeliveryLatitude(deliveryPoint.getLatitude());
+        order.setDeliveryLongitude(deliveryPoint.getLongitude());
+    }
 
     List<OrderItem> orderItems = cart.getItems().stream().map(cartItem -> {
         OrderItem orderItem = new OrderItem();
         orderItem.setOrder(order);
         orderItem.setFoodItem(cartItem.getFoodItem());
+        orderItem.setItemName(cartItem.getFoodItem().getName());
+        orderItem.setItemImageUrl(cartItem.getFoodItem().getImageUrl());
+        orderItem.setItemCategory(cartItem.getFoodItem().getCategory());
         orderItem.setQuantity(cartItem.getQuantity());
         orderItem.setPrice(cartItem.getFoodItem().getPrice());
         return orderItem;
@@ -77,9 +109,9 @@ public OrderDto placeOrderFromCart(OrderAddressDto addressDto) {
 
     order.setItems(orderItems);
     Order savedOrder = orderRepository.save(order);
+    eventPublisher.publishEvent(OrderStatusChangedEvent.of(savedOrder));
 
-    // clear cart
-    cartItemRepository.deleteByCartId(cart.getId());
+    // clear cart: orphan removal deletes the lines in one JDBC batch at flush
     cart.getItems().clear();
     cart.setTotalPrice(0.0);
     cartRepository.save(cart);
@@ -92,62 +124,90 @@ public OrderDto placeOrderFromCart(OrderAddressDto addressDto) {
     public OrderDto updateOrderStatus(int orderId, OrderStatus newStatus) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-
-        order.setStatus(newStatus);
-
-if (newStatus == OrderStatus.OUT_FOR_DELIVERY && order.getDeliveryPersonnel() == null) {
-List<User> availableAgents = userRepository.findByRoleAndDeliveryStatus(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE);
-            if (availableAgents.isEmpty()) {
-                throw new IllegalStateException("No delivery agents available.");
+        // An order that already has an agent only changes status; claiming would take a second agent.
+        if (newStatus == OrderStatus.OUT_FOR_DELIVERY && order.getDeliveryPersonnel() == null) {
+            Restaurant restaurant = order.getRestaurant();
+            Optional<Integer> claimed = dispatchQueue.isBatchMode()
+                    ? Optional.<Integer>empty()
+                    : agentPool.claimNearest(GeoPoint.ofNullable(restaurant.getLatitude(), restaurant.getLongitude()));
+            if (claimed.isEmpty()) {
+                // The status moves on when an agent comes online and takes it from the queue.
+                dispatchQueue.park(order, Duration.ofSeconds(dispatchDeliverySeconds));
+                return toOrderDto(order);
+            }
+            int agentId = claimed.get();
+            if (orderStateMachine.tryDispatch(orderId, userRepository.getReferenceById(agentId))) {
+                scheduledJobService.schedule(ScheduledJobType.COMPLETE_DELIVERY, orderId, agentId,
+                        Duration.ofSeconds(dispatchDeliverySeconds));
+            } else {
+                // Assigned meanwhile, or past the point of dispatch.
+                agentPool.release(agentId);
+                orderStateMachine.transition(orderId, newStatus);
             }
-
-            User assignedAgent = availableAgents.get(new Random().nextInt(availableAgents.size()));
-            assignedAgent.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
-            userRepository.save(assignedAgent);
-
-order.setDeliveryPersonnel(assignedAgent);
-            order.setStatus(OrderStatus.OUT_FOR_DELIVERY);
-            orderRepository.save(order);
-
-            taskExecutor.execute(() -> simulateDeliveryAndComplete(order.getId()));
         } else {
-            orderRepository.save(order);
+            orderStateMachine.transition(orderId, newStatus);
         }
 
+        // The transition is a bulk update the loaded order does not see; reread its status and agent.
+        entityManager.refresh(order);
         return toOrderDto(order);
     }
 
-    public void simulateDeliveryAndComplete(int orderId) {
-        try {
-            Thread.sleep(10000);
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Order not found during simulation"));
-
-            order.setStatus(OrderStatus.DELIVERED);
-User agent = order.getDeliveryPersonnel();
-if (agent != null) {
-    agent.setDeliveryStatus(DeliveryAgentStatus.ONLINE);
-    userRepository.save(agent);
-}
-
-            orderRepository.save(order);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /**
+     * The customer's whole order history, newest first: one query for the orders and one for their items.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDto> getMyOrders() {
+        return withItems(orderRepository.findOrderSummaries(currentUser.getId(), Pageable.unpaged()));
     }
 
+    /**
+     * One keyset page of the customer's order history, newest first. The cursor is the
+     * opaque {@code nextCursor} of the previous page; each page costs two queries.
+     */
     @Transactional(readOnly = true)
-    public List<OrderDto> getMyOrders() {
-        User currentUser = getCurrentUser();
-        List<Order> orders = orderRepository.findByCustomerId(currentUser.getId());
-        return orders.stream().map(this::toOrderDto).collect(Collectors.toList());
+    public OrderPageDto getMyOrdersPage(String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        // Fetch one extra row to know whether another page exists.
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<OrderDto> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findOrderSummaries(currentUser.getId(), page);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findOrderSummariesBefore(currentUser.getId(), after.orderTime, after.id, page);
+        }
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderDto last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getOrderTime(), last.getId()).encode();
+        }
+        return new OrderPageDto(withItems(orders), nextCursor);
     }
 
-    private User getCurrentUser() {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
-                .getAuthentication().getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    private List<OrderDto> withItems(List<OrderDto> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Integer, OrderDto> byId = new HashMap<>();
+        for (OrderDto order : orders) {
+            order.setItems(new ArrayList<>());
+            byId.put(order.getId(), order);
+        }
+        for (OrderItemView view : orderRepository.findItemViewsByOrderIds(byId.keySet())) {
+            OrderItemDto item = new OrderItemDto();
+            item.setItemName(view.getItemName());
+            item.setImageUrl(view.getImageUrl());
+            item.setCategory(view.getCategory());
+            item.setQuantity(view.getQuantity());
+            item.setPrice(view.getPrice());
+            byId.get(view.getOrderId()).getItems().add(item);
+        }
+        return orders;
     }
 
     private OrderTrackingDto toOrderTrackingDto(Order order) {
@@ -185,12 +245,38 @@ dto.setDeliveryAddressLine1(order.getDeliveryAddressLine1());
 
     private OrderItemDto toOrderItemDto(OrderItem item) {
         OrderItemDto itemDto = new OrderItemDto();
-        if (item.getFoodItem() != null) {
-            itemDto.setItemName(item.getFoodItem().getName());
-            itemDto.setImageUrl(item.getFoodItem().getImageUrl()); // ADD THIS LINE
-        }
+        itemDto.setItemName(item.displayItemName());
+        itemDto.setImageUrl(item.displayItemImageUrl());
+        itemDto.setCategory(item.displayItemCategory());
         itemDto.setQuantity(item.getQuantity());
         itemDto.setPrice(item.getPrice());
         return itemDto;
     }
-}
\ No newline at end of file
+
+    // Cursors are opaque to clients: the (orderTime, id) of the last order on a page, base64url-encoded.
+    private static final class OrderCursor {
+        final LocalDateTime orderTime;
+        final int id;
+
+        OrderCursor(LocalDateTime orderTime, int id) {
+            this.orderTime = orderTime;
+            this.id = id;
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((orderTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static OrderCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Integer.parseInt(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.foodnow.service;
+
+import com.foodnow.exception.InvalidStatusTransitionException;
+import com.foodnow.exception.ResourceNotFoundException;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Applies order status changes as single conditional UPDATEs checked against the
+ * transition table in {@link OrderStatus}, instead of load-modify-save. Concurrent
+ * changes to one order cannot overwrite each other: the second one sees the new
+ * status and either applies on top of it or is rejected.
+ * <p>
+ * The updates bypass the persistence context. Callers should transition before
+ * loading the order in the same transaction, or at least not save an order they
+ * loaded earlier, since it still holds the old status.
+ */
+@Service
+public class OrderStateMachine {
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Moves the order to {@code target} if the transition table allows it from its current status.
+     *
+     * @return false if the order is missing or in a status the target cannot be reached from
+     */
+    @Transactional
+    public boolean tryTransition(int orderId, OrderStatus target) {
+        return tryTransition(orderId, target.allowedSources(), target);
+    }
+
+    /**
+     * Like {@link #tryTransition(int, OrderStatus)}, but only from the given statuses.
+     */
+    @Transactional
+    public boolean tryTransition(int orderId, Set<OrderStatus> expected, OrderStatus target) {
+        Set<OrderStatus> sources = allowed(expected, target);
+        if (sources.isEmpty() || orderRepository.updateStatusIfIn(orderId, target, sources) == 0) {
+            return false;
+        }
+        publishChange(orderId);
+        return true;
+    }
+
+    /**
+     * Moves the order to {@code target}.
+     *
+     * @throws ResourceNotFoundException if there is no such order
+     * @throws InvalidStatusTransitionException if the order's status does not allow it
+     */
+    @Transactional
+    public void transition(int orderId, OrderStatus target) {
+        if (!tryTransition(orderId, target)) {
+            throw rejection(orderId, target);
+        }
+    }
+
+    /**
+     * Hands the order to the agent and marks it out for delivery in one statement,
+     * provided it is not delivered, cancelled or already assigned.
+     */
+    @Transactional
+    public boolean tryDispatch(int orderId, User agent) {
+        OrderStatus target = OrderStatus.OUT_FOR_DELIVERY;
+        if (orderRepository.updateStatusAndAgentIfIn(orderId, target, agent, target.allowedSources()) == 0) {
+            return false;
+        }
+        publishChange(orderId);
+        return true;
+    }
+
+    /**
+     * Checks that the order is in {@code status} and keeps it there until the caller's
+     * transaction ends: the no-op update takes the row lock, so a competing transition
+     * waits and then applies to whatever the caller left behind.
+     *
+     * @throws ResourceNotFoundException if there is no such order
+     * @throws InvalidStatusTransitionException if the order is in another status
+     */
+    @Transactional
+    public void holdStatus(int orderId, OrderStatus status) {
+        // MySQL reports matched rather than changed rows unless useAffectedRows is set, so a no-op counts.
+        if (orderRepository.updateStatusIfIn(orderId, status, EnumSet.of(status)) == 0) {
+            throw rejection(orderId, status);
+        }
+    }
+
+    private RuntimeException rejection(int orderId, OrderStatus target) {
+        OrderStatus current = orderRepository.findStatusById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+        return new InvalidStatusTransitionException(orderId, current, target);
+    }
+
+    private static Set<OrderStatus> allowed(Set<OrderStatus> expected, OrderStatus target) {
+        Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        sources.addAll(expected);
+        sources.retainAll(target.allowedSources());
+        return sources;
+    }
+
+    private void publishChange(int orderId) {
+        orderRepository.findStatusViewById(orderId)
+                .ifPresent(view -> eventPublisher.publishEvent(OrderStatusChangedEvent.of(view)));
+    }
+}
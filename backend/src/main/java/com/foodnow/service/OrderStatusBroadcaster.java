@@ -0,0 +1,212 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.OrderStatusUpdateDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes order status changes to connected clients over server-sent events, one
+ * topic per user. A new stream first receives a {@code snapshot} of the user's
+ * active orders, then a {@code status} event for every committed change.
+ * <p>
+ * Each stream has a small bounded buffer drained by a shared sender pool, so a
+ * slow client never holds up the publisher or other clients. A stream whose
+ * buffer is full is closed; the browser's EventSource reconnects and starts again
+ * from a fresh snapshot.
+ */
+@Component
+public class OrderStatusBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusBroadcaster.class);
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Executor sender;
+    private final ExecutorService ownedSender;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Counter droppedCounter;
+
+    @Autowired
+    public OrderStatusBroadcaster(
+            @Value("${orders.push.sender-threads:2}") int senderThreads,
+            @Value("${orders.push.buffer-size:32}") int bufferSize,
+            @Value("${orders.push.timeout-ms:1800000}") long timeoutMs,
+            MeterRegistry meterRegistry,
+            Environment environment) {
+        // Sends block on slow sockets; with virtual threads that no longer ties up a pool thread.
+        this(Threading.VIRTUAL.isActive(environment)
+                        ? new VirtualThreadTaskExecutor("order-push-")
+                        : Executors.newFixedThreadPool(senderThreads, new SenderThreadFactory()),
+                bufferSize, timeoutMs, meterRegistry);
+    }
+
+    /**
+     * Uses the given executor to deliver events; it is shut down with this bean
+     * only if it is an {@link ExecutorService}.
+     */
+    public OrderStatusBroadcaster(Executor sender, int bufferSize, long timeoutMs, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.ownedSender = sender instanceof ExecutorService service ? service : null;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.droppedCounter = Counter.builder("foodnow.orders.push.dropped")
+                .description("Order streams closed because the client fell too far behind")
+                .register(meterRegistry);
+        Gauge.builder("foodnow.orders.push.streams", subscribers,
+                        s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open order status streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user. The stream is registered before the snapshot is
+     * read, so a change committed in between is either in the snapshot or follows it.
+     */
+    public SseEmitter subscribe(int userId, Supplier<List<OrderStatusUpdateDto>> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscriber.offer(SseEmitter.event().name("snapshot").data(snapshot.get()));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        for (int userId : event.getRecipientIds()) {
+            Set<Subscriber> streams = subscribers.get(userId);
+            if (streams == null) {
+                continue;
+            }
+            for (Subscriber subscriber : streams) {
+                subscriber.offer(SseEmitter.event().name("status").data(event.getUpdate()));
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away.
+    @Scheduled(fixedDelayString = "${orders.push.heartbeat-ms:20000}",
+               initialDelayString = "${orders.push.heartbeat-ms:20000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(streams -> streams.forEach(s -> s.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    public int subscriberCount(int userId) {
+        Set<Subscriber> streams = subscribers.get(userId);
+        return streams == null ? 0 : streams.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        if (ownedSender != null) {
+            ownedSender.shutdownNow();
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final int userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(int userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                droppedCounter.increment();
+                logger.debug("Closing order stream of user {}: client is not keeping up", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // At most one drain per stream runs at a time, which keeps its events in order.
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            buffer.clear();
+            remove(this);
+            emitter.complete();
+        }
+    }
+
+    private static final class SenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "order-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
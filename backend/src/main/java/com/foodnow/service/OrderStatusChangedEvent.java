@@ -0,0 +1,54 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.OrderStatusUpdateDto;
+import com.foodnow.model.Order;
+import com.foodnow.repository.OrderStatusView;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published whenever an order is placed or changes status. Carries the ids of the
+ * users who follow the order (customer, restaurant owner, assigned agent) so the
+ * push channel can fan it out without going back to the database.
+ */
+public class OrderStatusChangedEvent {
+
+    private final OrderStatusUpdateDto update;
+    private final Set<Integer> recipientIds;
+
+    public OrderStatusChangedEvent(OrderStatusUpdateDto update, Set<Integer> recipientIds) {
+        this.update = update;
+        this.recipientIds = recipientIds;
+    }
+
+    public static OrderStatusChangedEvent of(Order order) {
+        Set<Integer> recipients = new LinkedHashSet<>();
+        recipients.add(order.getCustomer().getId());
+        // Reading the id of a lazy owner proxy does not load it.
+        if (order.getRestaurant().getOwner() != null) {
+            recipients.add(order.getRestaurant().getOwner().getId());
+        }
+        if (order.getDeliveryPersonnel() != null) {
+            recipients.add(order.getDeliveryPersonnel().getId());
+        }
+        OrderStatusUpdateDto update = new OrderStatusUpdateDto(order.getId(), order.getStatus(),
+                order.getRestaurant().getName(), order.getOrderTime());
+        return new OrderStatusChangedEvent(update, recipients);
+    }
+
+    public static OrderStatusChangedEvent of(OrderStatusView view) {
+        Set<Integer> recipients = new LinkedHashSet<>();
+        for (Integer id : new Integer[] {view.getCustomerId(), view.getOwnerId(), view.getAgentId()}) {
+            if (id != null) {
+                recipients.add(id);
+            }
+        }
+        OrderStatusUpdateDto update = new OrderStatusUpdateDto(view.getOrderId(), view.getStatus(),
+                view.getRestaurantName(), view.getOrderTime());
+        return new OrderStatusChangedEvent(update, recipients);
+    }
+
+    public OrderStatusUpdateDto getUpdate() { return update; }
+    public Set<Integer> getRecipientIds() { return recipientIds; }
+}
@@ -23,15 +23,16 @@ public class PaymentService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderStateMachine orderStateMachine;
+
     @Transactional
     public Payment processPaymentForOrder(int orderId,String paymentMethod) {
+        // Payment can only be processed for PENDING orders; a cancellation racing with us waits for this commit.
+        orderStateMachine.holdStatus(orderId, OrderStatus.PENDING);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new IllegalStateException("Payment can only be processed for PENDING orders.");
-        }
-
 boolean isPaymentSuccessful = true;
         Payment payment = new Payment();
         payment.setOrder(order);
@@ -43,13 +44,10 @@ boolean isPaymentSuccessful = true;
         if (isPaymentSuccessful) {
             payment.setStatus(PaymentStatus.SUCCESSFUL);
             // The order status will now remain PENDING after payment.
-                    order.setStatus(OrderStatus.PENDING); 
-
         } else {
             payment.setStatus(PaymentStatus.FAILED);
         }
 
-        orderRepository.save(order);
         return paymentRepository.save(payment);
     }
 
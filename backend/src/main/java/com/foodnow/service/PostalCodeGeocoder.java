@@ -0,0 +1,85 @@
+package com.foodnow.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline geocoder backed by an embedded table of postal-code prefixes. Accurate to
+ * the area a prefix covers, which is enough to pick nearby restaurants; callers that
+ * have exact coordinates should pass them instead.
+ */
+@Component
+public class PostalCodeGeocoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostalCodeGeocoder.class);
+
+    // Indian PIN codes: six digits, optionally written as "560 001".
+    private static final Pattern POSTAL_CODE = Pattern.compile("(?<!\\d)(\\d{3})\\s?(\\d{3})(?!\\d)");
+
+    @Value("${geo.postal-codes:classpath:geo/postal-codes.csv}")
+    private Resource table;
+
+    private final Map<String, GeoPoint> byPrefix = new HashMap<>();
+    private int longestPrefix;
+
+    @PostConstruct
+    public void load() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(table.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                byPrefix.put(columns[0], new GeoPoint(Double.parseDouble(columns[1]), Double.parseDouble(columns[2])));
+                longestPrefix = Math.max(longestPrefix, columns[0].length());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read postal code table " + table, e);
+        }
+        logger.info("Loaded {} postal code areas", byPrefix.size());
+    }
+
+    /**
+     * Locates a postal code by its longest known prefix; null if it is not covered.
+     */
+    public GeoPoint locate(String postalCode) {
+        if (postalCode == null) {
+            return null;
+        }
+        String digits = postalCode.replaceAll("\\s", "");
+        for (int length = Math.min(longestPrefix, digits.length()); length > 0; length--) {
+            GeoPoint point = byPrefix.get(digits.substring(0, length));
+            if (point != null) {
+                return point;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Locates the first postal code found in a free-text address.
+     */
+    public GeoPoint locateAddress(String address) {
+        if (address == null) {
+            return null;
+        }
+        Matcher matcher = POSTAL_CODE.matcher(address);
+        return matcher.find() ? locate(matcher.group(1) + matcher.group(2)) : null;
+    }
+}
@@ -2,16 +2,30 @@ package com.foodnow.service;
 
 import com.foodnow.dto.FoodItemDto;
 import com.foodnow.dto.RestaurantDto;
+import com.foodnow.dto.RestaurantPageDto;
 import com.foodnow.exception.ResourceNotFoundException;
 import com.foodnow.model.FoodItem;
 import com.foodnow.model.Restaurant;
+import com.foodnow.repository.FoodItemRepository;
 import com.foodnow.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,18 +35,100 @@ public class PublicService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
-    @Transactional(readOnly = true)
+    @Autowired
+    private FoodItemRepository foodItemRepository;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Cache hits must not open a transaction (and take a connection), so loads run in their own.
+    private TransactionTemplate readOnlyTransaction;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * All active restaurants with their available menus. Served from {@link CatalogCache};
+     * a miss costs two queries.
+     */
     public List<RestaurantDto> getAllActiveRestaurants() {
-        return restaurantRepository.findAll().stream()
-                .map(this::toRestaurantDtoWithMenu)
-                .collect(Collectors.toList());
+        return getActiveRestaurantsSnapshot().getValue();
+    }
+
+    public CatalogSnapshot<List<RestaurantDto>> getActiveRestaurantsSnapshot() {
+        return catalogCache.getActiveRestaurants(this::loadActiveRestaurants);
+    }
+
+    /**
+     * The active list's ETag if the client's {@code If-None-Match} still matches it; answered
+     * from memory, without loading the list.
+     */
+    public Optional<String> revalidateActiveRestaurants(String ifNoneMatch) {
+        return catalogCache.revalidateActiveRestaurants(ifNoneMatch, this::loadActiveRestaurants);
     }
 
+    /**
+     * One keyset page of active restaurants. A page costs two queries whatever its size:
+     * one for the restaurants and one for all of their menus.
+     */
     @Transactional(readOnly = true)
+    public RestaurantPageDto getActiveRestaurantPage(String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        int afterId = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor);
+
+        // Fetch one extra row to know whether another page exists.
+        List<Restaurant> restaurants = restaurantRepository.findByStatusAfterId(
+                Restaurant.RestaurantStatus.ACTIVE, afterId, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (restaurants.size() > pageSize) {
+            restaurants = restaurants.subList(0, pageSize);
+            nextCursor = encodeCursor(restaurants.get(pageSize - 1).getId());
+        }
+        return new RestaurantPageDto(toRestaurantDtosWithMenus(restaurants), nextCursor);
+    }
+
     public RestaurantDto getRestaurantWithMenu(int restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId));
-        return toRestaurantDtoWithMenu(restaurant);
+        return getRestaurantSnapshot(restaurantId).getValue();
+    }
+
+    public CatalogSnapshot<RestaurantDto> getRestaurantSnapshot(int restaurantId) {
+        return catalogCache.getRestaurant(restaurantId, () -> loadRestaurant(restaurantId));
+    }
+
+    /**
+     * The restaurant's ETag if the client's {@code If-None-Match} still matches it; answered
+     * from memory, without loading the menu.
+     */
+    public Optional<String> revalidateRestaurant(int restaurantId, String ifNoneMatch) {
+        return catalogCache.revalidateRestaurant(restaurantId, ifNoneMatch, () -> loadRestaurant(restaurantId));
+    }
+
+    private List<RestaurantDto> loadActiveRestaurants() {
+        return readOnlyTransaction.execute(status ->
+                toRestaurantDtosWithMenus(restaurantRepository.findByStatusOrderByIdAsc(Restaurant.RestaurantStatus.ACTIVE)));
+    }
+
+    private RestaurantDto loadRestaurant(int restaurantId) {
+        return readOnlyTransaction.execute(status -> {
+            Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with ID: " + restaurantId));
+            return toRestaurantDtoWithMenu(restaurant);
+        });
     }
 
     // --- Helper Methods for DTO Conversion ---
@@ -52,9 +148,35 @@ public class PublicService {
         return dto;
     }
 
+    private List<RestaurantDto> toRestaurantDtosWithMenus(List<Restaurant> restaurants) {
+        if (restaurants.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> ids = restaurants.stream().map(Restaurant::getId).collect(Collectors.toList());
+        Map<Integer, List<FoodItemDto>> menus = new HashMap<>();
+        for (FoodItem item : foodItemRepository.findAvailableByRestaurantIds(ids)) {
+            menus.computeIfAbsent(item.getRestaurant().getId(), id -> new ArrayList<>()).add(toFoodItemDto(item));
+        }
+        List<RestaurantDto> dtos = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            RestaurantDto dto = toRestaurantDto(restaurant);
+            dto.setMenu(menus.getOrDefault(restaurant.getId(), new ArrayList<>()));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
     private RestaurantDto toRestaurantDtoWithMenu(Restaurant restaurant) {
-                logger.info("Mapping Restaurant to DTO: Name='{}', ImageUrl='{}'", restaurant.getName(), restaurant.getImageUrl());
+        RestaurantDto dto = toRestaurantDto(restaurant);
+        // Availability is filtered in SQL rather than over the fully loaded menu.
+        List<FoodItemDto> menuDto = foodItemRepository.findAvailableByRestaurantIds(List.of(restaurant.getId())).stream()
+                                              .map(this::toFoodItemDto)
+                                              .collect(Collectors.toList());
+        dto.setMenu(menuDto);
+        return dto;
+    }
 
+    private RestaurantDto toRestaurantDto(Restaurant restaurant) {
         RestaurantDto dto = new RestaurantDto();
         dto.setId(restaurant.getId());
         dto.setName(restaurant.getName());
@@ -62,12 +184,22 @@ public class PublicService {
         dto.setPhoneNumber(restaurant.getPhoneNumber());
         dto.setBusinessId(restaurant.getBusinessId());
         dto.setImageUrl(restaurant.getImageUrl());
-        
-        List<FoodItemDto> menuDto = restaurant.getMenu().stream()
-                                              .filter(FoodItem::isAvailable)
-                                              .map(this::toFoodItemDto)
-                                              .collect(Collectors.toList());
-        dto.setMenu(menuDto);
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
         return dto;
     }
+
+    // Cursors are opaque to clients: the last restaurant id of the page, base64url-encoded.
+    private static String encodeCursor(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 }
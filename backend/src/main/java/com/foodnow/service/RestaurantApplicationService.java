@@ -8,9 +8,10 @@ import com.foodnow.model.*;
 import com.foodnow.repository.RestaurantApplicationRepository;
 import com.foodnow.repository.RestaurantRepository;
 import com.foodnow.repository.UserRepository;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
+import com.foodnow.security.UserVersionCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +25,10 @@ public class RestaurantApplicationService {
     @Autowired private UserRepository userRepository;
     @Autowired private RestaurantRepository restaurantRepository;
     @Autowired private EmailService emailService; 
+    @Autowired private UserVersionCache userVersionCache;
+    @Autowired private CurrentUser currentUser;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PostalCodeGeocoder geocoder;
 
     @Transactional(readOnly = true)
     public List<PendingApplicationDto> getPendingApplicationsForAdmin() {
@@ -35,9 +40,7 @@ public class RestaurantApplicationService {
     // FIX #1 is in this method
     @Transactional // It's good practice to make this whole method a single transaction
     public RestaurantApplication applyForRestaurant(RestaurantApplicationRequest request) {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        User applicant = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Current user not found in database."));
+        User applicant = currentUser.get();
 
         if (applicant.getRole() != Role.CUSTOMER) {
             throw new IllegalStateException("Only customers can apply to open a restaurant.");
@@ -83,6 +86,8 @@ public class RestaurantApplicationService {
 
         User applicant = application.getApplicant();
         applicant.setRole(Role.RESTAURANT_OWNER);
+        // Tokens still carrying ROLE_CUSTOMER must not survive the promotion.
+        userVersionCache.bump(applicant);
         userRepository.save(applicant);
 
         Restaurant restaurant = new Restaurant();
@@ -92,9 +97,16 @@ public class RestaurantApplicationService {
         restaurant.setBusinessId(application.getBusinessId());
         restaurant.setImageUrl(application.getImageUrl());
         restaurant.setOwner(applicant);
+        // Approximate until the owner sets exact coordinates on their profile.
+        GeoPoint location = geocoder.locateAddress(application.getAddress());
+        if (location != null) {
+            restaurant.setLatitude(location.getLatitude());
+            restaurant.setLongitude(location.getLongitude());
+        }
 
         // First and ONLY save for the restaurant
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(savedRestaurant.getId()));
         
         emailService.sendApplicationApprovalEmail(
             applicant.getEmail(),
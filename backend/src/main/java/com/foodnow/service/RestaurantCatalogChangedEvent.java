@@ -0,0 +1,16 @@
+package com.foodnow.service;
+
+/**
+ * Published by the write paths whenever a restaurant's public data (profile, menu,
+ * item ratings) changes. Listeners react after the transaction commits.
+ */
+public class RestaurantCatalogChangedEvent {
+
+    private final int restaurantId;
+
+    public RestaurantCatalogChangedEvent(int restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    public int getRestaurantId() { return restaurantId; }
+}
@@ -6,30 +6,32 @@ import com.foodnow.dto.OrderItemDto;
 import com.foodnow.dto.RestaurantDashboardDto;
 import com.foodnow.dto.RestaurantDto;
 import com.foodnow.dto.ReviewDto;
+import com.foodnow.exception.InvalidStatusTransitionException;
 import com.foodnow.exception.ResourceNotFoundException;
-import com.foodnow.model.DeliveryAgentStatus;
 import com.foodnow.model.FoodItem;
 import com.foodnow.model.Order;
 import com.foodnow.model.OrderItem;
 import com.foodnow.model.OrderStatus;
 import com.foodnow.model.Restaurant;
 import com.foodnow.model.Review;
-import com.foodnow.model.Role;
-import com.foodnow.model.User;
+import com.foodnow.model.ScheduledJobType;
 import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.OrderItemRepository;
 import com.foodnow.repository.OrderRepository;
 import com.foodnow.repository.RestaurantRepository;
 import com.foodnow.repository.UserRepository;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger; // Import logger
 import org.slf4j.LoggerFactory; // Import logger factory
-import java.time.Instant;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,9 +40,19 @@ public class RestaurantService {
 
     @Autowired private RestaurantRepository restaurantRepository;
     @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private OrderRepository orderRepository;
-    @Autowired private TaskScheduler taskScheduler;
+    @Autowired private ScheduledJobService scheduledJobService;
+    @Autowired private AgentPool agentPool;
+    @Autowired private DispatchQueue dispatchQueue;
+
+    @Value("${delivery.auto-complete.pickup-delay-seconds:20}")
+    private long pickupDeliverySeconds;
+    @Autowired private CurrentUser currentUser;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private PostalCodeGeocoder geocoder;
 
     @Transactional(readOnly = true)
     public RestaurantDashboardDto getDashboardData() {
@@ -61,8 +73,12 @@ public class RestaurantService {
         return dashboardDto;
     }
 
+    /**
+     * Assigns a delivery agent to the order, or parks it in the dispatch queue when none is free.
+     * Returns whether an agent was assigned now.
+     */
     @Transactional
-    public void readyForPickup(int orderId) {
+    public boolean readyForPickup(int orderId) {
         Restaurant restaurant = getRestaurantByCurrentOwner();
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
@@ -71,41 +87,25 @@ public class RestaurantService {
             throw new SecurityException("Unauthorized to manage this order.");
         }
         
-        List<User> availableAgents = userRepository.findByRoleAndDeliveryStatus(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE);
-        if (availableAgents.isEmpty()) {
-            throw new IllegalStateException("No delivery agents are currently available to assign.");
+        // Shortest pickup leg: the free agent nearest the restaurant. In batch mode the
+        // order always waits, to be matched together with the rest of its window.
+        Optional<Integer> claimed = dispatchQueue.isBatchMode()
+            ? Optional.empty()
+            : agentPool.claimNearest(GeoPoint.ofNullable(restaurant.getLatitude(), restaurant.getLongitude()));
+        if (claimed.isEmpty()) {
+            dispatchQueue.park(order, Duration.ofSeconds(pickupDeliverySeconds));
+            return false;
         }
-        
-        User agentToAssign = availableAgents.get(0);
-        order.setDeliveryPersonnel(agentToAssign);
-        order.setStatus(OrderStatus.OUT_FOR_DELIVERY);
-        
-        agentToAssign.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
-        userRepository.save(agentToAssign);
-        orderRepository.save(order);
-
-        scheduleAutoDelivery(orderId, agentToAssign.getId());
-    }
-
-    private void scheduleAutoDelivery(int orderId, int agentId) {
-        taskScheduler.schedule(() -> {
-            updateOrderAndAgentStatus(orderId, agentId);
-        }, Instant.now().plusSeconds(20));
-    }
-
-    @Transactional
-    public void updateOrderAndAgentStatus(int orderId, int agentId) {
-        Order order = orderRepository.findById(orderId).orElse(null);
-        User agent = userRepository.findById(agentId).orElse(null);
-
-        if (order != null && agent != null) {
-            order.setStatus(OrderStatus.DELIVERED);
-            agent.setDeliveryStatus(DeliveryAgentStatus.ONLINE);
-            orderRepository.save(order);
-            userRepository.save(agent);
-            System.out.println("Order #" + orderId + " automatically marked as DELIVERED.");
-            System.out.println("Agent " + agent.getName() + " is now back ONLINE.");
+        int agentId = claimed.get();
+        if (!orderStateMachine.tryDispatch(orderId, userRepository.getReferenceById(agentId))) {
+            // Rolling back puts the agent back ONLINE and in the pool.
+            throw new InvalidStatusTransitionException(orderId, order.getStatus(), OrderStatus.OUT_FOR_DELIVERY);
         }
+
+        // Simulated drop-off; the timer is persisted with the dispatch and survives restarts.
+        scheduledJobService.schedule(ScheduledJobType.COMPLETE_DELIVERY, orderId, agentId,
+                Duration.ofSeconds(pickupDeliverySeconds));
+        return true;
     }
     
     // --- All other existing methods from your file ---
@@ -116,8 +116,13 @@ public class RestaurantService {
     }
 
     public Restaurant getRestaurantByCurrentOwner() {
-        User currentUser = getCurrentUser();
-        return getRestaurantByOwnerId(currentUser.getId());
+        if (currentUser.isRestaurantKnown()) {
+            return restaurantRepository.findById(currentUser.getRestaurantId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with ID: " + currentUser.getRestaurantId()));
+        }
+        Restaurant restaurant = getRestaurantByOwnerId(currentUser.getId());
+        currentUser.rememberRestaurant(restaurant);
+        return restaurant;
     }
 
     public List<FoodItem> getMenuByCurrentOwner() {
@@ -129,6 +134,7 @@ public class RestaurantService {
     public FoodItem addFoodItem(FoodItem foodItem) {
         Restaurant restaurant = getRestaurantByCurrentOwner();
         foodItem.setRestaurant(restaurant);
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(restaurant.getId()));
         return foodItemRepository.save(foodItem);
     }
 
@@ -141,7 +147,7 @@ public class RestaurantService {
     @Transactional
     public FoodItem updateFoodItem(int itemId, FoodItem updatedItem) {
         FoodItem existingItem = getFoodItemById(itemId);
-        if (existingItem.getRestaurant().getId() != getRestaurantByCurrentOwner().getId()) {
+        if (existingItem.getRestaurant().getId() != currentUser.getRestaurantId()) {
             throw new SecurityException("Unauthorized to update this food item");
         }
         existingItem.setName(updatedItem.getName());
@@ -151,6 +157,7 @@ public class RestaurantService {
         existingItem.setAvailable(updatedItem.isAvailable());
         existingItem.setCategory(updatedItem.getCategory());
         existingItem.setDietaryType(updatedItem.getDietaryType());
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(currentUser.getRestaurantId()));
         return foodItemRepository.save(existingItem);
     }
 
@@ -161,34 +168,52 @@ public class RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Food item not found with ID: " + itemId));
 
         // Security check to ensure the owner is correct
-        if (itemToDelete.getRestaurant().getId() != getRestaurantByCurrentOwner().getId()) {
+        if (itemToDelete.getRestaurant().getId() != currentUser.getRestaurantId()) {
             throw new SecurityException("Unauthorized to delete this food item");
         }
         
+        // Past orders keep their snapshot of the item but stop referencing it.
+        orderItemRepository.detachFoodItem(itemToDelete.getId(), itemToDelete.getName(),
+                itemToDelete.getImageUrl(), itemToDelete.getCategory());
+
         // Directly delete the item using its repository.
         // We will no longer modify the parent Restaurant's menu list in this transaction
         // to avoid the end-of-transaction conflict. The frontend will refresh the data anyway.
         foodItemRepository.delete(itemToDelete);
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(currentUser.getRestaurantId()));
     }
 
     @Transactional
     public FoodItem toggleFoodItemAvailability(int itemId) {
         FoodItem item = getFoodItemById(itemId);
-        if (item.getRestaurant().getId() != getRestaurantByCurrentOwner().getId()) {
+        if (item.getRestaurant().getId() != currentUser.getRestaurantId()) {
             throw new SecurityException("Unauthorized to update this food item");
         }
         item.setAvailable(!item.isAvailable());
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(currentUser.getRestaurantId()));
         return foodItemRepository.save(item);
     }
 
     @Transactional
     public Restaurant updateRestaurantProfile(Restaurant updatedRestaurant) {
         Restaurant existingRestaurant = getRestaurantByCurrentOwner();
+        GeoPoint location = GeoPoint.ofNullable(updatedRestaurant.getLatitude(), updatedRestaurant.getLongitude());
+        // The profile form sends no coordinates; the postal code centroid only replaces stored
+        // ones when the address moved, as it is much coarser than a pinned location.
+        if (location == null && (!Objects.equals(existingRestaurant.getAddress(), updatedRestaurant.getAddress())
+                || existingRestaurant.getLatitude() == null || existingRestaurant.getLongitude() == null)) {
+            location = geocoder.locateAddress(updatedRestaurant.getAddress());
+        }
         existingRestaurant.setName(updatedRestaurant.getName());
         existingRestaurant.setAddress(updatedRestaurant.getAddress());
         existingRestaurant.setPhoneNumber(updatedRestaurant.getPhoneNumber());
         existingRestaurant.setImageUrl(updatedRestaurant.getImageUrl());
         existingRestaurant.setBusinessId(updatedRestaurant.getBusinessId()); // Updated to use businessId
+        if (location != null) {
+            existingRestaurant.setLatitude(location.getLatitude());
+            existingRestaurant.setLongitude(location.getLongitude());
+        }
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(existingRestaurant.getId()));
         return restaurantRepository.save(existingRestaurant);
     }
     @Transactional
@@ -198,14 +223,9 @@ public class RestaurantService {
         logger.info("Updating image for restaurant '{}' (ID: {}). New URL: {}", 
                     restaurant.getName(), restaurant.getId(), newImageUrl);
         restaurant.setImageUrl(newImageUrl);
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(restaurant.getId()));
         return restaurantRepository.save(restaurant);
     }
-    private User getCurrentUser() {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext()
-                .getAuthentication().getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userDetails.getId()));
-    }
 
     // --- DTO Helper Methods ---
     private RestaurantDto toRestaurantDto(Restaurant restaurant) {
@@ -216,6 +236,8 @@ public class RestaurantService {
         dto.setPhoneNumber(restaurant.getPhoneNumber());
         dto.setBusinessId(restaurant.getBusinessId());
         dto.setImageUrl(restaurant.getImageUrl());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
         if (restaurant.getOwner() != null) {
             dto.setOwnerName(restaurant.getOwner().getName());
         }
@@ -248,8 +270,11 @@ public class RestaurantService {
 
     private OrderItemDto toOrderItemDto(OrderItem item) {
         OrderItemDto dto = new OrderItemDto();
-        dto.setItemName(item.getFoodItem() != null ? item.getFoodItem().getName() : "N/A");
+        dto.setItemName(item.displayItemName());
+        dto.setImageUrl(item.displayItemImageUrl());
+        dto.setCategory(item.displayItemCategory());
         dto.setQuantity(item.getQuantity());
+        dto.setPrice(item.getPrice());
         return dto;
     }
 
@@ -6,10 +6,9 @@ import com.foodnow.model.*;
 import com.foodnow.repository.FoodItemRepository;
 import com.foodnow.repository.OrderRepository;
 import com.foodnow.repository.ReviewRepository;
-import com.foodnow.repository.UserRepository;
-import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,12 +19,12 @@ public class ReviewService {
 
     @Autowired private ReviewRepository reviewRepository;
     @Autowired private OrderRepository orderRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private CurrentUser currentUser;
     @Autowired private FoodItemRepository foodItemRepository; // Inject this
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Review createReview(int orderId, ReviewRequest reviewRequest) {
-        User currentUser = getCurrentUser();
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
@@ -45,11 +44,13 @@ public class ReviewService {
         review.setComment(reviewRequest.getComment());
         review.setReviewDate(LocalDateTime.now());
         review.setOrder(order);
-        review.setUser(currentUser);
+        review.setUser(currentUser.getReference());
         review.setRestaurant(order.getRestaurant());
         
         // --- NEW LOGIC TO UPDATE ITEM RATINGS ---
         updateFoodItemRatings(order, reviewRequest.getRating());
+        // Item ratings are part of the public menu snapshot.
+        eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(order.getRestaurant().getId()));
 
         return reviewRepository.save(review);
     }
@@ -57,7 +58,10 @@ public class ReviewService {
     private void updateFoodItemRatings(Order order, int newRating) {
         for (OrderItem item : order.getItems()) {
             FoodItem foodItem = item.getFoodItem();
-            
+            if (foodItem == null) {
+                continue; // deleted from the menu since the order was placed
+            }
+
             double currentTotalRating = foodItem.getAverageRating() * foodItem.getRatingCount();
             int newRatingCount = foodItem.getRatingCount() + 1;
             double newAverageRating = (currentTotalRating + newRating) / newRatingCount;
@@ -68,9 +72,4 @@ public class ReviewService {
             foodItemRepository.save(foodItem);
         }
     }
-
-    private User getCurrentUser() {
-        UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userRepository.findById(userDetails.getId()).orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
 }
\ No newline at end of file
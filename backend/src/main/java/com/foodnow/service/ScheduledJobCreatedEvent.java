@@ -0,0 +1,17 @@
+package com.foodnow.service;
+
+import com.foodnow.model.ScheduledJob;
+
+/**
+ * Published when a job row is written; the job joins the timing wheel once that commits.
+ */
+public class ScheduledJobCreatedEvent {
+
+    private final ScheduledJob job;
+
+    public ScheduledJobCreatedEvent(ScheduledJob job) {
+        this.job = job;
+    }
+
+    public ScheduledJob getJob() { return job; }
+}
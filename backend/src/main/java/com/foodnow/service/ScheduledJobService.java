@@ -0,0 +1,223 @@
+package com.foodnow.service;
+
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.ScheduledJob;
+import com.foodnow.model.ScheduledJobType;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.ScheduledJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable timers for order workflows. Each job is a row in {@code scheduled_jobs},
+ * written in the caller's transaction and added to an in-memory {@link TimingWheel}
+ * after commit. One ticker thread advances the wheel and hands due jobs to a small
+ * worker pool, so no thread ever sleeps waiting for a timer. Pending rows are loaded
+ * back into the wheel at startup.
+ * <p>
+ * A job runs in the transaction that deletes its row. If another instance, or a
+ * duplicate wheel entry, got there first the delete matches nothing and the job is
+ * skipped. A job that fails keeps its row and is retried later.
+ */
+@Service
+public class ScheduledJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobService.class);
+
+    @Autowired private ScheduledJobRepository scheduledJobRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private AgentPool agentPool;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private Environment environment;
+    @Autowired private Clock clock;
+
+    @Value("${scheduled-jobs.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${scheduled-jobs.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${scheduled-jobs.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${scheduled-jobs.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${scheduled-jobs.recovery-batch-size:1000}")
+    private int recoveryBatchSize;
+
+    // Off when the owner of the clock advances the wheel itself through runDue.
+    @Value("${scheduled-jobs.auto-tick:true}")
+    private boolean autoTick;
+
+    private TimingWheel<ScheduledJob> wheel;
+    private TransactionTemplate transaction;
+    private ScheduledExecutorService ticker;
+    private Executor workers;
+
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel<>(tickMs, wheelSize, clock.millis());
+        transaction = new TransactionTemplate(transactionManager);
+        ticker = Executors.newSingleThreadScheduledExecutor(daemonThreads("job-timer"));
+        // Job bodies block on the database; with virtual threads each gets its own.
+        workers = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("job-worker-")
+                : Executors.newFixedThreadPool(workerThreads, daemonThreads("job-worker"));
+        if (autoTick) {
+            ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schedules the job to run after {@code delay}. It only takes effect if the
+     * surrounding transaction commits.
+     */
+    @Transactional
+    public void schedule(ScheduledJobType type, int orderId, Integer agentId, Duration delay) {
+        ScheduledJob job = new ScheduledJob();
+        job.setType(type);
+        job.setOrderId(orderId);
+        job.setAgentId(agentId);
+        job.setDueAt(LocalDateTime.now(clock).plus(delay));
+        eventPublisher.publishEvent(new ScheduledJobCreatedEvent(scheduledJobRepository.save(job)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobCreated(ScheduledJobCreatedEvent event) {
+        wheel.add(event.getJob(), toEpochMillis(event.getJob().getDueAt()));
+    }
+
+    /**
+     * Loads every pending job into the wheel; overdue ones fire on the next tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        long lastId = 0;
+        int recovered = 0;
+        List<ScheduledJob> page;
+        do {
+            page = scheduledJobRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, recoveryBatchSize));
+            for (ScheduledJob job : page) {
+                wheel.add(job, toEpochMillis(job.getDueAt()));
+                lastId = job.getId();
+            }
+            recovered += page.size();
+        } while (page.size() == recoveryBatchSize);
+        if (recovered > 0) {
+            logger.info("Recovered {} scheduled jobs", recovered);
+        }
+    }
+
+    /**
+     * Runs every job due by the clock on the calling thread, one after another. For use
+     * with {@code scheduled-jobs.auto-tick=false}, where nothing else advances the wheel.
+     */
+    public void runDue() {
+        for (ScheduledJob job : wheel.advance(clock.millis())) {
+            run(job);
+        }
+    }
+
+    /**
+     * Timers waiting in the wheel, including ones not yet placed by the ticker.
+     */
+    public int pendingCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        if (workers instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void tick() {
+        try {
+            for (ScheduledJob job : wheel.advance(clock.millis())) {
+                workers.execute(() -> run(job));
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task and stop every timer.
+            logger.error("Timing wheel tick failed", e);
+        }
+    }
+
+    private void run(ScheduledJob job) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (scheduledJobRepository.claim(job.getId()) == 0) {
+                    return;
+                }
+                switch (job.getType()) {
+                    case COMPLETE_DELIVERY -> completeDelivery(job.getOrderId(), job.getAgentId());
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Scheduled job {} ({}) for order {} failed; retrying in {}s",
+                    job.getId(), job.getType(), job.getOrderId(), retryDelaySeconds, e);
+            wheel.add(job, clock.millis() + retryDelaySeconds * 1000);
+        }
+    }
+
+    private void completeDelivery(int orderId, Integer agentId) {
+        boolean delivered = orderStateMachine.tryTransition(orderId, OrderStatus.DELIVERED);
+        if (agentId == null) {
+            return;
+        }
+        if (delivered) {
+            agentPool.release(agentId);
+            logger.info("Order #{} automatically marked as DELIVERED; agent {} is back ONLINE", orderId, agentId);
+        } else if (orderRepository.findStatusById(orderId).orElse(null) == OrderStatus.DELIVERED
+                && !orderRepository.existsByDeliveryPersonnelIdAndStatus(agentId, OrderStatus.OUT_FOR_DELIVERY)) {
+            // Marked delivered by hand first. Release the agent unless they have been sent out again since.
+            agentPool.release(agentId);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,409 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.dto.RestaurantDto;
+import com.foodnow.dto.SearchResultDto;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active restaurants and their available menu items.
+ *
+ * Every restaurant and every item is a document. Item documents are indexed on the
+ * item name, description, category, dietary type and restaurant name, each with its
+ * own field weight; restaurant documents on the restaurant name. Queries match all of
+ * their terms (the last one also as a prefix, for search-as-you-type), are scored with
+ * BM25-style term saturation and are boosted by the item's average rating.
+ *
+ * Updates replace a restaurant's documents as a unit. Replaced documents are only
+ * marked deleted; the postings are rebuilt once deletions pile up.
+ */
+public class SearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float RESTAURANT_NAME_WEIGHT = 1.5f;
+    private static final float TAG_WEIGHT = 1f;
+    private static final float DESCRIPTION_WEIGHT = 0.5f;
+    private static final double K1 = 1.2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_DELETES_BEFORE_COMPACTION = 1000;
+
+    private static final Map<String, String> SYNONYMS = Map.of(
+            "vegetarian", "veg",
+            "drinks", "drink",
+            "desserts", "dessert",
+            "starters", "starter",
+            "sides", "side");
+
+    private final double ratingBoost;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Postings are append-only with ascending doc ids; the TreeMap gives ordered prefix scans.
+    private TreeMap<String, Postings> postings = new TreeMap<>();
+    private List<Doc> docs = new ArrayList<>();
+    private Map<Integer, int[]> docsByRestaurant = new HashMap<>();
+    private int liveDocs;
+    private int deletedDocs;
+
+    public SearchIndex(double ratingBoost) {
+        this.ratingBoost = ratingBoost;
+    }
+
+    /**
+     * Replaces everything indexed for the restaurant. Inactive restaurants are simply removed.
+     */
+    public void indexRestaurant(Restaurant restaurant, List<FoodItem> availableItems) {
+        lock.writeLock().lock();
+        try {
+            deleteRestaurant(restaurant.getId());
+            if (restaurant.getStatus() == Restaurant.RestaurantStatus.ACTIVE) {
+                int[] ids = new int[availableItems.size() + 1];
+                ids[0] = add(restaurantDoc(restaurant));
+                for (int i = 0; i < availableItems.size(); i++) {
+                    ids[i + 1] = add(itemDoc(restaurant, availableItems.get(i)));
+                }
+                docsByRestaurant.put(restaurant.getId(), ids);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(int restaurantId) {
+        lock.writeLock().lock();
+        try {
+            deleteRestaurant(restaurantId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} restaurants and up to {@code limit} items, best first.
+     */
+    public SearchResultDto search(String query, int limit) {
+        SearchResultDto result = new SearchResultDto();
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Postings[][] groups = new Postings[tokens.size()][];
+            int driver = 0;
+            long driverSize = Long.MAX_VALUE;
+            for (int i = 0; i < tokens.size(); i++) {
+                groups[i] = i == tokens.size() - 1 ? expandPrefix(tokens.get(i)) : exact(tokens.get(i));
+                if (groups[i].length == 0) {
+                    return result; // a term nothing contains: no document can match all of them
+                }
+                long size = 0;
+                for (Postings p : groups[i]) {
+                    size += p.size;
+                }
+                if (size < driverSize) {
+                    driverSize = size;
+                    driver = i;
+                }
+            }
+
+            Comparator<Hit> worstFirst = Comparator.comparingDouble((Hit h) -> h.score)
+                    .thenComparing(h -> -h.docId);
+            PriorityQueue<Hit> topRestaurants = new PriorityQueue<>(worstFirst);
+            PriorityQueue<Hit> topItems = new PriorityQueue<>(worstFirst);
+
+            candidates:
+            for (int docId : union(groups[driver])) {
+                Doc doc = docs.get(docId);
+                if (doc.deleted) {
+                    continue;
+                }
+                double score = 0;
+                for (Postings[] group : groups) {
+                    double groupScore = 0;
+                    for (Postings p : group) {
+                        float weight = p.weightOf(docId);
+                        if (weight > 0) {
+                            groupScore += idf(p.size) * (weight * (K1 + 1)) / (weight + K1);
+                        }
+                    }
+                    if (groupScore == 0) {
+                        continue candidates;
+                    }
+                    score += groupScore;
+                }
+                offer(doc.item == null ? topRestaurants : topItems, new Hit(docId, score * doc.boost), limit, worstFirst);
+            }
+
+            for (Hit hit : drainBestFirst(topRestaurants)) {
+                result.getRestaurants().add(docs.get(hit.docId).restaurant);
+            }
+            for (Hit hit : drainBestFirst(topItems)) {
+                result.getItems().add(docs.get(hit.docId).item);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- analysis ----
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        token = SYNONYMS.getOrDefault(token, token);
+        // "non veg" / "non-veg" is one dietary term, not a match for "veg".
+        if (token.equals("veg") && !tokens.isEmpty() && tokens.get(tokens.size() - 1).equals("non")) {
+            tokens.set(tokens.size() - 1, "nonveg");
+            return;
+        }
+        tokens.add(token);
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static String tagText(Enum<?> value) {
+        return value == null ? null : value.name().replace('_', ' ');
+    }
+
+    // ---- documents ----
+
+    private Doc restaurantDoc(Restaurant restaurant) {
+        RestaurantDto dto = new RestaurantDto();
+        dto.setId(restaurant.getId());
+        dto.setName(restaurant.getName());
+        dto.setAddress(restaurant.getAddress());
+        dto.setPhoneNumber(restaurant.getPhoneNumber());
+        dto.setBusinessId(restaurant.getBusinessId());
+        dto.setImageUrl(restaurant.getImageUrl());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
+
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, restaurant.getName(), NAME_WEIGHT);
+        return new Doc(dto, null, 1f, terms);
+    }
+
+    private Doc itemDoc(Restaurant restaurant, FoodItem item) {
+        FoodItemDto dto = new FoodItemDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setPrice(item.getPrice());
+        dto.setImageUrl(item.getImageUrl());
+        dto.setAvailable(item.isAvailable());
+        dto.setCategory(item.getCategory());
+        dto.setDietaryType(item.getDietaryType());
+        dto.setAverageRating(item.getAverageRating());
+        dto.setRatingCount(item.getRatingCount());
+        dto.setRestaurantId(restaurant.getId());
+        dto.setRestaurantName(restaurant.getName());
+
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, item.getName(), NAME_WEIGHT);
+        addField(terms, restaurant.getName(), RESTAURANT_NAME_WEIGHT);
+        addField(terms, tagText(item.getCategory()), TAG_WEIGHT);
+        addField(terms, tagText(item.getDietaryType()), TAG_WEIGHT);
+        addField(terms, item.getDescription(), DESCRIPTION_WEIGHT);
+        float boost = item.getRatingCount() > 0 ? (float) (1 + ratingBoost * item.getAverageRating()) : 1f;
+        return new Doc(null, dto, boost, terms);
+    }
+
+    private int add(Doc doc) {
+        int docId = docs.size();
+        docs.add(doc);
+        for (Map.Entry<String, Float> term : doc.terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), t -> new Postings()).add(docId, term.getValue());
+        }
+        liveDocs++;
+        return docId;
+    }
+
+    private void deleteRestaurant(int restaurantId) {
+        int[] ids = docsByRestaurant.remove(restaurantId);
+        if (ids == null) {
+            return;
+        }
+        for (int id : ids) {
+            docs.get(id).deleted = true;
+        }
+        liveDocs -= ids.length;
+        deletedDocs += ids.length;
+    }
+
+    private void compactIfNeeded() {
+        if (deletedDocs < MIN_DELETES_BEFORE_COMPACTION || deletedDocs < liveDocs / 3) {
+            return;
+        }
+        List<Doc> oldDocs = docs;
+        Map<Integer, int[]> oldByRestaurant = docsByRestaurant;
+        docs = new ArrayList<>(liveDocs);
+        postings = new TreeMap<>();
+        docsByRestaurant = new HashMap<>();
+        liveDocs = 0;
+        deletedDocs = 0;
+        for (Map.Entry<Integer, int[]> restaurant : oldByRestaurant.entrySet()) {
+            int[] oldIds = restaurant.getValue();
+            int[] newIds = new int[oldIds.length];
+            for (int i = 0; i < oldIds.length; i++) {
+                newIds[i] = add(oldDocs.get(oldIds[i]));
+            }
+            docsByRestaurant.put(restaurant.getKey(), newIds);
+        }
+    }
+
+    // ---- query helpers ----
+
+    private Postings[] exact(String term) {
+        Postings p = postings.get(term);
+        return p == null ? new Postings[0] : new Postings[] { p };
+    }
+
+    private Postings[] expandPrefix(String prefix) {
+        List<Postings> expansions = new ArrayList<>();
+        for (Postings p : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            expansions.add(p);
+            if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return expansions.toArray(new Postings[0]);
+    }
+
+    private static int[] union(Postings[] group) {
+        if (group.length == 1) {
+            return Arrays.copyOf(group[0].docs, group[0].size);
+        }
+        int total = 0;
+        for (Postings p : group) {
+            total += p.size;
+        }
+        int[] all = new int[total];
+        int n = 0;
+        for (Postings p : group) {
+            System.arraycopy(p.docs, 0, all, n, p.size);
+            n += p.size;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private double idf(int docFrequency) {
+        int n = Math.max(liveDocs, docFrequency);
+        return Math.log(1 + (n - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int limit, Comparator<Hit> worstFirst) {
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (worstFirst.compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    private static List<Hit> drainBestFirst(PriorityQueue<Hit> top) {
+        Hit[] hits = new Hit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            hits[i] = top.poll();
+        }
+        return Arrays.asList(hits);
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        void add(int docId, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = docId;
+            weights[size] = weight;
+            size++;
+        }
+
+        float weightOf(int docId) {
+            int i = Arrays.binarySearch(docs, 0, size, docId);
+            return i >= 0 ? weights[i] : 0f;
+        }
+    }
+
+    private static final class Doc {
+        final RestaurantDto restaurant;
+        final FoodItemDto item;
+        final float boost;
+        final Map<String, Float> terms;
+        boolean deleted;
+
+        Doc(RestaurantDto restaurant, FoodItemDto item, float boost, Map<String, Float> terms) {
+            this.restaurant = restaurant;
+            this.item = item;
+            this.boost = boost;
+            this.terms = terms;
+        }
+    }
+
+    private static final class Hit {
+        final int docId;
+        final double score;
+
+        Hit(int docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+}
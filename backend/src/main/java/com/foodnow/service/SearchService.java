@@ -0,0 +1,190 @@
+package com.foodnow.service;
+
+import com.foodnow.dto.FacetResultDto;
+import com.foodnow.dto.RestaurantDto;
+import com.foodnow.dto.SearchResultDto;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the in-memory {@link SearchIndex}, {@link FacetIndex} and {@link GeoIndex} in
+ * step with the database. All are built once the application is ready and each restaurant is
+ * re-indexed after any committed change to it (menu edits, availability toggles,
+ * ratings). All index writes run on one background thread, in publication order.
+ */
+@Service
+public class SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Value("${search.rating-boost:0.1}")
+    private double ratingBoost;
+
+    @Value("${search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${search.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${search.facets.price-bounds:100,200,300,500}")
+    private double[] priceBounds;
+
+    @Value("${search.geo.cell-degrees:0.1}")
+    private double geoCellDegrees;
+
+    @Value("${search.geo.default-radius-km:5}")
+    private double defaultRadiusKm;
+
+    @Value("${search.geo.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    private volatile SearchIndex index;
+    private volatile FacetIndex facetIndex;
+    private volatile GeoIndex geoIndex;
+    private TransactionTemplate readOnlyTransaction;
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        index = new SearchIndex(ratingBoost);
+        facetIndex = new FacetIndex(priceBounds);
+        geoIndex = new GeoIndex(geoCellDegrees);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public SearchResultDto search(String query, Integer limit) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        return index.search(query, size);
+    }
+
+    public FacetResultDto filter(FacetQuery query) {
+        if (query.getLimit() < 1 || query.getLimit() > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        if (query.getOffset() < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        return facetIndex.query(query);
+    }
+
+    /**
+     * Active restaurants around a point, nearest first. Given only {@code k}, returns the
+     * k nearest at any distance; otherwise those within {@code radiusKm} (default
+     * {@code search.geo.default-radius-km}), at most {@code k}.
+     */
+    public List<RestaurantDto> nearby(GeoPoint origin, Double radiusKm, Integer k) {
+        int size = k == null ? defaultLimit : k;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxLimit);
+        }
+        if (radiusKm == null && k != null) {
+            return geoIndex.nearest(origin, size);
+        }
+        double radius = radiusKm == null ? defaultRadiusKm : radiusKm;
+        if (!(radius > 0 && radius <= maxRadiusKm)) {
+            throw new IllegalArgumentException("radiusKm must be greater than 0 and at most " + maxRadiusKm);
+        }
+        return geoIndex.withinRadius(origin, radius, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexOnStartup() {
+        indexer.execute(this::rebuild);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(RestaurantCatalogChangedEvent event) {
+        indexer.execute(() -> reindex(event.getRestaurantId()));
+    }
+
+    /**
+     * Builds fresh indexes from the database and swaps them in; queries keep using
+     * the previous ones until the new ones are complete.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        SearchIndex freshIndex = new SearchIndex(ratingBoost);
+        FacetIndex freshFacets = new FacetIndex(priceBounds);
+        GeoIndex freshGeo = new GeoIndex(geoCellDegrees);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Map<Integer, List<FoodItem>> menus = new HashMap<>();
+            for (FoodItem item : foodItemRepository.findAllByRestaurantStatus(Restaurant.RestaurantStatus.ACTIVE)) {
+                menus.computeIfAbsent(item.getRestaurant().getId(), id -> new ArrayList<>()).add(item);
+            }
+            for (Restaurant restaurant : restaurantRepository.findByStatusOrderByIdAsc(Restaurant.RestaurantStatus.ACTIVE)) {
+                List<FoodItem> menu = menus.getOrDefault(restaurant.getId(), List.of());
+                freshIndex.indexRestaurant(restaurant, availableOnly(menu));
+                freshFacets.indexRestaurant(restaurant, menu);
+                freshGeo.indexRestaurant(restaurant);
+            }
+        });
+        index = freshIndex;
+        facetIndex = freshFacets;
+        geoIndex = freshGeo;
+        logger.info("Search index built: {} documents, {} faceted items, {} located restaurants in {} ms",
+                freshIndex.size(), freshFacets.size(), freshGeo.size(), System.currentTimeMillis() - start);
+    }
+
+    private void reindex(int restaurantId) {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                Restaurant restaurant = restaurantRepository.findById(restaurantId).orElse(null);
+                if (restaurant == null) {
+                    index.removeRestaurant(restaurantId);
+                    facetIndex.removeRestaurant(restaurantId);
+                    geoIndex.removeRestaurant(restaurantId);
+                    return;
+                }
+                List<FoodItem> menu = foodItemRepository.findByRestaurantId(restaurantId);
+                index.indexRestaurant(restaurant, availableOnly(menu));
+                facetIndex.indexRestaurant(restaurant, menu);
+                geoIndex.indexRestaurant(restaurant);
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to re-index restaurant {}", restaurantId, e);
+        }
+    }
+
+    private static List<FoodItem> availableOnly(List<FoodItem> menu) {
+        return menu.stream().filter(FoodItem::isAvailable).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdownNow();
+    }
+}
@@ -0,0 +1,102 @@
+package com.foodnow.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick. A timer goes into the
+ * bucket of its deadline tick with the number of full turns still to wait, so
+ * adding one is O(1) however many are pending and each tick only looks at one bucket.
+ * <p>
+ * {@link #add} may be called from any thread; additions are queued and placed on
+ * the next {@link #advance}. {@code advance} must only be called from one thread
+ * at a time. Timers fire on the first tick boundary at or after their deadline.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final long startMs;
+    private final int mask;
+    private final List<List<Timer<T>>> buckets;
+    private final Queue<Timer<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long currentTick;
+
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        int buckets = 1;
+        while (buckets < wheelSize) {
+            buckets <<= 1;
+        }
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+        this.mask = buckets - 1;
+        this.buckets = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.add(new ArrayList<>());
+        }
+    }
+
+    public void add(T item, long deadlineMs) {
+        incoming.add(new Timer<>(item, deadlineMs));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Runs every tick up to {@code nowMs} and returns the items that came due, earliest tick first.
+     */
+    public List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = (nowMs - startMs) / tickMs;
+        placeIncoming();
+        while (currentTick <= targetTick) {
+            List<Timer<T>> bucket = buckets.get((int) (currentTick & mask));
+            int kept = 0;
+            for (Timer<T> timer : bucket) {
+                if (timer.rounds == 0) {
+                    expired.add(timer.item);
+                } else {
+                    timer.rounds--;
+                    bucket.set(kept++, timer);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+            currentTick++;
+        }
+        size.addAndGet(-expired.size());
+        return expired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void placeIncoming() {
+        Timer<T> timer;
+        while ((timer = incoming.poll()) != null) {
+            // Ceiling, so nothing fires early; overdue timers go into the current tick.
+            long deadlineTick = Math.max(Math.floorDiv(timer.deadlineMs - startMs + tickMs - 1, tickMs), currentTick);
+            timer.rounds = (deadlineTick - currentTick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(timer);
+        }
+    }
+
+    private static final class Timer<T> {
+        private final T item;
+        private final long deadlineMs;
+        private long rounds;
+
+        Timer(T item, long deadlineMs) {
+            this.item = item;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+}
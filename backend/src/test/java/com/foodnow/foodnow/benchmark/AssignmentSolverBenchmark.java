@@ -0,0 +1,78 @@
+package com.foodnow.foodnow.benchmark;
+
+import com.foodnow.service.AssignmentSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to assign one dispatch window: the Hungarian solver against the greedy rule,
+ * for square windows of n orders and n agents scattered over a 20 km city. Costs are
+ * pickup distances less an urgency credit, as built by the batch dispatcher. Run from
+ * the main method, like {@link EmailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentSolverBenchmark {
+
+    @Param({ "50", "200", "500" })
+    public int size;
+
+    private double[][] cost;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        double[][] orders = new double[size][2];
+        double[][] agents = new double[size][2];
+        double[] urgency = new double[size];
+        for (int i = 0; i < size; i++) {
+            orders[i][0] = random.nextDouble() * 20;
+            orders[i][1] = random.nextDouble() * 20;
+            agents[i][0] = random.nextDouble() * 20;
+            agents[i][1] = random.nextDouble() * 20;
+            urgency[i] = random.nextDouble() * 5;
+        }
+        cost = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                cost[i][j] = Math.hypot(orders[i][0] - agents[j][0], orders[i][1] - agents[j][1]) - urgency[i];
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] hungarian() {
+        return AssignmentSolver.solve(cost, System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Benchmark
+    public int[] greedy() {
+        return AssignmentSolver.greedy(cost);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AssignmentSolverBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.foodnow.foodnow.benchmark;
+
+import com.foodnow.service.EmailTemplate;
+import com.foodnow.service.EmailTemplateEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled email templates with the previous string-concatenation
+ * rendering. Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.foodnow.foodnow.benchmark.EmailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final int RECIPIENTS = 100;
+
+    private EmailTemplateEngine engine;
+    private EmailTemplate template;
+    private List<Map<String, String>> recipients;
+
+    @Setup
+    public void setUp() {
+        engine = new EmailTemplateEngine();
+        template = engine.compile("application-approval",
+                "Congratulations! Your FoodNow Application is Approved!",
+                "<p>Dear {{ownerName}},</p>" +
+                "<p>We are thrilled to inform you that your application for <b>{{restaurantName}}</b> has been approved!</p>" +
+                "<p>Welcome to the <b>FoodNow Family</b> 🎉</p>" +
+                "<p>You can now log in to your account to manage your restaurant, add menu items, and start accepting orders.</p>" +
+                "<p>We look forward to a successful partnership.</p>" +
+                "<p>Best regards,<br>The FoodNow Team</p>");
+        recipients = new ArrayList<>(RECIPIENTS);
+        for (int i = 0; i < RECIPIENTS; i++) {
+            recipients.add(Map.of("ownerName", "Owner " + i, "restaurantName", "Restaurant & Grill " + i));
+        }
+    }
+
+    @Benchmark
+    public String legacySingle() {
+        Map<String, String> r = recipients.get(0);
+        return legacyApproval(r.get("ownerName"), r.get("restaurantName"));
+    }
+
+    @Benchmark
+    public String compiledSingle() {
+        return engine.render(template, recipients.get(0));
+    }
+
+    @Benchmark
+    public List<String> legacyBatch() {
+        List<String> out = new ArrayList<>(recipients.size());
+        for (Map<String, String> r : recipients) {
+            out.add(legacyApproval(r.get("ownerName"), r.get("restaurantName")));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<String> compiledBatch() {
+        return engine.renderAll(template, recipients);
+    }
+
+    // The rendering EmailService used before templates were compiled.
+    private static String legacyApproval(String ownerName, String restaurantName) {
+        String subject = "Congratulations! Your FoodNow Application is Approved!";
+        String body = "<p>Dear " + ownerName + ",</p>" +
+                "<p>We are thrilled to inform you that your application for <b>" + restaurantName + "</b> has been approved!</p>" +
+                "<p>Welcome to the <b>FoodNow Family</b> 🎉</p>" +
+                "<p>You can now log in to your account to manage your restaurant, add menu items, and start accepting orders.</p>" +
+                "<p>We look forward to a successful partnership.</p>" +
+                "<p>Best regards,<br>The FoodNow Team</p>";
+        return "<!DOCTYPE html>" +
+                "<html>" +
+                "<head>" +
+                "<style>" +
+                "body { font-family: Arial, sans-serif; background-color: #f4f6f8; margin: 0; padding: 0; }" +
+                ".container { max-width: 600px; margin: 30px auto; background: #ffffff; border-radius: 12px; " +
+                "box-shadow: 0 4px 12px rgba(0,0,0,0.1); overflow: hidden; border: 1px solid #000000;}" +
+                ".header { background: #2563eb; padding: 20px; text-align: center; color: #fff; font-size: 20px; font-weight: bold; }" +
+                ".content { padding: 30px; font-size: 16px; line-height: 1.6; color: #333; }" +
+                ".button { display: inline-block; padding: 14px 28px; margin: 20px 0; background: #2563eb; " +
+                "color: #fff !important; text-decoration: none; border-radius: 8px; font-weight: bold; }" +
+                ".button:hover { background: #1e4ed8; }" +
+                ".footer { background: #f4f6f8; padding: 15px; text-align: center; font-size: 12px; color: #888; }" +
+                "</style>" +
+                "</head>" +
+                "<body>" +
+                "<div class='container'>" +
+                "<div class='header'>" + subject + "</div>" +
+                "<div class='content'>" + body + "</div>" +
+                "<div class='footer'>" +
+                "<p>&copy; " + java.time.Year.now() + " FoodNow. All rights reserved.</p>" +
+                "</div>" +
+                "</div>" +
+                "</body></html>";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,164 @@
+package com.foodnow.foodnow.benchmark;
+
+import com.foodnow.FoodNowApplication;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderItem;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load scenario comparing request handling on platform threads with virtual
+ * threads: many concurrent clients reading their order history over HTTP, with
+ * Tomcat's pool deliberately smaller than the client count. SampleTime mode
+ * reports throughput alongside p99 latency. Virtual mode needs Java 21; on older
+ * runtimes Spring Boot ignores the switch and both rows measure platform threads.
+ * Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.foodnow.foodnow.benchmark.ExecutionModeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(128)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int CUSTOMERS = 64;
+    private static final int ORDERS_PER_CUSTOMER = 20;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(FoodNowApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "server.tomcat.threads.max=32",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        OrderRepository orderRepository = context.getBean(OrderRepository.class);
+        JwtTokenProvider tokenProvider = context.getBean(JwtTokenProvider.class);
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Load Test Kitchen");
+        restaurant.setAddress("1 MG Road, Bengaluru 560001");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = context.getBean(RestaurantRepository.class).save(restaurant);
+
+        requests = new HttpRequest[CUSTOMERS];
+        for (int c = 0; c < CUSTOMERS; c++) {
+            User customer = new User();
+            customer.setName("Load Customer " + c);
+            customer.setEmail(UUID.randomUUID() + "@example.com");
+            customer.setPhoneNumber("9" + c);
+            customer.setPassword("not-used");
+            customer.setRole(Role.CUSTOMER);
+            customer = userRepository.save(customer);
+            for (int o = 0; o < ORDERS_PER_CUSTOMER; o++) {
+                orderRepository.save(newOrder(customer, restaurant, o));
+            }
+            UserDetailsImpl details = UserDetailsImpl.build(customer);
+            String token = tokenProvider.generateToken(
+                    new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+            requests[c] = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/my-orders?limit=10"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET().build();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private int next;
+    }
+
+    @Benchmark
+    public int readOrderHistory(Client state) throws Exception {
+        HttpRequest request = requests[state.next++ % requests.length];
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private Order newOrder(User customer, Restaurant restaurant, int index) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.DELIVERED);
+        order.setOrderTime(LocalDateTime.now().minusHours(index));
+        order.setDeliveryAddressLine1("2 Brigade Road");
+        order.setDeliveryCity("Bengaluru");
+        order.setDeliveryPostalCode("560001");
+        OrderItem line = new OrderItem();
+        line.setOrder(order);
+        line.setItemName("Dish " + index);
+        line.setQuantity(1);
+        line.setPrice(150);
+        order.getItems().add(line);
+        order.setTotalPrice(150);
+        return order;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExecutionModeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.foodnow.foodnow.benchmark;
+
+import com.foodnow.FoodNowApplication;
+import com.foodnow.dto.OrderAddressDto;
+import com.foodnow.dto.OrderDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.CartService;
+import com.foodnow.service.OrderService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OrderService#placeOrderFromCart} end to end against the in-memory
+ * test database for carts of 1, 10 and 50 lines. Refilling the cart happens outside
+ * the measured call. Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.foodnow.foodnow.benchmark.OrderPlacementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int cartLines;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private OrderService orderService;
+    private UsernamePasswordAuthenticationToken authentication;
+    private final List<FoodItem> menu = new ArrayList<>();
+    private final OrderAddressDto address = new OrderAddressDto();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(FoodNowApplication.class)
+                .web(WebApplicationType.NONE)
+                // No servlet container, but CurrentUser is request-scoped.
+                .initializers(ctx -> ctx.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope()))
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+
+        User customer = new User();
+        customer.setName("Benchmark Customer");
+        customer.setEmail(UUID.randomUUID() + "@example.com");
+        customer.setPhoneNumber("9000000000");
+        customer.setPassword("not-used");
+        customer.setRole(Role.CUSTOMER);
+        customer = context.getBean(UserRepository.class).save(customer);
+        UserDetailsImpl details = UserDetailsImpl.build(customer);
+        authentication = new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Benchmark Kitchen");
+        restaurant.setAddress("1 MG Road, Bengaluru 560001");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = context.getBean(RestaurantRepository.class).save(restaurant);
+        FoodItemRepository foodItemRepository = context.getBean(FoodItemRepository.class);
+        for (int i = 0; i < 50; i++) {
+            FoodItem item = new FoodItem();
+            item.setName("Dish " + i);
+            item.setDescription("Benchmark dish");
+            item.setPrice(100 + i);
+            item.setCategory(FoodCategory.MAIN_COURSE);
+            item.setDietaryType(DietaryType.VEG);
+            item.setRestaurant(restaurant);
+            menu.add(foodItemRepository.save(item));
+        }
+
+        address.setLine1("2 Brigade Road");
+        address.setCity("Bengaluru");
+        address.setPostalCode("560001");
+    }
+
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        // A fresh "request" per placement, as over HTTP; CurrentUser reads the calling thread's security context.
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        for (int i = 0; i < cartLines; i++) {
+            cartService.addItemToCart(menu.get(i).getId(), 1);
+        }
+    }
+
+    @Benchmark
+    public OrderDto placeOrder() {
+        return orderService.placeOrderFromCart(address);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderPlacementBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
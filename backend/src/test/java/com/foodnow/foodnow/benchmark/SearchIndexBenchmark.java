@@ -0,0 +1,89 @@
+package com.foodnow.foodnow.benchmark;
+
+import com.foodnow.dto.SearchResultDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.service.SearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of the search index over a synthetic catalog of 100k items
+ * (2,000 restaurants with 50 items each). Run from the main method, like
+ * {@link EmailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] DISHES = { "Paneer", "Chicken", "Masala", "Tikka", "Biryani", "Dosa", "Pizza",
+            "Burger", "Noodles", "Lassi", "Kulfi", "Samosa", "Korma", "Naan", "Pasta", "Salad", "Curry", "Wrap" };
+    private static final String[] WORDS = { "spicy", "grilled", "creamy", "smoky", "crispy", "sweet", "tangy",
+            "fresh", "house", "special", "classic", "roasted", "butter", "garlic", "cheese", "mint" };
+
+    @Param({ "paneer", "chicken tikka", "spicy masala cur", "veg starter" })
+    public String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SearchIndex(0.1);
+        int itemId = 0;
+        for (int r = 0; r < 2000; r++) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(r + 1);
+            restaurant.setName(WORDS[random.nextInt(WORDS.length)] + " " + DISHES[random.nextInt(DISHES.length)] + " House " + r);
+            List<FoodItem> items = new ArrayList<>(50);
+            for (int i = 0; i < 50; i++) {
+                FoodItem item = new FoodItem();
+                item.setId(++itemId);
+                item.setName(DISHES[random.nextInt(DISHES.length)] + " " + DISHES[random.nextInt(DISHES.length)]);
+                item.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                        + " " + WORDS[random.nextInt(WORDS.length)]);
+                item.setCategory(FoodCategory.values()[random.nextInt(FoodCategory.values().length)]);
+                item.setDietaryType(DietaryType.values()[random.nextInt(DietaryType.values().length)]);
+                item.setAverageRating(random.nextInt(6));
+                item.setRatingCount(random.nextInt(20));
+                items.add(item);
+            }
+            index.indexRestaurant(restaurant, items);
+        }
+    }
+
+    @Benchmark
+    public SearchResultDto search() {
+        return index.search(query, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.foodnow.foodnow.security;
+
+import com.foodnow.security.JwtPrincipal;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.security.VerifiedTokenCache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the single-parse verification path in JwtTokenProvider.
+ */
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private VerifiedTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(100);
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "unit-test-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 60_000);
+        ReflectionTestUtils.setField(tokenProvider, "tokenCache", tokenCache);
+        tokenProvider.init();
+    }
+
+    private String issueToken() {
+        UserDetailsImpl user = new UserDetailsImpl(7, "test@example.com", "pw",
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+        return tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void verifyAndExtract_WithValidToken_ShouldReturnPrincipalAndCacheIt() {
+        String token = issueToken();
+
+        JwtPrincipal principal = tokenProvider.verifyAndExtract(token);
+
+        assertNotNull(principal);
+        assertEquals("test@example.com", principal.getSubject());
+        assertEquals(List.of("ROLE_CUSTOMER"), principal.getRoles());
+        assertEquals(7, principal.getUserId());
+        assertEquals(1, tokenCache.size());
+        assertSame(principal, tokenProvider.verifyAndExtract(token));
+    }
+
+    @Test
+    void verifyAndExtract_WithTamperedToken_ShouldReturnNull() {
+        String token = issueToken();
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertNull(tokenProvider.verifyAndExtract(tampered));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void cache_ShouldDropEntriesOnceTheTokenHasExpired() {
+        JwtPrincipal expired = new JwtPrincipal("a@example.com", List.of("ROLE_CUSTOMER"), Instant.now().minusSeconds(1));
+        tokenCache.put("some-token", expired);
+
+        assertNull(tokenCache.get("some-token"));
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void cache_ShouldStayWithinItsBound() {
+        VerifiedTokenCache smallCache = new VerifiedTokenCache(2);
+        Instant later = Instant.now().plusSeconds(60);
+        smallCache.put("t1", new JwtPrincipal("a", List.of(), later));
+        smallCache.put("t2", new JwtPrincipal("b", List.of(), later));
+        smallCache.put("t3", new JwtPrincipal("c", List.of(), later));
+
+        assertEquals(2, smallCache.size());
+        assertNotNull(smallCache.get("t3"));
+    }
+}
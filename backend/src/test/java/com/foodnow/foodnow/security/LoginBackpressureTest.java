@@ -0,0 +1,87 @@
+package com.foodnow.foodnow.security;
+
+import com.foodnow.exception.RetryLaterException;
+import com.foodnow.security.LoginThrottle;
+import com.foodnow.security.PasswordHashingExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the login throttle and the bounded hashing pool.
+ */
+class LoginBackpressureTest {
+
+    @Test
+    void throttle_ShouldRefuseAnEmailAfterTooManyFailures() {
+        LoginThrottle throttle = new LoginThrottle(2, 100, 60);
+
+        throttle.recordFailure("User@Example.com", "10.0.0.1");
+        throttle.recordFailure("user@example.com", "10.0.0.2");
+
+        RetryLaterException ex = assertThrows(RetryLaterException.class,
+                () -> throttle.checkAllowed("user@example.com", "10.0.0.3"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+        assertDoesNotThrow(() -> throttle.checkAllowed("other@example.com", "10.0.0.3"));
+    }
+
+    @Test
+    void throttle_ShouldRefuseAnIpAfterTooManyFailures() {
+        LoginThrottle throttle = new LoginThrottle(100, 2, 60);
+
+        throttle.recordFailure("a@example.com", "10.0.0.1");
+        throttle.recordFailure("b@example.com", "10.0.0.1");
+
+        assertThrows(RetryLaterException.class, () -> throttle.checkAllowed("c@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void throttle_ShouldResetTheEmailCountOnSuccess() {
+        LoginThrottle throttle = new LoginThrottle(1, 100, 60);
+
+        throttle.recordFailure("a@example.com", "10.0.0.1");
+        throttle.recordSuccess("a@example.com");
+
+        assertDoesNotThrow(() -> throttle.checkAllowed("a@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void executor_ShouldFailFastWith503WhenTheQueueIsFull() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 3, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = executor.submit(() -> await(release));
+            CompletableFuture<String> queued = executor.submit(() -> "queued");
+            while (executor.getQueueDepth() == 0 && !queued.isDone()) {
+                Thread.onSpinWait();
+            }
+
+            RetryLaterException ex = assertThrows(RetryLaterException.class, () -> executor.submit(() -> "rejected"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+            assertEquals(3, ex.getRetryAfterSeconds());
+
+            release.countDown();
+            assertEquals("done", running.get());
+            assertEquals("queued", queued.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
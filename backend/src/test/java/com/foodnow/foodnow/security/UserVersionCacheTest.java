@@ -0,0 +1,66 @@
+package com.foodnow.foodnow.security;
+
+import com.foodnow.model.User;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.UserVersionCache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the token security-version check.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserVersionCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserVersionCache userVersionCache;
+
+    @BeforeEach
+    void setUp() {
+        userVersionCache = new UserVersionCache(100);
+        ReflectionTestUtils.setField(userVersionCache, "userRepository", userRepository);
+    }
+
+    @Test
+    void isCurrent_ShouldReadTheDatabaseOnlyOncePerUser() {
+        when(userRepository.findSecurityVersionById(1)).thenReturn(Optional.of(0));
+
+        assertTrue(userVersionCache.isCurrent(1, 0));
+        assertTrue(userVersionCache.isCurrent(1, 0));
+
+        verify(userRepository, times(1)).findSecurityVersionById(1);
+    }
+
+    @Test
+    void bump_ShouldRejectTokensIssuedBeforeTheRoleChange() {
+        when(userRepository.findSecurityVersionById(1)).thenReturn(Optional.of(0));
+        assertTrue(userVersionCache.isCurrent(1, 0));
+
+        User user = new User();
+        user.setId(1);
+        userVersionCache.bump(user);
+
+        assertEquals(1, user.getSecurityVersion());
+        assertFalse(userVersionCache.isCurrent(1, 0));
+        assertTrue(userVersionCache.isCurrent(1, 1));
+    }
+
+    @Test
+    void isCurrent_ForDeletedUser_ShouldReturnFalse() {
+        when(userRepository.findSecurityVersionById(2)).thenReturn(Optional.empty());
+
+        assertFalse(userVersionCache.isCurrent(2, 0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.service.AgentGeoIndex;
+import com.foodnow.service.GeoPoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the delivery agent location grid.
+ */
+class AgentGeoIndexTest {
+
+    private static final GeoPoint MG_ROAD = new GeoPoint(12.9756, 77.6050);
+
+    private AgentGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AgentGeoIndex(0.05);
+        index.put(1, new GeoPoint(12.9716, 77.5946));  // ~1.2 km from MG Road
+        index.put(2, new GeoPoint(12.9352, 77.6245));  // Koramangala, ~5 km
+        index.put(3, new GeoPoint(13.1986, 77.7066));  // airport, ~27 km
+    }
+
+    @Test
+    void nearest_ShouldReturnTheClosestAgentsWithinTheRadiusNearestFirst() {
+        assertEquals(List.of(1, 2), index.nearest(MG_ROAD, 5, 15));
+        assertEquals(List.of(1), index.nearest(MG_ROAD, 1, 15));
+        assertEquals(List.of(1, 2, 3), index.nearest(MG_ROAD, 5, 50));
+        assertTrue(index.nearest(MG_ROAD, 5, 0.5).isEmpty());
+    }
+
+    @Test
+    void put_ShouldMoveAnAgentBetweenCells() {
+        index.put(3, new GeoPoint(12.9757, 77.6051));
+
+        assertEquals(List.of(3, 1), index.nearest(MG_ROAD, 2, 15));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropTheAgent() {
+        index.remove(1);
+        index.remove(42);
+
+        assertEquals(List.of(2), index.nearest(MG_ROAD, 5, 15));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void nearest_ShouldWorkAcrossTheAntimeridian() {
+        index.put(5, new GeoPoint(-16.5, 179.95));
+        index.put(6, new GeoPoint(-16.5, -179.95));
+
+        assertEquals(List.of(5, 6), index.nearest(new GeoPoint(-16.5, 179.99), 2, 20));
+    }
+}
@@ -0,0 +1,138 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.AgentLocationSample;
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.AgentLocationSampleRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.service.AgentHeartbeatMonitor;
+import com.foodnow.service.AgentLocationStore;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.GeoPoint;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that location fixes are coalesced in memory, that only a downsampled track
+ * reaches the history table, and that agents who stop reporting go OFFLINE.
+ */
+@SpringBootTest
+@MockBean(SearchService.class)
+class AgentLocationStoreTest {
+
+    private static final double LATITUDE = 12.9716;
+    private static final double LONGITUDE = 77.5946;
+
+    @Autowired private AgentLocationStore agentLocationStore;
+    @Autowired private AgentHeartbeatMonitor agentHeartbeatMonitor;
+    @Autowired private AgentPool agentPool;
+    @Autowired private AgentLocationSampleRepository sampleRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void record_ShouldKeepTheLatestFixAndAppendOnePointPerInterval() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        long start = System.currentTimeMillis() - 150_000;
+        // Two minutes of one fix a second, creeping north about a metre a second.
+        for (int second = 0; second <= 120; second++) {
+            agentLocationStore.record(agentId, new GeoPoint(LATITUDE + second * 0.00001, LONGITUDE), start + second * 1000L);
+        }
+
+        agentLocationStore.flush();
+
+        List<AgentLocationSample> track = sampleRepository.findByAgentIdAndRecordedAtBetweenOrderByRecordedAtAsc(
+                agentId, LocalDateTime.now().minusHours(1), LocalDateTime.now());
+        assertEquals(5, track.size());
+        assertEquals(LATITUDE, track.get(0).getLatitude(), 1e-9);
+        assertEquals(LATITUDE + 0.0012, track.get(4).getLatitude(), 1e-9);
+        assertEquals(LATITUDE + 0.0012, agentLocationStore.current(agentId).orElseThrow().getLatitude(), 1e-9);
+    }
+
+    @Test
+    void record_ShouldAppendAPointEarlyAfterALongMove() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        long now = System.currentTimeMillis();
+        agentLocationStore.record(agentId, new GeoPoint(LATITUDE, LONGITUDE), now - 3000);
+        agentLocationStore.record(agentId, new GeoPoint(LATITUDE + 0.0001, LONGITUDE), now - 2000);
+        agentLocationStore.record(agentId, new GeoPoint(LATITUDE + 0.01, LONGITUDE), now - 1000);
+
+        agentLocationStore.flush();
+
+        assertEquals(2, sampleRepository.findByAgentIdAndRecordedAtBetweenOrderByRecordedAtAsc(
+                agentId, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusMinutes(1)).size());
+    }
+
+    @Test
+    void record_ShouldIgnoreFixesOlderThanTheLatest() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        long now = System.currentTimeMillis();
+        agentLocationStore.record(agentId, new GeoPoint(LATITUDE, LONGITUDE), now - 1000);
+        agentLocationStore.record(agentId, new GeoPoint(13.1986, 77.7066), now - 5000);
+        // Too old to dispatch on at all.
+        agentLocationStore.record(agentId + 100_000, new GeoPoint(LATITUDE, LONGITUDE), now - 3_600_000);
+
+        assertEquals(LATITUDE, agentLocationStore.current(agentId).orElseThrow().getLatitude(), 1e-9);
+        assertEquals(Optional.empty(), agentLocationStore.current(agentId + 100_000));
+    }
+
+    @Test
+    void sweep_ShouldMarkAgentsThatStoppedReportingOffline() {
+        int silent = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        int active = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+        long now = System.currentTimeMillis();
+        agentLocationStore.record(silent, new GeoPoint(LATITUDE, LONGITUDE), now - 200_000);
+        agentLocationStore.record(active, new GeoPoint(LATITUDE, LONGITUDE), now);
+
+        agentHeartbeatMonitor.sweep();
+
+        assertEquals(DeliveryAgentStatus.OFFLINE, userRepository.findById(silent).orElseThrow().getDeliveryStatus());
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(active).orElseThrow().getDeliveryStatus());
+        assertEquals(Optional.empty(), agentLocationStore.current(silent));
+        assertTrue(agentLocationStore.current(active).isPresent());
+    }
+
+    @Test
+    void sweep_ShouldCatchAnAgentWhoWentSilentDuringADeliveryOnceReleased() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+        agentLocationStore.record(agentId, new GeoPoint(LATITUDE, LONGITUDE), System.currentTimeMillis() - 200_000);
+        assertTrue(agentPool.claimAgent(agentId));
+
+        // On a delivery, so the sweep cannot take them out yet.
+        agentHeartbeatMonitor.sweep();
+        assertEquals(DeliveryAgentStatus.OFFLINE, userRepository.findById(agentId).orElseThrow().getDeliveryStatus());
+        assertTrue(agentLocationStore.silentSince(System.currentTimeMillis() - 120_000).contains(agentId));
+
+        agentPool.release(agentId);
+        assertTrue(agentPool.idleAgents().contains(agentId));
+        agentHeartbeatMonitor.sweep();
+
+        assertEquals(DeliveryAgentStatus.OFFLINE, userRepository.findById(agentId).orElseThrow().getDeliveryStatus());
+        assertFalse(agentPool.idleAgents().contains(agentId));
+    }
+
+    private User newAgent(DeliveryAgentStatus status) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("Agent " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(Role.DELIVERY_PERSONNEL);
+        user.setDeliveryStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,165 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.service.AgentLocationStore;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.GeoPoint;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that concurrent dispatches never share an agent and that rolled-back claims
+ * return the agent to the pool.
+ */
+@SpringBootTest
+@MockBean(SearchService.class)
+class AgentPoolTest {
+
+    private static final int AGENTS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired private AgentPool agentPool;
+    @Autowired private AgentLocationStore agentLocationStore;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // Start from an empty pool; other tests leave agents online in the shared database.
+        agentPool.resync();
+        while (agentPool.claim().isPresent()) {
+        }
+    }
+
+    @Test
+    void claim_ShouldHandEachAgentToExactlyOneCaller() throws Exception {
+        List<Integer> agentIds = new ArrayList<>();
+        for (int i = 0; i < AGENTS; i++) {
+            agentIds.add(userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId());
+        }
+        User wentOffline = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE));
+        agentPool.resync();
+        // Changed behind the pool's back: the conditional update must skip this one.
+        wentOffline.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
+        userRepository.save(wentOffline);
+
+        ConcurrentLinkedQueue<Integer> claimed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    Optional<Integer> agentId;
+                    while ((agentId = agentPool.claim()).isPresent()) {
+                        claimed.add(agentId.get());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(AGENTS, claimed.size());
+        assertEquals(new HashSet<>(agentIds), new HashSet<>(claimed));
+        for (int agentId : agentIds) {
+            assertEquals(DeliveryAgentStatus.OFFLINE, userRepository.findById(agentId).orElseThrow().getDeliveryStatus());
+        }
+        assertEquals(0, agentPool.size());
+    }
+
+    @Test
+    void claim_ShouldReturnTheAgentToThePoolWhenTheTransactionRollsBack() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(Optional.of(agentId), agentPool.claim());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(agentId).orElseThrow().getDeliveryStatus());
+        assertEquals(Optional.of(agentId), agentPool.claim());
+        assertEquals(Optional.empty(), agentPool.claim());
+    }
+
+    @Test
+    void release_ShouldMakeTheAgentClaimableAgain() {
+        int agentId = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+        assertEquals(Optional.of(agentId), agentPool.claim());
+
+        agentPool.release(agentId);
+
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(agentId).orElseThrow().getDeliveryStatus());
+        assertEquals(Optional.of(agentId), agentPool.claim());
+    }
+
+    @Test
+    void claimNearest_ShouldPickTheClosestAgentThatReportedAPosition() {
+        GeoPoint restaurant = new GeoPoint(12.9756, 77.6050);
+        int far = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        int near = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        int unknown = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+        locate(far, new GeoPoint(12.9352, 77.6245));
+        locate(near, new GeoPoint(12.9716, 77.5946));
+        // Too far to be worth the pickup leg.
+        int airport = userRepository.save(newAgent(DeliveryAgentStatus.ONLINE)).getId();
+        agentPool.resync();
+        locate(airport, new GeoPoint(13.1986, 77.7066));
+
+        assertEquals(Optional.of(near), agentPool.claimNearest(restaurant));
+        assertEquals(Optional.of(far), agentPool.claimNearest(restaurant));
+        // Nobody left in range: longest idle, position or not.
+        assertEquals(Optional.of(unknown), agentPool.claimNearest(restaurant));
+        assertEquals(Optional.of(airport), agentPool.claimNearest(restaurant));
+        assertEquals(Optional.empty(), agentPool.claimNearest(restaurant));
+    }
+
+    private void locate(int agentId, GeoPoint position) {
+        agentLocationStore.update(agentId, position);
+        agentPool.relocate(agentId, position);
+    }
+
+    private User newAgent(DeliveryAgentStatus status) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("Agent " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(Role.DELIVERY_PERSONNEL);
+        user.setDeliveryStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,108 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.service.AssignmentSolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE / 2;
+
+    @Test
+    void solve_ShouldMatchBruteForceOnSmallMatrices() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(40) - 10;
+                }
+            }
+
+            int[] assignment = AssignmentSolver.solve(cost, System.nanoTime() + NO_DEADLINE);
+
+            assertValid(assignment, rows, columns);
+            assertEquals(bruteForce(cost, 0, new boolean[columns], Math.min(rows, columns)),
+                    AssignmentSolver.totalCost(cost, assignment), 1e-9);
+        }
+    }
+
+    @Test
+    void solve_ShouldBeatGreedyWhenTheFirstPickBlocksABetterPair() {
+        // Greedy gives row 0 its cheapest column, leaving row 1 with a long way to go.
+        double[][] cost = {
+                { 1, 2 },
+                { 1, 10 }
+        };
+
+        assertArrayEquals(new int[] { 0, 1 }, AssignmentSolver.greedy(cost));
+        assertArrayEquals(new int[] { 1, 0 }, AssignmentSolver.solve(cost, System.nanoTime() + NO_DEADLINE));
+    }
+
+    @Test
+    void greedy_ShouldNotSpendAColumnOnAPairAtOrAboveTheCutoff() {
+        // Row 0 has no agent in range; its least bad column is the one row 1 can use.
+        double[][] cost = {
+                { 1e6, 2e6 },
+                { 4, 1e6 }
+        };
+
+        assertArrayEquals(new int[] { 0, 1 }, AssignmentSolver.greedy(cost));
+        assertArrayEquals(new int[] { -1, 0 }, AssignmentSolver.greedy(cost, 1e6));
+    }
+
+    @Test
+    void solve_ShouldLeaveSurplusOrdersUnassigned() {
+        double[][] cost = {
+                { 5 },
+                { 1 },
+                { 3 }
+        };
+
+        assertArrayEquals(new int[] { -1, 0, -1 }, AssignmentSolver.solve(cost, System.nanoTime() + NO_DEADLINE));
+    }
+
+    @Test
+    void solve_ShouldGiveUpOnceTheDeadlineHasPassed() {
+        assertNull(AssignmentSolver.solve(new double[][] { { 1, 2 }, { 3, 4 } }, System.nanoTime() - 1));
+    }
+
+    private static void assertValid(int[] assignment, int rows, int columns) {
+        assertEquals(rows, assignment.length);
+        boolean[] used = new boolean[columns];
+        int assigned = 0;
+        for (int column : assignment) {
+            if (column >= 0) {
+                assertFalse(used[column]);
+                used[column] = true;
+                assigned++;
+            }
+        }
+        assertEquals(Math.min(rows, columns), assigned);
+    }
+
+    // Cheapest total over assignments that match exactly {@code pairs} rows, each to a distinct column.
+    private static double bruteForce(double[][] cost, int row, boolean[] used, int pairs) {
+        if (pairs == 0) {
+            return 0;
+        }
+        if (cost.length - row < pairs) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = bruteForce(cost, row + 1, used, pairs);
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used, pairs - 1));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -56,6 +57,8 @@ class AuthenticationServiceTest {
     private PasswordResetTokenRepository tokenRepository;
     @Mock
     private EmailService emailService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     // Injecting the mocks into the service instance
     @InjectMocks
@@ -0,0 +1,150 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.service.AgentLocationStore;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.BatchDispatcher;
+import com.foodnow.service.DispatchQueue;
+import com.foodnow.service.GeoPoint;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that in batch mode ready orders wait for the window and are then matched to
+ * agents for the least total pickup distance, not one at a time.
+ */
+@SpringBootTest(properties = "dispatch.mode=batch")
+@MockBean(SearchService.class)
+class BatchDispatcherTest {
+
+    private static final Duration DELIVERY = Duration.ofHours(1);
+    private static final double LATITUDE = 12.97;
+
+    @Autowired private BatchDispatcher batchDispatcher;
+    @Autowired private DispatchQueue dispatchQueue;
+    @Autowired private AgentPool agentPool;
+    @Autowired private AgentLocationStore agentLocationStore;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        // Start from an empty window with no agent free.
+        dispatchQueue.takeWaiting();
+        agentPool.resync();
+        while (agentPool.claim().isPresent()) {
+        }
+        customer = userRepository.save(newUser(Role.CUSTOMER, null));
+    }
+
+    @Test
+    void dispatchWindow_ShouldMinimizeTotalPickupDistance() {
+        // Two restaurants about 2 km apart; one agent between them, one 3 km west of the first.
+        Order urgent = newOrder(newRestaurant(77.60), LocalDateTime.now().minusMinutes(2));
+        Order later = newOrder(newRestaurant(77.62), LocalDateTime.now().minusMinutes(1));
+        User between = onlineAgentAt(77.61);
+        User west = onlineAgentAt(77.57);
+        dispatchQueue.park(urgent, DELIVERY);
+        dispatchQueue.park(later, DELIVERY);
+        // Nothing is dispatched until the window closes, though agents are free.
+        assertEquals(2, dispatchQueue.size());
+
+        batchDispatcher.dispatchWindow();
+
+        // Nearest-first would give the urgent order the agent between, and send the other 5 km.
+        assertEquals(west.getId(), agentOf(urgent.getId()));
+        assertEquals(between.getId(), agentOf(later.getId()));
+        assertEquals(0, dispatchQueue.size());
+        assertEquals(0, agentPool.size());
+    }
+
+    @Test
+    void dispatchWindow_ShouldKeepOrdersWithNoAgentInReach() {
+        Order order = newOrder(newRestaurant(77.60), LocalDateTime.now());
+        User distant = onlineAgentAt(78.00);
+        dispatchQueue.park(order, DELIVERY);
+
+        batchDispatcher.dispatchWindow();
+
+        assertEquals(1, dispatchQueue.size());
+        assertEquals(OrderStatus.PREPARING, orderRepository.findStatusById(order.getId()).orElseThrow());
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(distant.getId()).orElseThrow().getDeliveryStatus());
+    }
+
+    private User onlineAgentAt(double longitude) {
+        User agent = userRepository.save(newUser(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE));
+        agentLocationStore.update(agent.getId(), new GeoPoint(LATITUDE, longitude));
+        agentPool.resync();
+        return agent;
+    }
+
+    private Integer agentOf(int orderId) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus());
+            return order.getDeliveryPersonnel().getId();
+        });
+    }
+
+    private Restaurant newRestaurant(double longitude) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Batch " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setLatitude(LATITUDE);
+        restaurant.setLongitude(longitude);
+        restaurant.setDispatchSlaMinutes(20);
+        return restaurantRepository.save(restaurant);
+    }
+
+    private Order newOrder(Restaurant restaurant, LocalDateTime orderTime) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.PREPARING);
+        order.setOrderTime(orderTime);
+        order.setTotalPrice(250);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Kochi");
+        order.setDeliveryPostalCode("682001");
+        return orderRepository.save(order);
+    }
+
+    private User newUser(Role role, DeliveryAgentStatus status) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        user.setDeliveryStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,159 @@
+package com.foodnow.foodnow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.dto.RestaurantDto;
+import com.foodnow.service.CatalogCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the public catalog cache.
+ */
+class CatalogCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CatalogCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void getRestaurant_ShouldLoadOnceWhileFresh() {
+        cache = new CatalogCache(300, 60, 1000, new ObjectMapper(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet()));
+        RestaurantDto second = cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet())).getValue();
+
+        assertEquals(1, loads.get());
+        assertEquals("v1", second.getName());
+        assertEquals(0.5, cache.hitRatio(), 0.001);
+    }
+
+    @Test
+    void invalidateRestaurant_ShouldDropTheRestaurantAndTheActiveList() {
+        cache = new CatalogCache(300, 60, 1000, new ObjectMapper(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet()));
+        cache.getActiveRestaurants(() -> List.of(restaurant(1, loads.incrementAndGet())));
+
+        cache.invalidateRestaurant(1);
+
+        assertEquals("v3", cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet())).getValue().getName());
+        assertEquals("v4", cache.getActiveRestaurants(() -> List.of(restaurant(1, loads.incrementAndGet()))).getValue().get(0).getName());
+        assertEquals(2.0, meterRegistry.counter("foodnow.catalog.cache.evictions", "cause", "invalidation").count());
+    }
+
+    @Test
+    void load_InvalidatedBeforeItIsStored_ShouldNotCacheTheOldSnapshot() {
+        cache = new CatalogCache(300, 60, 1000, new ObjectMapper(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        // The change commits after the loader read the old row but before its snapshot is stored.
+        RestaurantDto old = cache.getRestaurant(1, () -> invalidatingOnSecondMenuRead(restaurant(1, loads.incrementAndGet()))).getValue();
+
+        assertEquals("v1", old.getName());
+        assertEquals("v2", cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet())).getValue().getName());
+    }
+
+    @Test
+    void staleEntry_ShouldBeServedWhileOneBackgroundReloadRuns() throws Exception {
+        cache = new CatalogCache(0, 60, 1000, new ObjectMapper(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet()));
+        Thread.sleep(5);
+
+        RestaurantDto stale = cache.getRestaurant(1, () -> restaurant(1, loads.incrementAndGet())).getValue();
+
+        assertEquals("v1", stale.getName());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void revalidate_AfterTheEntryExpired_ShouldMatchWithoutLoadingUntilInvalidated() throws Exception {
+        cache = new CatalogCache(0, 0, 1000, new ObjectMapper(), meterRegistry);
+        String etag = cache.getRestaurant(1, () -> restaurant(1, 1)).getEtag();
+        Thread.sleep(5);
+        List<Thread> loadedOn = new CopyOnWriteArrayList<>();
+
+        // Only the background refresh may load; the request thread answers from the tag.
+        assertEquals(Optional.of(etag), cache.revalidateRestaurant(1, etag, () -> {
+            loadedOn.add(Thread.currentThread());
+            return restaurant(1, 1);
+        }));
+        assertFalse(loadedOn.contains(Thread.currentThread()));
+        assertEquals(Optional.empty(), cache.revalidateRestaurant(1, "\"other\"", () -> restaurant(1, 1)));
+
+        cache.invalidateRestaurant(1);
+        assertEquals(Optional.empty(), cache.revalidateRestaurant(1, etag, () -> restaurant(1, 1)));
+    }
+
+    @Test
+    void store_OverMaxWeight_ShouldEvictLeastRecentlyUsed() {
+        cache = new CatalogCache(300, 60, 10, new ObjectMapper(), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getRestaurant(1, () -> restaurantWithMenu(1, 4));   // weight 5
+        cache.getRestaurant(2, () -> restaurantWithMenu(2, 4));   // weight 5
+        cache.getRestaurant(1, () -> restaurantWithMenu(1, 4));   // touch 1, so 2 is eldest
+
+        cache.getRestaurant(3, () -> restaurantWithMenu(3, 4));
+
+        assertEquals(10, cache.weight());
+        cache.getRestaurant(2, () -> restaurant(2, loads.incrementAndGet()));
+        assertEquals(1, loads.get(), "restaurant 2 should have been evicted");
+        assertTrue(meterRegistry.counter("foodnow.catalog.cache.evictions", "cause", "size").count() >= 1);
+    }
+
+    private RestaurantDto restaurant(int id, int version) {
+        RestaurantDto dto = new RestaurantDto();
+        dto.setId(id);
+        dto.setName("v" + version);
+        dto.setMenu(new ArrayList<>());
+        return dto;
+    }
+
+    // The first read of the menu serializes the snapshot; later ones happen while it is being stored.
+    private RestaurantDto invalidatingOnSecondMenuRead(RestaurantDto loaded) {
+        AtomicInteger reads = new AtomicInteger();
+        RestaurantDto dto = new RestaurantDto() {
+            @Override
+            public List<FoodItemDto> getMenu() {
+                if (reads.incrementAndGet() == 2) {
+                    cache.invalidateRestaurant(getId());
+                }
+                return super.getMenu();
+            }
+        };
+        dto.setId(loaded.getId());
+        dto.setName(loaded.getName());
+        dto.setMenu(loaded.getMenu());
+        return dto;
+    }
+
+    private RestaurantDto restaurantWithMenu(int id, int items) {
+        RestaurantDto dto = restaurant(id, 1);
+        for (int i = 0; i < items; i++) {
+            dto.getMenu().add(new FoodItemDto());
+        }
+        return dto;
+    }
+}
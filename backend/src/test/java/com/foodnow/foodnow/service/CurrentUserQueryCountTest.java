@@ -0,0 +1,136 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.SearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements issued by the cart and menu endpoints to make sure
+ * the current user is resolved without reloading the users table.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// The search indexer queries the database on its own thread; keep it out of the statement counts.
+@MockBean(SearchService.class)
+class CurrentUserQueryCountTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private JwtTokenProvider tokenProvider;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String customerToken;
+    private String ownerToken;
+    private FoodItem foodItem;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User customer = userRepository.save(newUser(Role.CUSTOMER));
+        User owner = userRepository.save(newUser(Role.RESTAURANT_OWNER));
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Query Count " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setOwner(owner);
+        restaurant = restaurantRepository.save(restaurant);
+
+        FoodItem item = new FoodItem();
+        item.setName("Paneer Tikka");
+        item.setDescription("Grilled");
+        item.setPrice(250);
+        item.setCategory(FoodCategory.STARTER);
+        item.setDietaryType(DietaryType.VEG);
+        item.setRestaurant(restaurant);
+        foodItem = foodItemRepository.save(item);
+
+        customerToken = tokenFor(customer);
+        ownerToken = tokenFor(owner);
+    }
+
+    @Test
+    void cartEndpoints_ShouldNotLoadTheUserEntity() throws Exception {
+        // Warm-up: creates the cart and primes the token caches.
+        mockMvc.perform(get("/api/cart").header("Authorization", customerToken)).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/cart").header("Authorization", customerToken)).andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/items").header("Authorization", customerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"foodItemId\":" + foodItem.getId() + ",\"quantity\":2}"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount(),
+                "cart endpoints should resolve the current user without loading it");
+    }
+
+    @Test
+    void updateFoodItem_ShouldResolveTheOwnersRestaurantOnce() throws Exception {
+        String body = "{\"name\":\"Paneer Tikka\",\"description\":\"Smoky\",\"price\":260,"
+                + "\"category\":\"STARTER\",\"dietaryType\":\"VEG\"}";
+        mockMvc.perform(put("/api/restaurant/menu/" + foodItem.getId()).header("Authorization", ownerToken)
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(put("/api/restaurant/menu/" + foodItem.getId()).header("Authorization", ownerToken)
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        // One select for the food item, one for the owner's restaurant id, one update.
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "expected at most 3 statements but was " + statistics.getPrepareStatementCount());
+    }
+
+    private User newUser(Role role) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.PendingDispatch;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.PendingDispatchRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.DispatchQueue;
+import com.foodnow.service.OrderStateMachine;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that orders parked without an agent are assigned, most urgent first, as agents
+ * come online, and that the parked rows survive a restart.
+ */
+@SpringBootTest
+@MockBean(SearchService.class)
+class DispatchQueueTest {
+
+    // Long enough that no simulated drop-off fires during the test.
+    private static final Duration DELIVERY = Duration.ofHours(1);
+
+    @Autowired private DispatchQueue dispatchQueue;
+    @Autowired private AgentPool agentPool;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private PendingDispatchRepository pendingDispatchRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User customer;
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        // No agent free: other tests leave agents online in the shared database.
+        agentPool.resync();
+        while (agentPool.claim().isPresent()) {
+        }
+        customer = userRepository.save(newUser(Role.CUSTOMER, null));
+        restaurant = new Restaurant();
+        restaurant.setName("Dispatch " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setDispatchSlaMinutes(20);
+        restaurant = restaurantRepository.save(restaurant);
+    }
+
+    @Test
+    void park_ShouldAssignTheMostUrgentOrderWhenAnAgentComesOnline() {
+        Order newer = newOrder(LocalDateTime.now().minusMinutes(2));
+        Order older = newOrder(LocalDateTime.now().minusMinutes(15));
+        dispatchQueue.park(newer, DELIVERY);
+        dispatchQueue.park(older, DELIVERY);
+        dispatchQueue.park(older, DELIVERY);
+        assertEquals(2, dispatchQueue.size());
+
+        User first = userRepository.save(newUser(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.OFFLINE));
+        agentPool.release(first.getId());
+
+        assertEquals(first.getId(), agentOf(older.getId()));
+        assertEquals(OrderStatus.PREPARING, orderRepository.findStatusById(newer.getId()).orElseThrow());
+        assertEquals(DeliveryAgentStatus.OFFLINE, userRepository.findById(first.getId()).orElseThrow().getDeliveryStatus());
+
+        User second = userRepository.save(newUser(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.OFFLINE));
+        agentPool.release(second.getId());
+
+        assertEquals(second.getId(), agentOf(newer.getId()));
+        assertEquals(0, dispatchQueue.size());
+        assertFalse(pendingDispatchRepository.existsByOrderId(newer.getId()));
+        assertFalse(pendingDispatchRepository.existsByOrderId(older.getId()));
+    }
+
+    @Test
+    void park_ShouldReleaseTheAgentWhenTheOrderWasCancelledWhileWaiting() {
+        Order order = newOrder(LocalDateTime.now());
+        dispatchQueue.park(order, DELIVERY);
+        assertTrue(orderStateMachine.tryTransition(order.getId(), OrderStatus.CANCELLED));
+
+        User agent = userRepository.save(newUser(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.OFFLINE));
+        agentPool.release(agent.getId());
+
+        assertEquals(OrderStatus.CANCELLED, orderRepository.findStatusById(order.getId()).orElseThrow());
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(agent.getId()).orElseThrow().getDeliveryStatus());
+        assertFalse(pendingDispatchRepository.existsByOrderId(order.getId()));
+        assertEquals(0, dispatchQueue.size());
+        assertEquals(1, agentPool.size());
+    }
+
+    @Test
+    void recover_ShouldAssignOrdersLeftInTheTable() {
+        Order order = newOrder(LocalDateTime.now());
+        // As if parked before a restart: the row exists but was never added to this queue.
+        PendingDispatch dispatch = new PendingDispatch();
+        dispatch.setOrderId(order.getId());
+        dispatch.setDispatchBy(order.getOrderTime().plusMinutes(20));
+        dispatch.setQueuedAt(LocalDateTime.now());
+        dispatch.setDeliverySeconds(DELIVERY.toSeconds());
+        pendingDispatchRepository.save(dispatch);
+        User agent = userRepository.save(newUser(Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE));
+        agentPool.resync();
+
+        dispatchQueue.recover();
+
+        assertEquals(agent.getId(), agentOf(order.getId()));
+        assertFalse(pendingDispatchRepository.existsByOrderId(order.getId()));
+    }
+
+    @Test
+    void park_ShouldRejectOrdersThatCanNoLongerGoOut() {
+        Order order = newOrder(LocalDateTime.now());
+        assertTrue(orderStateMachine.tryTransition(order.getId(), OrderStatus.CANCELLED));
+
+        assertThrows(IllegalStateException.class,
+                () -> dispatchQueue.park(orderRepository.findById(order.getId()).orElseThrow(), DELIVERY));
+        assertFalse(pendingDispatchRepository.existsByOrderId(order.getId()));
+    }
+
+    private Integer agentOf(int orderId) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            assertEquals(OrderStatus.OUT_FOR_DELIVERY, order.getStatus());
+            return order.getDeliveryPersonnel().getId();
+        });
+    }
+
+    private Order newOrder(LocalDateTime orderTime) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.PREPARING);
+        order.setOrderTime(orderTime);
+        order.setTotalPrice(250);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Kochi");
+        order.setDeliveryPostalCode("682001");
+        return orderRepository.save(order);
+    }
+
+    private User newUser(Role role, DeliveryAgentStatus status) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        user.setDeliveryStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,118 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.EmailOutboxMessage;
+import com.foodnow.model.EmailOutboxStatus;
+import com.foodnow.repository.EmailOutboxRepository;
+import com.foodnow.service.EmailOutboxDispatcher;
+import com.foodnow.service.EmailService;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the email outbox against an embedded GreenMail SMTP server
+ * (listening on the port configured in the test application.properties).
+ */
+@SpringBootTest
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired private EmailService emailService;
+    @Autowired private EmailOutboxDispatcher dispatcher;
+    @Autowired private EmailOutboxRepository outboxRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void queuedEmails_ShouldBeSentInOneBatchAndMarkedSent() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendApplicationConfirmationEmail("a@example.com", "Asha", "Spice Route");
+            emailService.sendApplicationApprovalEmail("b@example.com", "Bilal", "Curry House");
+        });
+        assertEquals(0, greenMail.getReceivedMessages().length, "nothing is sent inside the transaction");
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals(2, outboxRepository.countByStatus(EmailOutboxStatus.SENT));
+    }
+
+    @Test
+    void emails_ShouldNotBeQueuedWhenTheBusinessTransactionRollsBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendPasswordResetEmail("c@example.com", "http://localhost/reset?token=x");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void claimedEmails_ShouldOnlyBeSentByTheDispatcherHoldingTheClaim() throws Exception {
+        emailService.sendPasswordResetEmail("e@example.com", "http://localhost/reset?token=z");
+        long id = outboxRepository.findAll().get(0).getId();
+        // Another instance claimed it a moment ago.
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, outboxRepository.claim(id, now, now.plusMinutes(5)));
+
+        assertEquals(0, dispatcher.dispatchBatch());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+
+        // That instance died before finishing; once the claim lapses the message is due again.
+        EmailOutboxMessage message = outboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutboxStatus.SENDING, message.getStatus());
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(message);
+
+        assertEquals(1, dispatcher.dispatchBatch());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EmailOutboxStatus.SENT, outboxRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void failedSends_ShouldBackOffAndEventuallyDeadLetter() {
+        emailService.sendPasswordResetEmail("d@example.com", "http://localhost/reset?token=y");
+        greenMail.stop();
+
+        assertEquals(0, dispatcher.dispatchBatch());
+        EmailOutboxMessage message = outboxRepository.findAll().get(0);
+        assertEquals(EmailOutboxStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertNotNull(message.getLastError());
+
+        // Not due yet, so the next poll leaves it alone.
+        assertEquals(0, dispatcher.dispatchBatch());
+
+        int maxAttempts = (int) ReflectionTestUtils.getField(dispatcher, "maxAttempts");
+        message.setAttempts(maxAttempts - 1);
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(message);
+
+        dispatcher.dispatchBatch();
+        List<EmailOutboxMessage> all = outboxRepository.findAll();
+        assertEquals(EmailOutboxStatus.DEAD, all.get(0).getStatus());
+    }
+}
@@ -0,0 +1,72 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.service.EmailTemplate;
+import com.foodnow.service.EmailTemplateEngine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Year;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for compiled email templates.
+ */
+class EmailTemplateEngineTest {
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine();
+
+    @Test
+    void render_ShouldWrapBodyInLayoutWithSubjectAndYear() {
+        EmailTemplate template = engine.compile("greeting", "Hello & Welcome", "<p>Dear {{name}},</p>");
+
+        String html = engine.render(template, Map.of("name", "Asha"));
+
+        assertTrue(html.startsWith("<!DOCTYPE html>"));
+        assertTrue(html.contains("<div class='header'>Hello &amp; Welcome</div>"));
+        assertTrue(html.contains("<div class='content'><p>Dear Asha,</p></div>"));
+        assertTrue(html.contains("&copy; " + Year.now() + " FoodNow."));
+        assertEquals("Hello & Welcome", template.getSubject());
+    }
+
+    @Test
+    void render_ShouldEscapeVariables() {
+        EmailTemplate template = engine.compile("link", "Link", "<a href='{{link}}'>{{label}}</a>");
+
+        String html = engine.render(template, Map.of(
+                "link", "http://x/?a=1&b='2'",
+                "label", "<script>alert(\"x\")</script>"));
+
+        assertTrue(html.contains("<a href='http://x/?a=1&amp;b=&#39;2&#39;'>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&quot;x&quot;)&lt;/script&gt;</a>"));
+        assertFalse(html.contains("<script>"));
+    }
+
+    @Test
+    void render_WithMissingVariable_ShouldRenderEmptyText() {
+        EmailTemplate template = engine.compile("reason", "Reason", "<p>Reason: {{reason}}</p>");
+        Map<String, String> variables = new HashMap<>();
+        variables.put("reason", null);
+
+        assertTrue(engine.render(template, variables).contains("<p>Reason: </p>"));
+    }
+
+    @Test
+    void renderAll_ShouldRenderEachRecipientInOrder() {
+        EmailTemplate template = engine.compile("greeting", "Hi", "<p>Dear {{name}},</p>");
+
+        List<String> rendered = engine.renderAll(template, List.of(Map.of("name", "Asha"), Map.of("name", "Bilal")));
+
+        assertEquals(2, rendered.size());
+        assertEquals(engine.render(template, Map.of("name", "Asha")), rendered.get(0));
+        assertEquals(engine.render(template, Map.of("name", "Bilal")), rendered.get(1));
+    }
+
+    @Test
+    void compile_WithUnclosedPlaceholder_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> engine.compile("broken", "Broken", "<p>{{name</p>"));
+    }
+}
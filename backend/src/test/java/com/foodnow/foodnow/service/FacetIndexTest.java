@@ -0,0 +1,151 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.FacetResultDto;
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.service.FacetIndex;
+import com.foodnow.service.FacetQuery;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the bitmap facet index.
+ */
+class FacetIndexTest {
+
+    private FacetIndex index;
+    private Restaurant spiceRoute;
+    private Restaurant sweetShop;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex(new double[]{100, 200, 300});
+        spiceRoute = restaurant(1, "Spice Route");
+        sweetShop = restaurant(2, "Sweet Shop");
+        index.indexRestaurant(spiceRoute, List.of(
+                item(10, FoodCategory.STARTER, DietaryType.VEG, 150, true),
+                item(11, FoodCategory.STARTER, DietaryType.NON_VEG, 250, true),
+                item(12, FoodCategory.DRINK, DietaryType.VEGAN, 80, true),
+                item(13, FoodCategory.MAIN_COURSE, DietaryType.NON_VEG, 350, false)));
+        index.indexRestaurant(sweetShop, List.of(
+                item(20, FoodCategory.DESSERT, DietaryType.VEG, 120, true),
+                item(21, FoodCategory.DESSERT, DietaryType.VEGAN, 180, true)));
+    }
+
+    @Test
+    void query_ShouldAndAcrossFacetsAndOrWithinAFacet() {
+        FacetQuery query = new FacetQuery();
+        query.setCategories(EnumSet.of(FoodCategory.STARTER, FoodCategory.DESSERT));
+        query.setDietaryTypes(EnumSet.of(DietaryType.VEG, DietaryType.VEGAN));
+
+        FacetResultDto result = index.query(query);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(10, 20, 21), itemIds(result));
+    }
+
+    @Test
+    void query_ShouldCountEachFacetAgainstTheOtherSelectionsOnly() {
+        FacetQuery query = new FacetQuery();
+        query.setCategories(EnumSet.of(FoodCategory.STARTER));
+
+        FacetResultDto result = index.query(query);
+
+        // Category counts ignore the category selection itself...
+        assertEquals(2, result.getFacets().get("category").get("STARTER"));
+        assertEquals(2, result.getFacets().get("category").get("DESSERT"));
+        assertEquals(0, result.getFacets().get("category").get("MAIN_COURSE"), "unavailable items are filtered by default");
+        // ...while the other facets only count starters.
+        assertEquals(1, result.getFacets().get("dietaryType").get("VEG"));
+        assertEquals(1, result.getFacets().get("dietaryType").get("NON_VEG"));
+        assertEquals(0, result.getFacets().get("dietaryType").get("VEGAN"));
+        assertEquals(2, result.getFacets().get("available").get("true"));
+        assertEquals(1, result.getFacets().get("priceBand").get("100-200"));
+        assertEquals(1, result.getFacets().get("priceBand").get("200-300"));
+    }
+
+    @Test
+    void query_ShouldCheckExactPricesInPartlyCoveredBands() {
+        FacetQuery query = new FacetQuery();
+        query.setMinPrice(120.0);
+        query.setMaxPrice(250.0);
+
+        assertEquals(List.of(10, 11, 20, 21), itemIds(index.query(query)));
+
+        query.setMinPrice(151.0);
+        assertEquals(List.of(11, 21), itemIds(index.query(query)));
+    }
+
+    @Test
+    void query_ShouldFilterOnAvailability() {
+        FacetQuery query = new FacetQuery();
+        query.setAvailable(false);
+        assertEquals(List.of(13), itemIds(index.query(query)));
+
+        query.setAvailable(null);
+        assertEquals(6, index.query(query).getTotal());
+    }
+
+    @Test
+    void indexRestaurant_ShouldReflectAvailabilityTogglesAndReuseOrdinals() {
+        index.indexRestaurant(spiceRoute, List.of(
+                item(10, FoodCategory.STARTER, DietaryType.VEG, 150, false),
+                item(11, FoodCategory.STARTER, DietaryType.NON_VEG, 250, true),
+                item(12, FoodCategory.DRINK, DietaryType.VEGAN, 80, true),
+                item(13, FoodCategory.MAIN_COURSE, DietaryType.NON_VEG, 350, true)));
+
+        FacetQuery query = new FacetQuery();
+        query.setCategories(EnumSet.of(FoodCategory.STARTER, FoodCategory.MAIN_COURSE));
+        assertEquals(List.of(11, 13), itemIds(index.query(query)).stream().sorted().collect(Collectors.toList()));
+        assertEquals(6, index.size());
+
+        sweetShop.setStatus(Restaurant.RestaurantStatus.SUSPENDED);
+        index.indexRestaurant(sweetShop, List.of());
+        assertEquals(4, index.size());
+        assertEquals(0, index.query(new FacetQuery()).getFacets().get("category").get("DESSERT"));
+    }
+
+    @Test
+    void query_ShouldPageInOrdinalOrder() {
+        FacetQuery query = new FacetQuery();
+        query.setOffset(1);
+        query.setLimit(2);
+
+        FacetResultDto result = index.query(query);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(11, 12), itemIds(result));
+    }
+
+    private List<Integer> itemIds(FacetResultDto result) {
+        return result.getItems().stream().map(FoodItemDto::getId).collect(Collectors.toList());
+    }
+
+    private Restaurant restaurant(int id, String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        return restaurant;
+    }
+
+    private FoodItem item(int id, FoodCategory category, DietaryType dietaryType, double price, boolean available) {
+        FoodItem item = new FoodItem();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setCategory(category);
+        item.setDietaryType(dietaryType);
+        item.setPrice(price);
+        item.setAvailable(available);
+        return item;
+    }
+}
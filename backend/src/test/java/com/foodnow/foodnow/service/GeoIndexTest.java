@@ -0,0 +1,92 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.RestaurantDto;
+import com.foodnow.model.Restaurant;
+import com.foodnow.service.GeoIndex;
+import com.foodnow.service.GeoPoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the restaurant location grid.
+ */
+class GeoIndexTest {
+
+    private static final GeoPoint MG_ROAD = new GeoPoint(12.9756, 77.6050);
+
+    private GeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeoIndex(0.1);
+        index.indexRestaurant(restaurant(1, 12.9716, 77.5946));  // ~1.2 km from MG Road
+        index.indexRestaurant(restaurant(2, 12.9352, 77.6245));  // Koramangala, ~5 km
+        index.indexRestaurant(restaurant(3, 13.1986, 77.7066));  // airport, ~27 km
+        index.indexRestaurant(restaurant(4, 13.0827, 80.2707));  // Chennai, ~290 km
+    }
+
+    @Test
+    void withinRadius_ShouldReturnOnlyRestaurantsInsideTheCircleNearestFirst() {
+        List<RestaurantDto> result = index.withinRadius(MG_ROAD, 10, 20);
+
+        assertEquals(List.of(1, 2), ids(result));
+        assertEquals(GeoPoint.distanceKm(12.9756, 77.6050, 12.9716, 77.5946), result.get(0).getDistanceKm(), 0.01);
+        assertEquals(List.of(1), ids(index.withinRadius(MG_ROAD, 10, 1)));
+    }
+
+    @Test
+    void nearest_ShouldWidenTheSearchUntilKRestaurantsAreFound() {
+        assertEquals(List.of(1, 2, 3), ids(index.nearest(MG_ROAD, 3)));
+        assertEquals(List.of(1, 2, 3, 4), ids(index.nearest(MG_ROAD, 10)));
+    }
+
+    @Test
+    void indexRestaurant_ShouldMoveRelocatedRestaurantsAndDropInactiveOnes() {
+        index.indexRestaurant(restaurant(4, 12.9760, 77.6055));
+        assertEquals(4, ids(index.nearest(MG_ROAD, 1)).get(0));
+
+        Restaurant suspended = restaurant(1, 12.9716, 77.5946);
+        suspended.setStatus(Restaurant.RestaurantStatus.SUSPENDED);
+        index.indexRestaurant(suspended);
+        index.indexRestaurant(restaurant(2, null, null));
+
+        assertEquals(List.of(4), ids(index.withinRadius(MG_ROAD, 10, 20)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void withinRadius_ShouldWorkAcrossTheAntimeridian() {
+        index.indexRestaurant(restaurant(5, -16.5, 179.95));
+        index.indexRestaurant(restaurant(6, -16.5, -179.95));
+
+        assertEquals(List.of(5, 6), ids(index.withinRadius(new GeoPoint(-16.5, 179.99), 20, 20)));
+    }
+
+    @Test
+    void results_ShouldNotShareStateBetweenQueries() {
+        RestaurantDto first = index.withinRadius(MG_ROAD, 10, 20).get(0);
+        RestaurantDto second = index.withinRadius(new GeoPoint(12.9716, 77.5946), 10, 20).get(0);
+
+        assertNotSame(first, second);
+        assertTrue(first.getDistanceKm() > second.getDistanceKm());
+    }
+
+    private List<Integer> ids(List<RestaurantDto> results) {
+        return results.stream().map(RestaurantDto::getId).collect(Collectors.toList());
+    }
+
+    private Restaurant restaurant(int id, Double latitude, Double longitude) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("Restaurant " + id);
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        return restaurant;
+    }
+}
@@ -0,0 +1,217 @@
+package com.foodnow.foodnow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderItem;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Review;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.ReviewRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.SearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the customer's order history is paged newest first on (orderTime, id)
+ * and costs two statements per page however many orders and items it holds.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// The search indexer queries the database on its own thread; keep it out of the statement counts.
+@MockBean(SearchService.class)
+class OrderHistoryQueryCountTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private JwtTokenProvider tokenProvider;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String customerToken;
+    // Newest first, as the endpoint should return them.
+    private final List<Integer> expectedIds = new ArrayList<>();
+    private int reviewedOrderId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User customer = userRepository.save(newUser());
+        customerToken = tokenFor(customer);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("History " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = restaurantRepository.save(restaurant);
+        FoodItem dal = foodItemRepository.save(newItem(restaurant, "Dal Makhani"));
+        FoodItem naan = foodItemRepository.save(newItem(restaurant, "Butter Naan"));
+
+        // Two orders share a timestamp so the id tie-breaker is exercised across a page boundary.
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        LocalDateTime[] times = {base, base.plusHours(1), base.plusHours(2), base.plusHours(2), base.plusHours(3)};
+        List<Order> orders = new ArrayList<>();
+        for (LocalDateTime time : times) {
+            orders.add(orderRepository.save(newOrder(customer, restaurant, time, dal, naan)));
+        }
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            expectedIds.add(orders.get(i).getId());
+        }
+
+        Review review = new Review();
+        review.setRating(5);
+        review.setReviewDate(LocalDateTime.now());
+        review.setUser(customer);
+        review.setRestaurant(restaurant);
+        review.setOrder(orders.get(0));
+        reviewRepository.save(review);
+        reviewedOrderId = orders.get(0).getId();
+
+        // Warm-up: primes the token caches so only the history queries are counted.
+        read(get("/api/orders/my-orders").param("limit", "1"));
+    }
+
+    @Test
+    void paging_ShouldReturnEveryOrderOnceNewestFirstInTwoStatementsPerPage() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/orders/my-orders").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            statistics.clear();
+            JsonNode page = read(request);
+            assertTrue(statistics.getPrepareStatementCount() <= 2,
+                    "expected at most 2 statements per page but was " + statistics.getPrepareStatementCount());
+
+            for (JsonNode order : page.get("items")) {
+                seen.add(order.get("id").asInt());
+                assertEquals(2, order.get("items").size());
+                assertFalse(order.get("restaurantName").asText().isEmpty());
+                assertEquals(order.get("id").asInt() == reviewedOrderId, order.get("hasReview").asBoolean());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertEquals(expectedIds, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void legacyList_ShouldReturnTheWholeHistoryInTwoStatements() throws Exception {
+        statistics.clear();
+        JsonNode list = read(get("/api/orders/my-orders"));
+
+        assertTrue(list.isArray());
+        assertEquals(expectedIds.size(), list.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "expected at most 2 statements but was " + statistics.getPrepareStatementCount());
+        assertEquals("Dal Makhani", list.get(0).get("items").get(0).get("itemName").asText());
+    }
+
+    @Test
+    void invalidCursor_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/orders/my-orders").param("cursor", "bm90LWEtY3Vyc29y")
+                        .header("Authorization", customerToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request.header("Authorization", customerToken)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Order newOrder(User customer, Restaurant restaurant, LocalDateTime time, FoodItem... items) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.DELIVERED);
+        order.setOrderTime(time);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Bengaluru");
+        order.setDeliveryPostalCode("560001");
+        double total = 0;
+        for (FoodItem item : items) {
+            OrderItem line = new OrderItem();
+            line.setOrder(order);
+            line.setFoodItem(item);
+            line.setItemName(item.getName());
+            line.setItemCategory(item.getCategory());
+            line.setQuantity(1);
+            line.setPrice(item.getPrice());
+            order.getItems().add(line);
+            total += item.getPrice();
+        }
+        order.setTotalPrice(total);
+        return order;
+    }
+
+    private FoodItem newItem(Restaurant restaurant, String name) {
+        FoodItem item = new FoodItem();
+        item.setName(name);
+        item.setDescription("Test item");
+        item.setPrice(199);
+        item.setCategory(FoodCategory.MAIN_COURSE);
+        item.setDietaryType(DietaryType.VEG);
+        item.setRestaurant(restaurant);
+        return item;
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(Role.CUSTOMER);
+        return user;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
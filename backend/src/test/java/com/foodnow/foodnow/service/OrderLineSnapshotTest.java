@@ -0,0 +1,168 @@
+package com.foodnow.foodnow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderItem;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.OrderItemRepository;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.OrderLineBackfillJob;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that order lines carry their own copy of the menu item, filled in for
+ * older rows by the backfill job and kept when the item is deleted from the menu.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@MockBean(SearchService.class)
+class OrderLineSnapshotTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private OrderLineBackfillJob backfillJob;
+    @Autowired private JwtTokenProvider tokenProvider;
+
+    private String customerToken;
+    private String ownerToken;
+    private FoodItem biryani;
+    private int lineId;
+
+    @BeforeEach
+    void setUp() {
+        User customer = userRepository.save(newUser(Role.CUSTOMER));
+        User owner = userRepository.save(newUser(Role.RESTAURANT_OWNER));
+        customerToken = tokenFor(customer);
+        ownerToken = tokenFor(owner);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Snapshot " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setOwner(owner);
+        restaurant = restaurantRepository.save(restaurant);
+
+        biryani = new FoodItem();
+        biryani.setName("Hyderabadi Biryani");
+        biryani.setDescription("Test item");
+        biryani.setPrice(299);
+        biryani.setImageUrl("/uploads/biryani.jpg");
+        biryani.setCategory(FoodCategory.MAIN_COURSE);
+        biryani.setDietaryType(DietaryType.NON_VEG);
+        biryani.setRestaurant(restaurant);
+        biryani = foodItemRepository.save(biryani);
+
+        // A line as written before snapshots existed: only the food item reference is set.
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.DELIVERED);
+        order.setOrderTime(LocalDateTime.of(2024, 6, 1, 20, 0));
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Hyderabad");
+        order.setDeliveryPostalCode("500001");
+        OrderItem line = new OrderItem();
+        line.setOrder(order);
+        line.setFoodItem(biryani);
+        line.setQuantity(2);
+        line.setPrice(279);
+        order.getItems().add(line);
+        order.setTotalPrice(558);
+        lineId = orderRepository.save(order).getItems().get(0).getId();
+    }
+
+    @Test
+    void backfillSnapshots_ShouldCopyTheMenuItemOntoOlderLines() {
+        backfillJob.backfillSnapshots();
+
+        OrderItem line = orderItemRepository.findById(lineId).orElseThrow();
+        assertEquals("Hyderabadi Biryani", line.getItemName());
+        assertEquals("/uploads/biryani.jpg", line.getItemImageUrl());
+        assertEquals(FoodCategory.MAIN_COURSE, line.getItemCategory());
+        assertEquals(279, line.getPrice());
+    }
+
+    @Test
+    void linesNotYetBackfilled_ShouldReadTheMenuItem() throws Exception {
+        String history = mockMvc.perform(get("/api/orders/my-orders").header("Authorization", customerToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode item = objectMapper.readTree(history).get(0).get("items").get(0);
+        assertEquals("Hyderabadi Biryani", item.get("itemName").asText());
+        assertEquals("/uploads/biryani.jpg", item.get("imageUrl").asText());
+        assertEquals("MAIN_COURSE", item.get("category").asText());
+
+        String dashboard = mockMvc.perform(get("/api/restaurant/dashboard").header("Authorization", ownerToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Hyderabadi Biryani",
+                objectMapper.readTree(dashboard).get("orders").get(0).get("items").get(0).get("itemName").asText());
+    }
+
+    @Test
+    void deleteFoodItem_ShouldKeepOrderHistoryReadable() throws Exception {
+        mockMvc.perform(delete("/api/restaurant/menu/" + biryani.getId()).header("Authorization", ownerToken))
+                .andExpect(status().isOk());
+
+        assertFalse(foodItemRepository.existsById(biryani.getId()));
+        String body = mockMvc.perform(get("/api/orders/my-orders").header("Authorization", customerToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode item = objectMapper.readTree(body).get(0).get("items").get(0);
+        assertEquals("Hyderabadi Biryani", item.get("itemName").asText());
+        assertEquals("MAIN_COURSE", item.get("category").asText());
+        assertEquals(279, item.get("price").asDouble());
+    }
+
+    private User newUser(Role role) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
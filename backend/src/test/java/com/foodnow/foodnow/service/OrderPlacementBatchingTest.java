@@ -0,0 +1,149 @@
+package com.foodnow.foodnow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.CartRepository;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.SearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that placing an order writes the order, its lines and the cart clearing in
+ * a fixed number of statements, independent of the number of lines.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// The search indexer queries the database on its own thread; keep it out of the statement counts.
+@MockBean(SearchService.class)
+class OrderPlacementBatchingTest {
+
+    private static final int LINES = 10;
+    private static final String ADDRESS = "{\"line1\":\"2 Test Street\",\"city\":\"Bengaluru\",\"postalCode\":\"560001\"}";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private CartRepository cartRepository;
+    @Autowired private JwtTokenProvider tokenProvider;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String customerToken;
+    private int customerId;
+    private final List<FoodItem> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User customer = userRepository.save(newUser());
+        customerId = customer.getId();
+        customerToken = tokenFor(customer);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Batching " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = restaurantRepository.save(restaurant);
+        for (int i = 0; i < LINES; i++) {
+            items.add(foodItemRepository.save(newItem(restaurant, "Dish " + i)));
+        }
+
+        // Warm-up order: primes the token caches and reserves the first blocks of ids.
+        fillCart();
+        placeOrder();
+        fillCart();
+    }
+
+    @Test
+    void placeOrder_ShouldBatchTheLineInsertsAndCartDeletes() throws Exception {
+        statistics.clear();
+        JsonNode order = placeOrder();
+
+        assertEquals(LINES, order.get("items").size());
+        assertEquals(LINES + 1, statistics.getEntityInsertCount());
+        assertEquals(LINES, statistics.getEntityDeleteCount());
+        // Cart, cart lines and restaurant selects; order insert, one batch of line inserts,
+        // cart update and one batch of line deletes.
+        assertTrue(statistics.getPrepareStatementCount() <= 7,
+                "expected at most 7 statements but was " + statistics.getPrepareStatementCount());
+        assertTrue(cartRepository.findByUserId(customerId).orElseThrow().getItems().isEmpty());
+    }
+
+    private void fillCart() throws Exception {
+        for (FoodItem item : items) {
+            mockMvc.perform(post("/api/cart/items").header("Authorization", customerToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"foodItemId\":" + item.getId() + ",\"quantity\":1}"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private JsonNode placeOrder() throws Exception {
+        String body = mockMvc.perform(post("/api/orders").header("Authorization", customerToken)
+                        .contentType(MediaType.APPLICATION_JSON).content(ADDRESS))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private FoodItem newItem(Restaurant restaurant, String name) {
+        FoodItem item = new FoodItem();
+        item.setName(name);
+        item.setDescription("Test item");
+        item.setPrice(199);
+        item.setCategory(FoodCategory.MAIN_COURSE);
+        item.setDietaryType(DietaryType.VEG);
+        item.setRestaurant(restaurant);
+        return item;
+    }
+
+    private User newUser() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(Role.CUSTOMER);
+        return user;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
@@ -0,0 +1,220 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.OrderDto;
+import com.foodnow.exception.InvalidStatusTransitionException;
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.PendingDispatchRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.OrderService;
+import com.foodnow.service.OrderStateMachine;
+import com.foodnow.service.PaymentService;
+import com.foodnow.service.SearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that order status changes follow the transition table and are applied
+ * as compare-and-set updates.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@MockBean(SearchService.class)
+class OrderStateMachineTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private OrderStateMachine orderStateMachine;
+    @Autowired private PaymentService paymentService;
+    @Autowired private OrderService orderService;
+    @Autowired private AgentPool agentPool;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private PendingDispatchRepository pendingDispatchRepository;
+    @Autowired private JwtTokenProvider tokenProvider;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.save(newUser(Role.CUSTOMER));
+        restaurant = new Restaurant();
+        restaurant.setName("State " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = restaurantRepository.save(restaurant);
+    }
+
+    @Test
+    void transitionTable_ShouldOnlyAllowForwardMoves() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CONFIRMED));
+        assertTrue(OrderStatus.PREPARING.canTransitionTo(OrderStatus.OUT_FOR_DELIVERY));
+        assertTrue(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.DELIVERED));
+        assertFalse(OrderStatus.PREPARING.canTransitionTo(OrderStatus.CONFIRMED));
+        assertFalse(OrderStatus.OUT_FOR_DELIVERY.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.PENDING));
+        assertTrue(OrderStatus.PENDING.allowedSources().isEmpty());
+    }
+
+    @Test
+    void transition_ShouldUpdateWithoutLoadingTheOrder() {
+        int orderId = newOrder(OrderStatus.PENDING);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        orderStateMachine.transition(orderId, OrderStatus.CONFIRMED);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        // The conditional update, plus the read of the order's followers for the change event.
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    @Test
+    void transition_FromFinalStatus_ShouldBeRejectedWithConflict() throws Exception {
+        int orderId = newOrder(OrderStatus.DELIVERED);
+
+        mockMvc.perform(patch("/api/manage/orders/" + orderId + "/status")
+                        .header("Authorization", tokenFor(customer))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"CANCELLED\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Order #" + orderId + " cannot move from DELIVERED to CANCELLED."));
+        assertEquals(OrderStatus.DELIVERED, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    @Test
+    void concurrentTransitions_ShouldLetExactlyOneWin() throws Exception {
+        int orderId = newOrder(OrderStatus.OUT_FOR_DELIVERY);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Callable<Boolean> attempt = () -> {
+                    start.await();
+                    return orderStateMachine.tryTransition(orderId, OrderStatus.DELIVERED);
+                };
+                results.add(pool.submit(attempt));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                winners += result.get() ? 1 : 0;
+            }
+            assertEquals(1, winners);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void updateOrderStatus_ShouldReturnTheOrderAsTheDispatchLeftIt() {
+        User agent = newUser(Role.DELIVERY_PERSONNEL);
+        agent.setDeliveryStatus(DeliveryAgentStatus.ONLINE);
+        userRepository.save(agent);
+        agentPool.resync();
+        int orderId = newOrder(OrderStatus.PREPARING);
+
+        OrderDto dispatched = orderService.updateOrderStatus(orderId, OrderStatus.OUT_FOR_DELIVERY);
+
+        assertEquals(OrderStatus.OUT_FOR_DELIVERY, dispatched.getStatus());
+        assertEquals(OrderStatus.OUT_FOR_DELIVERY, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    @Test
+    void updateOrderStatus_ForAnOrderWithAnAgent_ShouldNeitherClaimNorPark() {
+        User assigned = newUser(Role.DELIVERY_PERSONNEL);
+        assigned.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
+        userRepository.save(assigned);
+        Order order = orderRepository.findById(newOrder(OrderStatus.PREPARING)).orElseThrow();
+        order.setDeliveryPersonnel(assigned);
+        orderRepository.save(order);
+        // No agent free: a claim would fail and park the order behind everyone else's.
+        agentPool.resync();
+        while (agentPool.claim().isPresent()) {
+        }
+
+        OrderDto dto = orderService.updateOrderStatus(order.getId(), OrderStatus.OUT_FOR_DELIVERY);
+
+        assertEquals(OrderStatus.OUT_FOR_DELIVERY, dto.getStatus());
+        assertFalse(pendingDispatchRepository.existsByOrderId(order.getId()));
+    }
+
+    @Test
+    void processPayment_ForCancelledOrder_ShouldBeRejected() {
+        int orderId = newOrder(OrderStatus.CANCELLED);
+
+        InvalidStatusTransitionException ex = assertThrows(InvalidStatusTransitionException.class,
+                () -> paymentService.processPaymentForOrder(orderId, "CARD"));
+        assertEquals(OrderStatus.CANCELLED, ex.getCurrentStatus());
+    }
+
+    private int newOrder(OrderStatus status) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(status);
+        order.setOrderTime(LocalDateTime.now());
+        order.setTotalPrice(250);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Chennai");
+        order.setDeliveryPostalCode("600001");
+        return orderRepository.save(order).getId();
+    }
+
+    private User newUser(Role role) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return "Bearer " + tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
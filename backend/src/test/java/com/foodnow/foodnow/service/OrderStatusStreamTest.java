@@ -0,0 +1,195 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.OrderStatusUpdateDto;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.JwtTokenProvider;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.OrderManagementService;
+import com.foodnow.service.OrderStatusBroadcaster;
+import com.foodnow.service.OrderStatusChangedEvent;
+import com.foodnow.service.SearchService;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the order status stream: snapshot then deltas for every follower of an
+ * order, authentication by a short-lived stream ticket, and closing streams that fall behind.
+ */
+@SpringBootTest
+// Printing the result would read the response headers while the sender thread is still writing them.
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@MockBean(SearchService.class)
+class OrderStatusStreamTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderManagementService orderManagementService;
+    @Autowired private JwtTokenProvider tokenProvider;
+
+    private User customer;
+    private User owner;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.save(newUser(Role.CUSTOMER));
+        owner = userRepository.save(newUser(Role.RESTAURANT_OWNER));
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Stream " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setOwner(owner);
+        restaurant = restaurantRepository.save(restaurant);
+
+        order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setStatus(OrderStatus.PENDING);
+        order.setOrderTime(LocalDateTime.now());
+        order.setTotalPrice(250);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Pune");
+        order.setDeliveryPostalCode("411001");
+        order = orderRepository.save(order);
+    }
+
+    @Test
+    void stream_ShouldSendSnapshotThenStatusChangesToCustomerAndOwner() throws Exception {
+        MockHttpServletResponse customerStream = openStream(customer);
+        MockHttpServletResponse ownerStream = openStream(owner);
+
+        awaitContent(customerStream, "event:snapshot");
+        assertTrue(customerStream.getContentAsString().contains("\"orderId\":" + order.getId()));
+        awaitContent(ownerStream, "event:snapshot");
+
+        orderManagementService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED);
+
+        awaitContent(customerStream, "\"status\":\"CONFIRMED\"");
+        awaitContent(ownerStream, "\"status\":\"CONFIRMED\"");
+        assertTrue(customerStream.getContentAsString().indexOf("event:snapshot")
+                < customerStream.getContentAsString().indexOf("event:status"));
+    }
+
+    @Test
+    void stream_WithoutToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/manage/orders/stream").param("ticket", "not-a-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void stream_WithTheMainTokenInTheUrl_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/manage/orders/stream").param("ticket", tokenFor(customer)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/manage/orders/stream").param("access_token", tokenFor(customer)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void streamTicket_UsedAsABearerToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/manage/orders/stream/ticket")
+                        .header("Authorization", "Bearer " + ticketFor(customer)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void subscriber_ThatFallsBehind_ShouldBeClosed() {
+        List<Runnable> parked = new ArrayList<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderStatusBroadcaster broadcaster = new OrderStatusBroadcaster(parked::add, 2, 60_000, registry);
+        broadcaster.subscribe(7, List::of);
+        broadcaster.subscribe(8, List::of);
+
+        // Nothing is being sent, so user 7's buffer (snapshot plus one event) fills up.
+        Order changed = new Order();
+        changed.setId(1);
+        changed.setStatus(OrderStatus.PREPARING);
+        broadcaster.onOrderStatusChanged(statusEvent(changed, 7));
+        assertEquals(1, broadcaster.subscriberCount(7));
+        broadcaster.onOrderStatusChanged(statusEvent(changed, 7));
+
+        assertEquals(0, broadcaster.subscriberCount(7));
+        assertEquals(1, broadcaster.subscriberCount(8));
+        assertEquals(1.0, registry.get("foodnow.orders.push.dropped").counter().count());
+    }
+
+    private OrderStatusChangedEvent statusEvent(Order changed, int recipient) {
+        return new OrderStatusChangedEvent(
+                new OrderStatusUpdateDto(changed.getId(), changed.getStatus(), "Test", null),
+                Set.of(recipient));
+    }
+
+    private MockHttpServletResponse openStream(User user) throws Exception {
+        return mockMvc.perform(get("/api/manage/orders/stream").param("ticket", ticketFor(user)))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("stream never contained " + expected + ": " + response.getContentAsString());
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private User newUser(Role role) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+
+    private String ticketFor(User user) throws Exception {
+        String body = mockMvc.perform(post("/api/manage/orders/stream/ticket")
+                        .header("Authorization", "Bearer " + tokenFor(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.ticket");
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
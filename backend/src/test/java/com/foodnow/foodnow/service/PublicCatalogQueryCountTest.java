@@ -0,0 +1,205 @@
+package com.foodnow.foodnow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.service.CatalogCache;
+import com.foodnow.service.SearchService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the public catalog filters by status and costs a fixed number of
+ * statements per page, however many restaurants and menu items it contains, and
+ * that revalidation with a matching ETag costs none.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+// The search indexer queries the database on its own thread; keep it out of the statement counts.
+@MockBean(SearchService.class)
+class PublicCatalogQueryCountTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private CatalogCache catalogCache;
+
+    private Statistics statistics;
+    private final Set<Integer> activeIds = new HashSet<>();
+    private int suspendedId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 5; i++) {
+            activeIds.add(newRestaurant(Restaurant.RestaurantStatus.ACTIVE).getId());
+        }
+        suspendedId = newRestaurant(Restaurant.RestaurantStatus.SUSPENDED).getId();
+        // Fixtures are written straight through the repositories, bypassing invalidation.
+        catalogCache.invalidateAll();
+    }
+
+    @Test
+    void paging_ShouldReturnEveryActiveRestaurantOnceInTwoStatementsPerPage() throws Exception {
+        Set<Integer> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/public/restaurants").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            statistics.clear();
+            JsonNode page = read(request);
+            assertTrue(statistics.getPrepareStatementCount() <= 2,
+                    "expected at most 2 statements per page but was " + statistics.getPrepareStatementCount());
+
+            assertTrue(page.get("items").size() <= 2);
+            for (JsonNode item : page.get("items")) {
+                assertTrue(seen.add(item.get("id").asInt()), "restaurant returned twice");
+                if (activeIds.contains(item.get("id").asInt())) {
+                    assertEquals(1, item.get("menu").size(), "unavailable items must be filtered out");
+                }
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null && pages < 100);
+
+        assertTrue(seen.containsAll(activeIds));
+        assertFalse(seen.contains(suspendedId), "suspended restaurants must not be listed");
+    }
+
+    @Test
+    void legacyList_ShouldUseTwoStatementsOnMissAndNoneOnHit() throws Exception {
+        statistics.clear();
+        JsonNode list = read(get("/api/public/restaurants"));
+
+        assertTrue(list.isArray());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "expected at most 2 statements but was " + statistics.getPrepareStatementCount());
+        List<Integer> ids = new ArrayList<>();
+        list.forEach(node -> ids.add(node.get("id").asInt()));
+        assertTrue(ids.containsAll(activeIds));
+        assertFalse(ids.contains(suspendedId));
+
+        statistics.clear();
+        read(get("/api/public/restaurants"));
+        assertEquals(0, statistics.getPrepareStatementCount(), "second read should be served from the cache");
+    }
+
+    @Test
+    void matchingIfNoneMatch_ShouldReturn304WithoutQueries() throws Exception {
+        String etag = mockMvc.perform(get("/api/public/restaurants")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/public/restaurants").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void acceptGzip_ShouldReturnThePrecompressedBody() throws Exception {
+        byte[] plain = mockMvc.perform(get("/api/public/restaurants")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/public/restaurants")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(plain, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void gzipBody_ShouldHaveItsOwnEtagAndStillRevalidateWithoutQueries() throws Exception {
+        String plainEtag = mockMvc.perform(get("/api/public/restaurants")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String gzipEtag = mockMvc.perform(get("/api/public/restaurants").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(plainEtag, gzipEtag);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/public/restaurants").header("Accept-Encoding", "gzip").header("If-None-Match", gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", gzipEtag));
+        mockMvc.perform(get("/api/public/restaurants").header("If-None-Match", gzipEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", plainEtag));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void invalidCursor_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/public/restaurants").param("cursor", "not-a-cursor!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode read(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Restaurant newRestaurant(Restaurant.RestaurantStatus status) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Catalog " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant.setStatus(status);
+        restaurant = restaurantRepository.save(restaurant);
+        foodItemRepository.save(newItem(restaurant, true));
+        foodItemRepository.save(newItem(restaurant, false));
+        return restaurant;
+    }
+
+    private FoodItem newItem(Restaurant restaurant, boolean available) {
+        FoodItem item = new FoodItem();
+        item.setName(available ? "Dal Makhani" : "Sold Out Special");
+        item.setDescription("Test item");
+        item.setPrice(199);
+        item.setCategory(FoodCategory.MAIN_COURSE);
+        item.setDietaryType(DietaryType.VEG);
+        item.setAvailable(available);
+        item.setRestaurant(restaurant);
+        return item;
+    }
+}
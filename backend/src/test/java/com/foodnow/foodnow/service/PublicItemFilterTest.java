@@ -0,0 +1,78 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.FacetResultDto;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.service.FacetQuery;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks how the item filter binds its parameters into a {@link FacetQuery}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@MockBean(SearchService.class)
+class PublicItemFilterTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        reset(searchService);
+        when(searchService.filter(any())).thenReturn(new FacetResultDto());
+    }
+
+    @Test
+    void emptyCategory_ShouldMeanNoFilter() throws Exception {
+        FacetQuery query = filter(get("/api/public/items").param("category", "").param("dietaryType", ""));
+
+        assertTrue(query.getCategories().isEmpty());
+        assertTrue(query.getDietaryTypes().isEmpty());
+        assertEquals(Boolean.TRUE, query.getAvailable());
+    }
+
+    @Test
+    void category_ShouldBeOredAcrossRepeats() throws Exception {
+        FacetQuery query = filter(get("/api/public/items").param("category", "DESSERT", "DRINK"));
+
+        assertEquals(EnumSet.of(FoodCategory.DESSERT, FoodCategory.DRINK), query.getCategories());
+    }
+
+    @Test
+    void available_ShouldBindAsABoolean() throws Exception {
+        assertEquals(Boolean.FALSE, filter(get("/api/public/items").param("available", "false")).getAvailable());
+        assertNull(filter(get("/api/public/items").param("available", "true", "false")).getAvailable());
+    }
+
+    @Test
+    void invalidAvailable_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/public/items").param("available", "maybe"))
+                .andExpect(status().isBadRequest());
+        verify(searchService, never()).filter(any());
+    }
+
+    private FacetQuery filter(MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        ArgumentCaptor<FacetQuery> query = ArgumentCaptor.forClass(FacetQuery.class);
+        verify(searchService, atLeastOnce()).filter(query.capture());
+        return query.getValue();
+    }
+}
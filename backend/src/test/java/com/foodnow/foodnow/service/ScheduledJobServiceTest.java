@@ -0,0 +1,151 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.Order;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.ScheduledJob;
+import com.foodnow.model.ScheduledJobType;
+import com.foodnow.model.User;
+import com.foodnow.repository.OrderRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.ScheduledJobRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.service.OrderManagementService;
+import com.foodnow.service.ScheduledJobService;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that persisted timers complete deliveries, including timers recovered from the table.
+ * The test properties turn the ticker off, so the tests advance the wheel with {@code runDue}.
+ */
+@SpringBootTest
+@MockBean(SearchService.class)
+class ScheduledJobServiceTest {
+
+    @Autowired private ScheduledJobService scheduledJobService;
+    @Autowired private ScheduledJobRepository scheduledJobRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderManagementService orderManagementService;
+
+    private User agent;
+    private int orderId;
+
+    @BeforeEach
+    void setUp() {
+        User customer = userRepository.save(newUser(Role.CUSTOMER));
+        agent = newUser(Role.DELIVERY_PERSONNEL);
+        agent.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
+        agent = userRepository.save(agent);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Timer " + UUID.randomUUID());
+        restaurant.setAddress("1 Test Street");
+        restaurant.setPhoneNumber("555");
+        restaurant.setBusinessId("B-1");
+        restaurant = restaurantRepository.save(restaurant);
+
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setRestaurant(restaurant);
+        order.setDeliveryPersonnel(agent);
+        order.setStatus(OrderStatus.OUT_FOR_DELIVERY);
+        order.setOrderTime(LocalDateTime.now());
+        order.setTotalPrice(250);
+        order.setDeliveryAddressLine1("2 Test Street");
+        order.setDeliveryCity("Kochi");
+        order.setDeliveryPostalCode("682001");
+        orderId = orderRepository.save(order).getId();
+    }
+
+    @Test
+    void schedule_ShouldCompleteTheDeliveryWhenTheTimerFires() throws Exception {
+        scheduledJobService.schedule(ScheduledJobType.COMPLETE_DELIVERY, orderId, agent.getId(), Duration.ofMillis(200));
+
+        awaitDelivered();
+        assertEquals(DeliveryAgentStatus.ONLINE, userRepository.findById(agent.getId()).orElseThrow().getDeliveryStatus());
+        awaitTrue(() -> scheduledJobRepository.findAll().stream().noneMatch(job -> job.getOrderId() == orderId));
+    }
+
+    @Test
+    void recover_ShouldFireJobsLeftInTheTable() throws Exception {
+        // As if written before a restart: the row exists but was never added to this wheel.
+        ScheduledJob job = new ScheduledJob();
+        job.setType(ScheduledJobType.COMPLETE_DELIVERY);
+        job.setOrderId(orderId);
+        job.setAgentId(agent.getId());
+        job.setDueAt(LocalDateTime.now().minusMinutes(5));
+        long jobId = scheduledJobRepository.save(job).getId();
+
+        scheduledJobService.recover();
+
+        awaitDelivered();
+        awaitTrue(() -> !scheduledJobRepository.existsById(jobId));
+    }
+
+    @Test
+    void timer_ForAnOrderMarkedDeliveredByHand_ShouldStillFreeTheAgent() throws Exception {
+        scheduledJobService.schedule(ScheduledJobType.COMPLETE_DELIVERY, orderId, agent.getId(), Duration.ofMillis(200));
+
+        orderManagementService.updateOrderStatus(orderId, OrderStatus.DELIVERED);
+        assertEquals(DeliveryAgentStatus.ONLINE, agentStatus());
+
+        // Had the agent been left OFFLINE (as by a hand update from before this was fixed), the timer frees them.
+        agent.setDeliveryStatus(DeliveryAgentStatus.OFFLINE);
+        userRepository.save(agent);
+        awaitTrue(() -> {
+            scheduledJobService.runDue();
+            return scheduledJobRepository.findAll().stream().noneMatch(job -> job.getOrderId() == orderId);
+        });
+        assertEquals(DeliveryAgentStatus.ONLINE, agentStatus());
+        assertEquals(OrderStatus.DELIVERED, orderRepository.findStatusById(orderId).orElseThrow());
+    }
+
+    private DeliveryAgentStatus agentStatus() {
+        return userRepository.findById(agent.getId()).orElseThrow().getDeliveryStatus();
+    }
+
+    private void awaitDelivered() throws InterruptedException {
+        awaitTrue(() -> {
+            scheduledJobService.runDue();
+            return orderRepository.findStatusById(orderId).orElseThrow() == OrderStatus.DELIVERED;
+        });
+    }
+
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not met within 5 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private User newUser(Role role) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setName("User " + suffix);
+        user.setEmail(suffix + "@example.com");
+        user.setPhoneNumber("9" + suffix);
+        user.setPassword("not-used");
+        user.setRole(role);
+        return user;
+    }
+}
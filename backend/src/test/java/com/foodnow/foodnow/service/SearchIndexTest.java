@@ -0,0 +1,125 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.dto.SearchResultDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.service.SearchIndex;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory catalog search index.
+ */
+class SearchIndexTest {
+
+    private SearchIndex index;
+    private Restaurant spiceRoute;
+    private Restaurant pizzaPlace;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex(0.1);
+        spiceRoute = restaurant(1, "Spice Route");
+        pizzaPlace = restaurant(2, "Pizza Place");
+        index.indexRestaurant(spiceRoute, List.of(
+                item(10, "Paneer Tikka", "Smoky grilled cottage cheese", FoodCategory.STARTER, DietaryType.VEG, 4.0, 3),
+                item(11, "Chicken Tikka", "Grilled chicken", FoodCategory.STARTER, DietaryType.NON_VEG, 0, 0),
+                item(12, "Mango Lassi", "Sweet yoghurt drink", FoodCategory.DRINK, DietaryType.VEG, 0, 0)));
+        index.indexRestaurant(pizzaPlace, List.of(
+                item(20, "Paneer Pizza", "Cheese pizza with paneer", FoodCategory.MAIN_COURSE, DietaryType.VEG, 2.0, 5)));
+    }
+
+    @Test
+    void search_ShouldRequireEveryTermAndRankNameMatchesFirst() {
+        assertEquals(List.of(10, 11), itemIds(index.search("tikka", 10)));
+        assertEquals(List.of(11), itemIds(index.search("chicken tikka", 10)));
+        // Item 20 also mentions paneer in its description, but item 10 is rated higher.
+        assertEquals(List.of(10, 20), itemIds(index.search("paneer", 10)));
+    }
+
+    @Test
+    void search_ShouldMatchRestaurantNamesCategoriesAndDietaryTypes() {
+        SearchResultDto result = index.search("spice", 10);
+        assertEquals(1, result.getRestaurants().size());
+        assertEquals("Spice Route", result.getRestaurants().get(0).getName());
+        assertEquals(3, result.getItems().size());
+
+        assertEquals(List.of(12), itemIds(index.search("drinks", 10)));
+        assertEquals(List.of(11), itemIds(index.search("non-veg starter", 10)));
+        assertFalse(itemIds(index.search("veg starter", 10)).contains(11), "veg must not match non-veg items");
+    }
+
+    @Test
+    void search_ShouldTreatTheLastTermAsAPrefix() {
+        assertEquals(List.of(12), itemIds(index.search("mango las", 10)));
+    }
+
+    @Test
+    void search_ShouldBoostHigherRatedItems() {
+        Restaurant other = restaurant(3, "Other");
+        index.indexRestaurant(other, List.of(
+                item(30, "Masala Dosa", "Crispy", FoodCategory.MAIN_COURSE, DietaryType.VEG, 1.0, 10),
+                item(31, "Masala Dosa", "Crispy", FoodCategory.MAIN_COURSE, DietaryType.VEG, 5.0, 10)));
+
+        assertEquals(List.of(31, 30), itemIds(index.search("masala dosa", 10)));
+    }
+
+    @Test
+    void indexRestaurant_ShouldReplaceThePreviousDocuments() {
+        index.indexRestaurant(spiceRoute, List.of(
+                item(13, "Veg Biryani", "Fragrant rice", FoodCategory.MAIN_COURSE, DietaryType.VEG, 0, 0)));
+
+        assertTrue(itemIds(index.search("tikka", 10)).isEmpty());
+        assertEquals(List.of(13), itemIds(index.search("biryani", 10)));
+
+        spiceRoute.setStatus(Restaurant.RestaurantStatus.SUSPENDED);
+        index.indexRestaurant(spiceRoute, List.of());
+        assertTrue(index.search("spice", 10).getRestaurants().isEmpty());
+        assertTrue(itemIds(index.search("biryani", 10)).isEmpty());
+    }
+
+    @Test
+    void search_ShouldSurviveCompaction() {
+        for (int round = 0; round < 600; round++) {
+            index.indexRestaurant(spiceRoute, List.of(
+                    item(10, "Paneer Tikka", "Smoky", FoodCategory.STARTER, DietaryType.VEG, 0, 0),
+                    item(11, "Chicken Tikka", "Grilled", FoodCategory.STARTER, DietaryType.NON_VEG, 0, 0)));
+        }
+
+        assertEquals(5, index.size());
+        assertEquals(List.of(20, 10), itemIds(index.search("paneer", 10)));
+    }
+
+    private List<Integer> itemIds(SearchResultDto result) {
+        return result.getItems().stream().map(FoodItemDto::getId).collect(Collectors.toList());
+    }
+
+    private Restaurant restaurant(int id, String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        return restaurant;
+    }
+
+    private FoodItem item(int id, String name, String description, FoodCategory category,
+                          DietaryType dietaryType, double averageRating, int ratingCount) {
+        FoodItem item = new FoodItem();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setCategory(category);
+        item.setDietaryType(dietaryType);
+        item.setAverageRating(averageRating);
+        item.setRatingCount(ratingCount);
+        return item;
+    }
+}
@@ -0,0 +1,88 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.dto.FoodItemDto;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.Restaurant;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.service.RestaurantCatalogChangedEvent;
+import com.foodnow.service.SearchService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that committed catalog changes reach the search index.
+ */
+@SpringBootTest
+class SearchServiceTest {
+
+    @Autowired private SearchService searchService;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private FoodItemRepository foodItemRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void catalogChange_ShouldBeSearchableAfterCommit() throws Exception {
+        String dish = "Zzquorma" + UUID.randomUUID().toString().substring(0, 6);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        int restaurantId = transaction.execute(status -> {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setName("Search " + UUID.randomUUID());
+            restaurant.setAddress("1 Test Street");
+            restaurant.setPhoneNumber("555");
+            restaurant.setBusinessId("B-1");
+            restaurant = restaurantRepository.save(restaurant);
+
+            FoodItem item = new FoodItem();
+            item.setName(dish);
+            item.setDescription("Test item");
+            item.setPrice(199);
+            item.setCategory(FoodCategory.MAIN_COURSE);
+            item.setDietaryType(DietaryType.VEG);
+            item.setRestaurant(restaurant);
+            foodItemRepository.save(item);
+
+            eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(restaurant.getId()));
+            return restaurant.getId();
+        });
+
+        awaitTrue(() -> names(dish).contains(dish));
+        assertEquals(restaurantId, searchService.search(dish, 5).getItems().get(0).getRestaurantId());
+
+        transaction.executeWithoutResult(status -> {
+            Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+            restaurant.setStatus(Restaurant.RestaurantStatus.SUSPENDED);
+            eventPublisher.publishEvent(new RestaurantCatalogChangedEvent(restaurantId));
+        });
+
+        awaitTrue(() -> names(dish).isEmpty());
+    }
+
+    private List<String> names(String query) {
+        return searchService.search(query, 5).getItems().stream().map(FoodItemDto::getName).collect(Collectors.toList());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(20);
+        }
+    }
+}
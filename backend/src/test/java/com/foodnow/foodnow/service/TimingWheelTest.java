@@ -0,0 +1,67 @@
+package com.foodnow.foodnow.service;
+
+import com.foodnow.service.TimingWheel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hashed timing wheel.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ShouldFireTimersOnTheFirstTickAtOrAfterTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        wheel.add("a", START + 25);
+        wheel.add("b", START + 30);
+
+        assertEquals(List.of(), wheel.advance(START + 29));
+        assertEquals(List.of("a", "b"), wheel.advance(START + 30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldWaitFullTurnsForDeadlinesBeyondOneRevolution() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, START);
+        wheel.add("later", START + 130); // three turns plus one tick on a 40 ms wheel
+        wheel.add("soon", START + 10);
+
+        assertEquals(List.of("soon"), wheel.advance(START + 50));
+        assertEquals(List.of(), wheel.advance(START + 129));
+        assertEquals(List.of("later"), wheel.advance(START + 130));
+    }
+
+    @Test
+    void add_WithDeadlineInThePast_ShouldFireOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+        wheel.advance(START + 500);
+        wheel.add("overdue", START + 100);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("overdue"), wheel.advance(START + 510));
+    }
+
+    @Test
+    void advance_ShouldHandleManyPendingTimers() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(100, 512, START);
+        int timers = 200_000;
+        for (int i = 0; i < timers; i++) {
+            wheel.add(i, START + (i % 3_600) * 1000L);
+        }
+        assertEquals(timers, wheel.size());
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = START; now <= START + 3_600_000; now += 60_000) {
+            fired.addAll(wheel.advance(now));
+        }
+        assertEquals(timers, fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
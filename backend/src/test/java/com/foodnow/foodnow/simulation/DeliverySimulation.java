@@ -0,0 +1,657 @@
+package com.foodnow.foodnow.simulation;
+
+import com.foodnow.FoodNowApplication;
+import com.foodnow.dto.AgentLocationDto;
+import com.foodnow.dto.OrderAddressDto;
+import com.foodnow.model.DeliveryAgentStatus;
+import com.foodnow.model.DietaryType;
+import com.foodnow.model.FoodCategory;
+import com.foodnow.model.FoodItem;
+import com.foodnow.model.OrderStatus;
+import com.foodnow.model.Restaurant;
+import com.foodnow.model.Role;
+import com.foodnow.model.User;
+import com.foodnow.repository.FoodItemRepository;
+import com.foodnow.repository.RestaurantRepository;
+import com.foodnow.repository.UserRepository;
+import com.foodnow.security.UserDetailsImpl;
+import com.foodnow.service.AgentPool;
+import com.foodnow.service.BatchDispatcher;
+import com.foodnow.service.CartService;
+import com.foodnow.service.DeliveryService;
+import com.foodnow.service.GeoPoint;
+import com.foodnow.service.OrderManagementService;
+import com.foodnow.service.OrderService;
+import com.foodnow.service.OrderStatusChangedEvent;
+import com.foodnow.service.RestaurantService;
+import com.foodnow.service.ScheduledJobService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Discrete-event simulation of the order and delivery workflow on a {@link VirtualClock}.
+ * It seeds customers, restaurants and delivery agents into a fresh in-memory database,
+ * then drives the real services through each order's life: the customer fills a cart
+ * and checks out, the kitchen starts preparing, the kitchen hands over for pickup and
+ * the order is dispatched, and the delivery timer completes it. Agents report their
+ * position every 30 virtual seconds and end each trip at the customer's door.
+ * <p>
+ * Everything runs on one thread. The clock jumps straight to the next event, and
+ * delivery timers are run by {@link ScheduledJobService#runDue} rather than the
+ * ticker. Hours of load therefore take seconds to minutes of wall time, and a given
+ * seed always yields the same run: every figure in {@link Report#virtualSummary()} is
+ * reproducible. Statements are those Hibernate prepared, counted from the first order.
+ * <p>
+ * Not part of the test suite; run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.foodnow.foodnow.simulation.DeliverySimulation -Dexec.args="agents=400 mode=batch"}.
+ * Settings are given as {@code key=value}; see {@link Settings}.
+ */
+public class DeliverySimulation {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySimulation.class);
+
+    // Bengaluru, spread about 9 km each way.
+    private static final double CENTER_LATITUDE = 12.9716;
+    private static final double CENTER_LONGITUDE = 77.5946;
+    private static final double SPREAD_DEGREES = 0.08;
+    private static final int MENU_SIZE = 5;
+
+    private static final long TICK_MS = 1000;
+    private static final long LOCATION_REPORT_MS = 30_000;
+    private static final long BATCH_WINDOW_MS = 2000;
+    // After the last order arrives, time allowed for the rest to be delivered.
+    private static final long DRAIN_LIMIT_MS = TimeUnit.HOURS.toMillis(6);
+
+    private final Settings settings;
+    private final Random random;
+    private final long startMillis;
+    private final VirtualClock clock;
+    private final PriorityQueue<Event> events = new PriorityQueue<>(
+            Comparator.comparingLong((Event event) -> event.at).thenComparingLong(event -> event.sequence));
+    private long sequence;
+
+    private CartService cartService;
+    private OrderService orderService;
+    private OrderManagementService orderManagementService;
+    private RestaurantService restaurantService;
+    private DeliveryService deliveryService;
+    private ScheduledJobService scheduledJobService;
+    private BatchDispatcher batchDispatcher;
+    private Statistics statistics;
+
+    private final List<Customer> customers = new ArrayList<>();
+    private final List<Kitchen> kitchens = new ArrayList<>();
+    private final Map<Integer, Agent> agents = new LinkedHashMap<>();
+    private final Map<Integer, Trip> trips = new HashMap<>();
+
+    private int placed;
+    private int parked;
+    private int delivered;
+    private int failed;
+    private final List<Long> assignmentLatencies = new ArrayList<>();
+    private final List<Long> queueWaits = new ArrayList<>();
+    private final List<Long> pickupDistances = new ArrayList<>();
+
+    public DeliverySimulation(Settings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed);
+        ZoneId zone = ZoneId.systemDefault();
+        this.startMillis = LocalDateTime.of(2025, 1, 6, 11, 0).atZone(zone).toInstant().toEpochMilli();
+        this.clock = new VirtualClock(startMillis, zone);
+    }
+
+    public static void main(String[] args) {
+        System.out.println(new DeliverySimulation(Settings.parse(args)).run());
+    }
+
+    public Report run() {
+        ConfigurableApplicationContext context = start();
+        try {
+            seed(context);
+            return simulate();
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FoodNowApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(ctx -> {
+                    // No servlet container, but CurrentUser is request-scoped.
+                    ctx.getBeanFactory().registerScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+                    ctx.getBeanFactory().registerSingleton("clock", clock);
+                })
+                .properties("spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "dispatch.mode=" + settings.mode,
+                        "delivery.auto-complete.pickup-delay-seconds=" + TimeUnit.MINUTES.toSeconds(settings.deliveryMinutes),
+                        // Every timer is driven from the event loop, on virtual time.
+                        "scheduled-jobs.auto-tick=false",
+                        "dispatch.batch.window-ms=3600000",
+                        "dispatch.queue.retry-ms=3600000",
+                        "agents.pool.resync-ms=3600000",
+                        "delivery.location.flush-ms=3600000",
+                        "delivery.location.heartbeat-check-ms=3600000",
+                        "email.outbox.initial-delay-ms=3600000",
+                        "email.outbox.poll-interval-ms=3600000",
+                        "orders.push.heartbeat-ms=3600000")
+                .run();
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+        orderManagementService = context.getBean(OrderManagementService.class);
+        restaurantService = context.getBean(RestaurantService.class);
+        deliveryService = context.getBean(DeliveryService.class);
+        scheduledJobService = context.getBean(ScheduledJobService.class);
+        // Only there with mode=batch.
+        batchDispatcher = context.getBeanProvider(BatchDispatcher.class).getIfAvailable();
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        context.addApplicationListener((ApplicationEvent event) -> {
+            if (event instanceof PayloadApplicationEvent<?> payload
+                    && payload.getPayload() instanceof OrderStatusChangedEvent change) {
+                onStatusChanged(change);
+            }
+        });
+        return context;
+    }
+
+    // Accounts are written straight to the repositories; signing up thousands through
+    // the real path would mostly measure password hashing.
+    private void seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RestaurantRepository restaurantRepository = context.getBean(RestaurantRepository.class);
+        FoodItemRepository foodItemRepository = context.getBean(FoodItemRepository.class);
+
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < settings.restaurants; i++) {
+            owners.add(newUser("owner", i, Role.RESTAURANT_OWNER, null));
+        }
+        owners = userRepository.saveAll(owners);
+        List<FoodItem> menus = new ArrayList<>();
+        for (User owner : owners) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setName("Kitchen " + owner.getId());
+            restaurant.setAddress("Simulated");
+            restaurant.setPhoneNumber("555");
+            restaurant.setBusinessId("SIM-" + owner.getId());
+            restaurant.setLatitude(randomLatitude());
+            restaurant.setLongitude(randomLongitude());
+            restaurant.setOwner(owner);
+            restaurant = restaurantRepository.save(restaurant);
+            Kitchen kitchen = new Kitchen(signIn(owner), restaurant.getLatitude(), restaurant.getLongitude());
+            for (int i = 0; i < MENU_SIZE; i++) {
+                FoodItem item = new FoodItem();
+                item.setName("Dish " + i);
+                item.setDescription("Simulated dish");
+                item.setPrice(100 + 20 * i);
+                item.setCategory(FoodCategory.MAIN_COURSE);
+                item.setDietaryType(DietaryType.VEG);
+                item.setRestaurant(restaurant);
+                menus.add(item);
+            }
+            kitchens.add(kitchen);
+        }
+        menus = foodItemRepository.saveAll(menus);
+        for (int i = 0; i < menus.size(); i++) {
+            kitchens.get(i / MENU_SIZE).menu[i % MENU_SIZE] = menus.get(i).getId();
+        }
+
+        List<User> customerUsers = new ArrayList<>();
+        for (int i = 0; i < settings.customers; i++) {
+            customerUsers.add(newUser("customer", i, Role.CUSTOMER, null));
+        }
+        for (User user : userRepository.saveAll(customerUsers)) {
+            OrderAddressDto address = new OrderAddressDto();
+            address.setLine1("Simulated");
+            address.setCity("Bengaluru");
+            address.setPostalCode("560001");
+            address.setLatitude(randomLatitude());
+            address.setLongitude(randomLongitude());
+            customers.add(new Customer(signIn(user), address));
+        }
+
+        List<User> agentUsers = new ArrayList<>();
+        for (int i = 0; i < settings.agents; i++) {
+            agentUsers.add(newUser("agent", i, Role.DELIVERY_PERSONNEL, DeliveryAgentStatus.ONLINE));
+        }
+        for (User user : userRepository.saveAll(agentUsers)) {
+            agents.put(user.getId(), new Agent(signIn(user), randomLatitude(), randomLongitude()));
+        }
+        // Seeded after startup, so the pool has not seen them yet.
+        context.getBean(AgentPool.class).resync();
+    }
+
+    private Report simulate() {
+        every(LOCATION_REPORT_MS, this::reportLocations);
+        every(TICK_MS, scheduledJobService::runDue);
+        if (batchDispatcher != null) {
+            every(BATCH_WINDOW_MS, batchDispatcher::dispatchWindow);
+        }
+        // Poisson arrivals over the simulated period.
+        double meanGapMs = TimeUnit.MINUTES.toMillis(Math.round(settings.hours * 60)) / (double) settings.orders;
+        double arrival = startMillis;
+        for (int i = 0; i < settings.orders; i++) {
+            arrival += -Math.log(1 - random.nextDouble()) * meanGapMs;
+            at((long) arrival, this::placeOrder);
+        }
+        long deadline = (long) arrival + DRAIN_LIMIT_MS;
+
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long wallStart = System.nanoTime();
+        while (delivered + failed < settings.orders && clock.millis() < deadline) {
+            Event event = events.poll();
+            clock.advanceTo(event.at);
+            event.action.run();
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        if (delivered + failed < settings.orders) {
+            logger.warn("{} orders were still open when the simulation stopped", settings.orders - delivered - failed);
+        }
+        return new Report(settings, placed, delivered, parked, failed, clock.millis() - startMillis,
+                TimeUnit.NANOSECONDS.toMillis(wallNanos), sorted(assignmentLatencies), sorted(queueWaits), sorted(pickupDistances),
+                placed == 0 ? 0 : (double) statements / placed);
+    }
+
+    private void placeOrder() {
+        Customer customer = customers.get(random.nextInt(customers.size()));
+        Kitchen kitchen = kitchens.get(random.nextInt(kitchens.size()));
+        int lines = 1 + random.nextInt(3);
+        long confirmAfter = uniform(20, 60);
+        long prepareFor = uniform(5 * 60, 15 * 60);
+        try {
+            int orderId = actAs(customer.authentication, () -> {
+                for (int i = 0; i < lines; i++) {
+                    cartService.addItemToCart(kitchen.menu[random.nextInt(MENU_SIZE)], 1);
+                }
+                return orderService.placeOrderFromCart(customer.address).getId();
+            });
+            placed++;
+            Trip trip = new Trip(orderId, customer, kitchen);
+            trips.put(orderId, trip);
+            after(confirmAfter, () -> prepare(trip, prepareFor));
+        } catch (RuntimeException e) {
+            fail("Placing an order", e);
+        }
+    }
+
+    private void prepare(Trip trip, long prepareFor) {
+        try {
+            actAs(trip.kitchen.authentication,
+                    () -> orderManagementService.updateOrderStatus(trip.orderId, OrderStatus.PREPARING));
+            after(prepareFor, () -> handOver(trip));
+        } catch (RuntimeException e) {
+            fail("Confirming order #" + trip.orderId, e);
+        }
+    }
+
+    private void handOver(Trip trip) {
+        trip.readyAt = clock.millis();
+        try {
+            boolean assigned = actAs(trip.kitchen.authentication, () -> restaurantService.readyForPickup(trip.orderId));
+            if (!assigned) {
+                trip.parked = true;
+                parked++;
+            }
+        } catch (RuntimeException e) {
+            fail("Handing over order #" + trip.orderId, e);
+        }
+    }
+
+    private void reportLocations() {
+        for (Agent agent : agents.values()) {
+            AgentLocationDto fix = new AgentLocationDto();
+            fix.setLatitude(agent.latitude);
+            fix.setLongitude(agent.longitude);
+            actAs(agent.authentication, () -> {
+                deliveryService.recordLocations(List.of(fix));
+                return null;
+            });
+        }
+    }
+
+    private void onStatusChanged(OrderStatusChangedEvent change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only count what commits.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(change);
+                }
+            });
+        } else {
+            record(change);
+        }
+    }
+
+    private void record(OrderStatusChangedEvent change) {
+        Trip trip = trips.get(change.getUpdate().getOrderId());
+        if (trip == null) {
+            return;
+        }
+        long now = clock.millis();
+        if (change.getUpdate().getStatus() == OrderStatus.OUT_FOR_DELIVERY) {
+            assignmentLatencies.add(now - trip.readyAt);
+            if (trip.parked) {
+                queueWaits.add(now - trip.readyAt);
+            }
+            for (int userId : change.getRecipientIds()) {
+                Agent agent = agents.get(userId);
+                if (agent != null) {
+                    pickupDistances.add(Math.round(1000 * GeoPoint.distanceKm(
+                            agent.latitude, agent.longitude, trip.kitchen.latitude, trip.kitchen.longitude)));
+                    // Wherever they were, the trip ends at the customer's door.
+                    agent.latitude = trip.customer.address.getLatitude();
+                    agent.longitude = trip.customer.address.getLongitude();
+                }
+            }
+        } else if (change.getUpdate().getStatus() == OrderStatus.DELIVERED) {
+            delivered++;
+        }
+    }
+
+    private void fail(String what, RuntimeException e) {
+        failed++;
+        logger.warn("{} failed at {} ms", what, clock.millis() - startMillis, e);
+    }
+
+    // Runs the action as the given user, in a request of its own.
+    private <T> T actAs(UsernamePasswordAuthenticationToken authentication, Supplier<T> action) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void at(long atMillis, Runnable action) {
+        events.add(new Event(atMillis, sequence++, action));
+    }
+
+    private void after(long seconds, Runnable action) {
+        at(clock.millis() + TimeUnit.SECONDS.toMillis(seconds), action);
+    }
+
+    private void every(long periodMs, Runnable action) {
+        at(clock.millis(), new Runnable() {
+            @Override
+            public void run() {
+                action.run();
+                at(clock.millis() + periodMs, this);
+            }
+        });
+    }
+
+    private long uniform(long fromSeconds, long toSeconds) {
+        return fromSeconds + (long) (random.nextDouble() * (toSeconds - fromSeconds));
+    }
+
+    private double randomLatitude() {
+        return CENTER_LATITUDE + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+    }
+
+    private double randomLongitude() {
+        return CENTER_LONGITUDE + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+    }
+
+    private static User newUser(String kind, int index, Role role, DeliveryAgentStatus status) {
+        User user = new User();
+        user.setName("Simulated " + kind + " " + index);
+        user.setEmail(kind + "-" + index + "@simulation.example");
+        user.setPhoneNumber(kind.charAt(0) + String.valueOf(index));
+        user.setPassword("not-used");
+        user.setRole(role);
+        user.setDeliveryStatus(status);
+        return user;
+    }
+
+    private static UsernamePasswordAuthenticationToken signIn(User user) {
+        UserDetailsImpl details = UserDetailsImpl.build(user);
+        return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+    }
+
+    private static long[] sorted(List<Long> values) {
+        long[] array = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Size and shape of a run. Defaults: 5,000 customers, 500 restaurants and 520 agents;
+     * 4,000 orders over two hours, which keeps about 96% of agents busy; 15-minute
+     * deliveries; greedy dispatch; seed 42.
+     */
+    public static class Settings {
+
+        int customers = 5000;
+        int restaurants = 500;
+        int agents = 520;
+        int orders = 4000;
+        double hours = 2;
+        int deliveryMinutes = 15;
+        String mode = "greedy";
+        long seed = 42;
+
+        /**
+         * Reads {@code key=value} arguments: customers, restaurants, agents, orders,
+         * hours, deliveryMinutes, mode ({@code greedy} or {@code batch}) and seed.
+         */
+        public static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("Expected key=value, got " + arg);
+                }
+                String value = arg.substring(equals + 1);
+                switch (arg.substring(0, equals)) {
+                    case "customers" -> settings.customers = Integer.parseInt(value);
+                    case "restaurants" -> settings.restaurants = Integer.parseInt(value);
+                    case "agents" -> settings.agents = Integer.parseInt(value);
+                    case "orders" -> settings.orders = Integer.parseInt(value);
+                    case "hours" -> settings.hours = Double.parseDouble(value);
+                    case "deliveryMinutes" -> settings.deliveryMinutes = Integer.parseInt(value);
+                    case "mode" -> settings.mode = value;
+                    case "seed" -> settings.seed = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown setting " + arg);
+                }
+            }
+            return settings;
+        }
+    }
+
+    /**
+     * What a run measured. Latencies are in virtual milliseconds and pickup distances
+     * (from the agent to the restaurant, when assigned) in metres, all sorted.
+     */
+    public static class Report {
+
+        final Settings settings;
+        final int ordersPlaced;
+        final int ordersDelivered;
+        final int ordersParked;
+        final int ordersFailed;
+        final long virtualMillis;
+        final long wallMillis;
+        final long[] assignmentLatencies;
+        final long[] queueWaits;
+        final long[] pickupDistances;
+        final double statementsPerOrder;
+
+        Report(Settings settings, int ordersPlaced, int ordersDelivered, int ordersParked, int ordersFailed,
+               long virtualMillis, long wallMillis, long[] assignmentLatencies, long[] queueWaits,
+               long[] pickupDistances, double statementsPerOrder) {
+            this.settings = settings;
+            this.ordersPlaced = ordersPlaced;
+            this.ordersDelivered = ordersDelivered;
+            this.ordersParked = ordersParked;
+            this.ordersFailed = ordersFailed;
+            this.virtualMillis = virtualMillis;
+            this.wallMillis = wallMillis;
+            this.assignmentLatencies = assignmentLatencies;
+            this.queueWaits = queueWaits;
+            this.pickupDistances = pickupDistances;
+            this.statementsPerOrder = statementsPerOrder;
+        }
+
+        /**
+         * Orders delivered per second of wall time.
+         */
+        public double ordersPerSecond() {
+            return wallMillis == 0 ? 0 : ordersDelivered * 1000.0 / wallMillis;
+        }
+
+        /**
+         * Everything but the wall-clock figures; identical for runs with the same settings.
+         */
+        public String virtualSummary() {
+            return String.format(Locale.ROOT,
+                    "%d customers, %d restaurants, %d agents, %s dispatch, seed %d%n"
+                            + "  simulated            %.2f h%n"
+                            + "  orders               %d placed, %d delivered, %d failed%n"
+                            + "  parked for an agent  %d%n"
+                            + "  assignment latency   %s%n"
+                            + "  queue wait           %s%n"
+                            + "  pickup distance      %s%n"
+                            + "  DB statements/order  %.1f%n",
+                    settings.customers, settings.restaurants, settings.agents, settings.mode, settings.seed,
+                    virtualMillis / 3_600_000.0,
+                    ordersPlaced, ordersDelivered, ordersFailed,
+                    ordersParked,
+                    distribution(assignmentLatencies),
+                    distribution(queueWaits),
+                    distances(pickupDistances),
+                    statementsPerOrder);
+        }
+
+        @Override
+        public String toString() {
+            return virtualSummary() + String.format(Locale.ROOT,
+                    "  wall time            %.1f s%n  orders/s (wall)      %.0f%n",
+                    wallMillis / 1000.0, ordersPerSecond());
+        }
+
+        private static String distribution(long[] sortedMillis) {
+            if (sortedMillis.length == 0) {
+                return "none";
+            }
+            return String.format(Locale.ROOT, "p50 %.0f s, p95 %.0f s, p99 %.0f s, max %.0f s (%d orders)",
+                    percentile(sortedMillis, 0.50) / 1000.0, percentile(sortedMillis, 0.95) / 1000.0,
+                    percentile(sortedMillis, 0.99) / 1000.0, sortedMillis[sortedMillis.length - 1] / 1000.0,
+                    sortedMillis.length);
+        }
+
+        private static String distances(long[] sortedMetres) {
+            if (sortedMetres.length == 0) {
+                return "none";
+            }
+            return String.format(Locale.ROOT, "mean %.2f km, p50 %.2f km, p95 %.2f km, max %.2f km",
+                    Arrays.stream(sortedMetres).average().orElse(0) / 1000, percentile(sortedMetres, 0.50) / 1000.0,
+                    percentile(sortedMetres, 0.95) / 1000.0, sortedMetres[sortedMetres.length - 1] / 1000.0);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(rank, 1) - 1];
+        }
+    }
+
+    private static final class Event {
+        final long at;
+        final long sequence;
+        final Runnable action;
+
+        Event(long at, long sequence, Runnable action) {
+            this.at = at;
+            this.sequence = sequence;
+            this.action = action;
+        }
+    }
+
+    private static final class Customer {
+        final UsernamePasswordAuthenticationToken authentication;
+        final OrderAddressDto address;
+
+        Customer(UsernamePasswordAuthenticationToken authentication, OrderAddressDto address) {
+            this.authentication = authentication;
+            this.address = address;
+        }
+    }
+
+    private static final class Kitchen {
+        final UsernamePasswordAuthenticationToken authentication;
+        final double latitude;
+        final double longitude;
+        final int[] menu = new int[MENU_SIZE];
+
+        Kitchen(UsernamePasswordAuthenticationToken authentication, double latitude, double longitude) {
+            this.authentication = authentication;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static final class Agent {
+        final UsernamePasswordAuthenticationToken authentication;
+        double latitude;
+        double longitude;
+
+        Agent(UsernamePasswordAuthenticationToken authentication, double latitude, double longitude) {
+            this.authentication = authentication;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static final class Trip {
+        final int orderId;
+        final Customer customer;
+        final Kitchen kitchen;
+        long readyAt;
+        boolean parked;
+
+        Trip(int orderId, Customer customer, Kitchen kitchen) {
+            this.orderId = orderId;
+            this.customer = customer;
+            this.kitchen = kitchen;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.foodnow.foodnow.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A small run with fewer agents than the load needs, so some orders have to wait.
+ */
+class DeliverySimulationTest {
+
+    @Test
+    void run_ShouldDeliverEveryOrderAndRepeatExactlyWithTheSameSeed() {
+        DeliverySimulation.Settings settings = DeliverySimulation.Settings.parse(new String[] {
+                "customers=40", "restaurants=6", "agents=4", "orders=60", "hours=0.5", "deliveryMinutes=10", "seed=7" });
+
+        DeliverySimulation.Report first = new DeliverySimulation(settings).run();
+        DeliverySimulation.Report second = new DeliverySimulation(settings).run();
+
+        assertEquals(60, first.ordersPlaced);
+        assertEquals(60, first.ordersDelivered);
+        assertEquals(0, first.ordersFailed);
+        assertTrue(first.ordersParked > 0);
+        assertEquals(first.ordersParked, first.queueWaits.length);
+        assertEquals(60, first.assignmentLatencies.length);
+        assertTrue(first.statementsPerOrder > 0);
+        assertEquals(first.virtualSummary(), second.virtualSummary());
+    }
+}
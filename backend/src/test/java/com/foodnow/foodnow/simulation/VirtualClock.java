@@ -0,0 +1,50 @@
+package com.foodnow.foodnow.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock that only moves when told to, and never backwards. It has a single zone:
+ * a copy in another zone could not be advanced along with it.
+ */
+public class VirtualClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile long millis;
+
+    public VirtualClock(long startMillis, ZoneId zone) {
+        this.millis = startMillis;
+        this.zone = zone;
+    }
+
+    public void advanceTo(long targetMillis) {
+        if (targetMillis < millis) {
+            throw new IllegalArgumentException("The clock cannot go back from " + millis + " to " + targetMillis);
+        }
+        millis = targetMillis;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (!zone.equals(this.zone)) {
+            throw new UnsupportedOperationException("A virtual clock keeps the zone it was created with");
+        }
+        return this;
+    }
+}
@@ -2,6 +2,8 @@ import { Component, computed, inject, signal, OnInit, OnDestroy, effect } from '
 import { CommonModule, DatePipe } from '@angular/common';
 import { RestaurantDashboardService, RestaurantOrder } from '../dashboard';
 import { NotificationService } from '../../shared/notification';
+import { OrderStatusUpdate, OrderStreamService } from '../../shared/services/order-stream';
+import { Subscription } from 'rxjs';
 
 type OrderStatus = 'PENDING' | 'CONFIRMED' | 'PREPARING' | 'OUT_FOR_DELIVERY' | 'DELIVERED' | 'CANCELLED';
 
@@ -15,6 +17,8 @@ type OrderStatus = 'PENDING' | 'CONFIRMED' | 'PREPARING' | 'OUT_FOR_DELIVERY' |
 export class RestaurantOrdersComponent implements OnInit, OnDestroy {
   private dashboardService = inject(RestaurantDashboardService);
   private notificationService = inject(NotificationService);
+  private orderStreamService = inject(OrderStreamService);
+  private streamSubscription?: Subscription;
   private audioContext = new AudioContext();
   private timerInterval: any;
   private lastPendingCount = 0;
@@ -70,8 +74,16 @@ export class RestaurantOrdersComponent implements OnInit, OnDestroy {
     });
   }
 
-  ngOnInit(): void { this.startTimer(); }
-  ngOnDestroy(): void { clearInterval(this.timerInterval); }
+  ngOnInit(): void {
+    this.startTimer();
+    this.streamSubscription = this.orderStreamService.updates().subscribe(update => this.applyStreamUpdate(update));
+  }
+
+  ngOnDestroy(): void {
+    clearInterval(this.timerInterval);
+    this.streamSubscription?.unsubscribe();
+  }
+
   selectStatus(status: OrderStatus): void { this.selectedStatus.set(status); }
 
   private startTimer(): void {
@@ -104,6 +116,22 @@ export class RestaurantOrdersComponent implements OnInit, OnDestroy {
     oscillator.stop(this.audioContext.currentTime + 0.5);
   }
 
+  // New orders arrive with items and customer details the stream does not carry, so reload for them.
+  private applyStreamUpdate(update: OrderStatusUpdate): void {
+    const known = this.allOrders().find(o => o.id === update.orderId);
+    if (!known) {
+      if (update.status !== 'CANCELLED') {
+        this.dashboardService.fetchDashboardData().subscribe();
+      }
+    } else if (update.status === 'CANCELLED') {
+      this.dashboardService.dashboardData.update(data =>
+        data ? { ...data, orders: data.orders.filter(o => o.id !== update.orderId) } : null
+      );
+    } else if (known.status !== update.status) {
+      this.updateLocalOrderStatus(update.orderId, update.status);
+    }
+  }
+
   private updateLocalOrderStatus(orderId: number, status: OrderStatus) {
     this.dashboardService.dashboardData.update(currentData => {
       if (!currentData) return null;
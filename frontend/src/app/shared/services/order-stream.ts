@@ -0,0 +1,70 @@
+// src/app/shared/services/order-stream.ts
+import { HttpClient } from '@angular/common/http';
+import { Injectable, inject } from '@angular/core';
+import { Observable } from 'rxjs';
+
+export type OrderStreamStatus = 'PENDING' | 'CONFIRMED' | 'PREPARING' | 'OUT_FOR_DELIVERY' | 'DELIVERED' | 'CANCELLED';
+
+export interface OrderStatusUpdate {
+  orderId: number;
+  status: OrderStreamStatus;
+  restaurantName: string;
+  orderTime: string;
+}
+
+@Injectable({
+  providedIn: 'root'
+})
+export class OrderStreamService {
+  private http = inject(HttpClient);
+  private apiUrl = 'http://localhost:8080/api/manage/orders';
+
+  /**
+   * Status changes for every order the signed-in user follows: the active ones first, then
+   * one update per change. An EventSource cannot send the Authorization header, so each
+   * connection opens with a short-lived ticket; a dropped stream reconnects with a new one.
+   */
+  updates(): Observable<OrderStatusUpdate> {
+    return new Observable<OrderStatusUpdate>(subscriber => {
+      let source: EventSource | null = null;
+      let retry: any;
+      let closed = false;
+
+      const connect = () => {
+        this.http.post<{ ticket: string }>(`${this.apiUrl}/stream/ticket`, {}).subscribe({
+          next: ({ ticket }) => {
+            if (closed) return;
+            source = new EventSource(`${this.apiUrl}/stream?ticket=${encodeURIComponent(ticket)}`);
+            source.addEventListener('snapshot', event => {
+              for (const update of JSON.parse((event as MessageEvent).data) as OrderStatusUpdate[]) {
+                subscriber.next(update);
+              }
+            });
+            source.addEventListener('status', event => {
+              subscriber.next(JSON.parse((event as MessageEvent).data));
+            });
+            // The ticket has expired by the time EventSource would retry on its own.
+            source.onerror = () => reconnect();
+          },
+          error: () => reconnect()
+        });
+      };
+
+      const reconnect = () => {
+        source?.close();
+        source = null;
+        if (!closed) {
+          clearTimeout(retry);
+          retry = setTimeout(connect, 5000);
+        }
+      };
+
+      connect();
+      return () => {
+        closed = true;
+        clearTimeout(retry);
+        source?.close();
+      };
+    });
+  }
+}